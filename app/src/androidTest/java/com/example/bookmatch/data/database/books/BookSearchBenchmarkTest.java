@@ -0,0 +1,126 @@
+package com.example.bookmatch.data.database.books;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.util.Log;
+
+import androidx.room.Room;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.model.Book;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Times the full text search of the saved books against the LIKE scan it replaced, over an
+ * in-memory library of LIBRARY_SIZE books. Both must find the same books.
+ */
+@RunWith(AndroidJUnit4.class)
+public class BookSearchBenchmarkTest {
+
+    private static final String TAG = BookSearchBenchmarkTest.class.getSimpleName();
+
+    private static final int LIBRARY_SIZE = 5000;
+    private static final int RUNS = 20;
+    private static final int PAGE_SIZE = 30;
+
+    // The query of BookDao.searchSavedBookItemsPagingSource, limited to a first page
+    private static final String FTS_QUERY = "SELECT Book.id FROM Book "
+            + "JOIN BookFts ON BookFts.rowid = Book.rowid "
+            + "WHERE BookFts MATCH ? AND Book.is_saved = 1 "
+            + "ORDER BY Book.rowid IN (SELECT rowid FROM BookFts WHERE BookFts MATCH ?) DESC, "
+            + "Book.rowid IN (SELECT rowid FROM BookFts WHERE BookFts MATCH ?) DESC, "
+            + "Book.title LIMIT " + PAGE_SIZE;
+
+    private static final String LIKE_QUERY = "SELECT id FROM Book WHERE is_saved = 1 AND "
+            + "(title LIKE ? OR author_name LIKE ? OR description LIKE ? OR review LIKE ?) "
+            + "ORDER BY title LIMIT " + PAGE_SIZE;
+
+    private BookMatchRoomDatabase database;
+
+    @Before
+    public void setUp() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        database = Room.inMemoryDatabaseBuilder(context, BookMatchRoomDatabase.class).build();
+
+        List<Book> books = new ArrayList<>(LIBRARY_SIZE);
+        for (int i = 0; i < LIBRARY_SIZE; i++) {
+            String title = i % 500 == 0 ? "The Silmarillion " + i : "Book number " + i;
+            String author = i % 250 == 0 ? "Tolkien" : "Author " + (i % 97);
+            books.add(new Book("id" + i, title, new ArrayList<>(Arrays.asList(author)),
+                    "A long description of the book number " + i + " with many words in it",
+                    "2001", null, true, false, null, 0.0f));
+        }
+        database.bookDao().insertBooksWithAuthors(books);
+    }
+
+    @After
+    public void tearDown() {
+        database.close();
+    }
+
+    @Test
+    public void ftsSearch_findsTheSameBooksAsLike() {
+        BookSearchQuery query = BookSearchQuery.parse("silmarillion");
+        String[] ftsArgs = {query.getMatchQuery(), query.getTitleQuery(), query.getAuthorQuery()};
+        String[] likeArgs = {"%silmarillion%", "%silmarillion%", "%silmarillion%", "%silmarillion%"};
+
+        List<String> ftsIds = ids(FTS_QUERY, ftsArgs);
+        List<String> likeIds = ids(LIKE_QUERY, likeArgs);
+        assertEquals(LIBRARY_SIZE / 500, ftsIds.size());
+        assertEquals(likeIds.size(), ftsIds.size());
+        assertTrue(ftsIds.containsAll(likeIds));
+
+        long ftsNanos = time(FTS_QUERY, ftsArgs);
+        long likeNanos = time(LIKE_QUERY, likeArgs);
+        Log.i(TAG, "Search of " + LIBRARY_SIZE + " books: FTS " + ftsNanos / 1000 + " us, LIKE "
+                + likeNanos / 1000 + " us per query");
+    }
+
+    @Test
+    public void ftsSearch_ranksAuthorMatchesAfterTitleMatches() {
+        database.bookDao().insertBooksWithAuthors(Arrays.asList(
+                new Book("tolkien-title", "Tolkien, a biography", new ArrayList<>(Arrays.asList("Carpenter")),
+                        null, "1977", null, true, false, null, 0.0f)));
+        BookSearchQuery query = BookSearchQuery.parse("tolk");
+
+        List<String> ids = ids(FTS_QUERY, new String[]{query.getMatchQuery(), query.getTitleQuery(),
+                query.getAuthorQuery()});
+        assertEquals("tolkien-title", ids.get(0));
+        assertEquals(1 + Math.min(PAGE_SIZE - 1, LIBRARY_SIZE / 250), ids.size());
+    }
+
+    // Median time of a query, the first runs warm the page cache of SQLite
+    private long time(String sql, String[] args) {
+        long[] nanos = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long startedAt = System.nanoTime();
+            ids(sql, args);
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2];
+    }
+
+    private List<String> ids(String sql, String[] args) {
+        List<String> ids = new ArrayList<>();
+        try (Cursor cursor = database.query(sql, args)) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+            }
+        }
+        return ids;
+    }
+}
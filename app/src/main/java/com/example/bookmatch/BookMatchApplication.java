@@ -0,0 +1,36 @@
+package com.example.bookmatch;
+
+import android.app.Application;
+import android.os.StrictMode;
+
+/**
+ * Debug builds run with StrictMode so any disk or network access on the main thread
+ * is reported while developing, release builds are not affected. Network access on the
+ * main thread crashes the app. Disk access is only logged and flashed: the shared
+ * preferences read by the welcome screen and the SDKs initialized at startup (Firebase,
+ * the encrypted preferences) touch the disk on the main thread, outside the control of
+ * the app.
+ */
+public class BookMatchApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        if (BuildConfig.DEBUG) {
+            StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                    .detectDiskReads()
+                    .detectDiskWrites()
+                    .detectNetwork()
+                    .penaltyLog()
+                    .penaltyFlashScreen()
+                    .penaltyDeathOnNetwork()
+                    .build());
+            StrictMode.setVmPolicy(new StrictMode.VmPolicy.Builder()
+                    .detectLeakedSqlLiteObjects()
+                    .detectLeakedClosableObjects()
+                    .penaltyLog()
+                    .build());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.bookmatch.adapter;
 
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -10,7 +11,7 @@ import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.bookmatch.R;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
 import com.google.android.material.snackbar.Snackbar;
 
 import java.util.ArrayList;
@@ -19,16 +20,16 @@ import java.util.List;
 public class AddBookToCollectionRecyclerViewAdapter extends
         RecyclerView.Adapter<AddBookToCollectionRecyclerViewAdapter.BookViewHolder> {
 
-    private final List<Book> bookList;
-    public List<Book> selectedBooks = new ArrayList<>();
+    private final List<BookListItem> bookList;
+    public List<BookListItem> selectedBooks = new ArrayList<>();
     private final OnBookSelectedListener onBookSelectedListener;
     private final View anchorView;
 
     public interface OnBookSelectedListener {
-        void onBookSelected(Book book, String action);
+        void onBookSelected(BookListItem book, String action);
     }
 
-    public AddBookToCollectionRecyclerViewAdapter(List<Book> bookList, OnBookSelectedListener listener, View anchorView) {
+    public AddBookToCollectionRecyclerViewAdapter(List<BookListItem> bookList, OnBookSelectedListener listener, View anchorView) {
         this.bookList = bookList;
         this.onBookSelectedListener = listener;
         this.anchorView = anchorView;
@@ -55,7 +56,7 @@ public class AddBookToCollectionRecyclerViewAdapter extends
         return 0;
     }
 
-    public List<Book> getSelectedBooks() {
+    public List<BookListItem> getSelectedBooks() {
         return selectedBooks;
     }
 
@@ -72,21 +73,17 @@ public class AddBookToCollectionRecyclerViewAdapter extends
             addImageButton.setOnClickListener(this);
         }
 
-        public void bind(Book book) {
+        public void bind(BookListItem book) {
             title.setText(book.getTitle());
 
-            String authors = "";
-            for(String a: book.getAuthors())
-                authors += a + ", ";
-            authors = authors.substring(0, authors.length() - 2);
-            author.setText(authors);
+            author.setText(TextUtils.join(", ", book.getAuthors()));
         }
 
         @Override
         public void onClick(View view) {
             int position = getAbsoluteAdapterPosition();
             if (position != RecyclerView.NO_POSITION) {
-                Book book = bookList.get(position);
+                BookListItem book = bookList.get(position);
                 if (view.getId() == R.id.add_book_to_collection) {
                     removeItem(position);
                 } else {
@@ -98,7 +95,7 @@ public class AddBookToCollectionRecyclerViewAdapter extends
         }
 
         private void removeItem(final int position) {
-            final Book removedBook = bookList.get(position);
+            final BookListItem removedBook = bookList.get(position);
             bookList.remove(position);
             notifyItemRemoved(position);
 
@@ -0,0 +1,36 @@
+package com.example.bookmatch.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.bookmatch.model.BookListItem;
+
+import java.util.Objects;
+
+// Compares the rows of the book lists, a change of the review state only rebinds the star
+public class BookListItemDiffCallback extends DiffUtil.ItemCallback<BookListItem> {
+
+    public static final String PAYLOAD_REVIEWED = "reviewed";
+
+    @Override
+    public boolean areItemsTheSame(@NonNull BookListItem oldBook, @NonNull BookListItem newBook) {
+        return oldBook.getId().equals(newBook.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull BookListItem oldBook, @NonNull BookListItem newBook) {
+        return sameDetails(oldBook, newBook) && oldBook.isReviewed() == newBook.isReviewed();
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull BookListItem oldBook, @NonNull BookListItem newBook) {
+        return sameDetails(oldBook, newBook) ? PAYLOAD_REVIEWED : null;
+    }
+
+    private static boolean sameDetails(BookListItem oldBook, BookListItem newBook) {
+        return Objects.equals(oldBook.getTitle(), newBook.getTitle())
+                && Objects.equals(oldBook.getAuthors(), newBook.getAuthors());
+    }
+}
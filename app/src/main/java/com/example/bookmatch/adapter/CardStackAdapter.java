@@ -11,9 +11,9 @@ import android.widget.TextView;
 import androidx.annotation.NonNull;
 import androidx.recyclerview.widget.RecyclerView;
 
-import com.bumptech.glide.Glide;
 import com.example.bookmatch.R;
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.utils.CoverPrefetcher;
 
 import java.util.ArrayList;
 
@@ -22,10 +22,14 @@ public class CardStackAdapter extends RecyclerView.Adapter<CardStackAdapter.Card
 
     private ArrayList<Book> books;
     private final CardStackAdapter.OnItemClickListener onItemClickListener;
+    private final CoverPrefetcher coverPrefetcher;
+    private int topPosition;
 
-    public CardStackAdapter(OnItemClickListener onItemClickListener) {
+    public CardStackAdapter(CoverPrefetcher coverPrefetcher, OnItemClickListener onItemClickListener) {
         this.books = new ArrayList<>();
         this.onItemClickListener = onItemClickListener;
+        this.coverPrefetcher = coverPrefetcher;
+        this.topPosition = 0;
     }
 
     public ArrayList<Book> getBooks() {
@@ -39,6 +43,9 @@ public class CardStackAdapter extends RecyclerView.Adapter<CardStackAdapter.Card
     @SuppressLint("NotifyDataSetChanged")
     public void clearBooks() {
         this.books.clear();
+        this.topPosition = 0;
+        // The covers of the previous genre are not needed anymore
+        coverPrefetcher.cancel();
         notifyDataSetChanged();
     }
 
@@ -46,6 +53,13 @@ public class CardStackAdapter extends RecyclerView.Adapter<CardStackAdapter.Card
         int pos = this.books.size();
         this.books.addAll(books);
         notifyItemRangeInserted(pos, books.size());
+        coverPrefetcher.prefetch(this.books, topPosition);
+    }
+
+    // Called when the top card changes, the covers of the next cards are prefetched
+    public void setTopPosition(int topPosition) {
+        this.topPosition = topPosition;
+        coverPrefetcher.prefetch(books, topPosition);
     }
 
     public void removeBook(int position) {
@@ -91,6 +105,8 @@ public class CardStackAdapter extends RecyclerView.Adapter<CardStackAdapter.Card
             this.author = itemView.findViewById(R.id.book_author);
             this.cover = itemView.findViewById(R.id.book_cover);
             itemView.setOnClickListener(this);
+            cover.addOnLayoutChangeListener((v, left, top, right, bottom, oldLeft, oldTop, oldRight, oldBottom) ->
+                    coverPrefetcher.setCoverSize(right - left, bottom - top));
         }
 
         public void bind(Book b) {
@@ -106,9 +122,7 @@ public class CardStackAdapter extends RecyclerView.Adapter<CardStackAdapter.Card
             }
 
 
-            Glide.with(this.itemView)
-                    .load(b.getCoverURI())
-                    .into(this.cover);
+            coverPrefetcher.load(b.getCoverURI(), this.cover);
         }
 
         @Override
@@ -0,0 +1,41 @@
+package com.example.bookmatch.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.bookmatch.model.CollectionContainer;
+
+import java.util.Objects;
+
+// Compares collections by name, the image is decoded again only when its hash changed
+public class CollectionContainerDiffCallback extends DiffUtil.ItemCallback<CollectionContainer> {
+
+    public static final String PAYLOAD_DESCRIPTION = "description";
+    public static final String PAYLOAD_IMAGE = "image";
+
+    @Override
+    public boolean areItemsTheSame(@NonNull CollectionContainer oldCollection, @NonNull CollectionContainer newCollection) {
+        return oldCollection.getName().equals(newCollection.getName());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull CollectionContainer oldCollection, @NonNull CollectionContainer newCollection) {
+        return Objects.equals(oldCollection.getDescription(), newCollection.getDescription())
+                && Objects.equals(oldCollection.getImageHash(), newCollection.getImageHash());
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull CollectionContainer oldCollection, @NonNull CollectionContainer newCollection) {
+        boolean sameDescription = Objects.equals(oldCollection.getDescription(), newCollection.getDescription());
+        boolean sameImage = Objects.equals(oldCollection.getImageHash(), newCollection.getImageHash());
+        if (sameDescription && !sameImage) {
+            return PAYLOAD_IMAGE;
+        }
+        if (!sameDescription && sameImage) {
+            return PAYLOAD_DESCRIPTION;
+        }
+        return null;
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.bookmatch.adapter;
 
-import android.graphics.Bitmap;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,22 +8,22 @@ import android.widget.ImageView;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.bookmatch.R;
 import com.example.bookmatch.model.CollectionContainer;
-import com.example.bookmatch.utils.Converters;
+import com.example.bookmatch.utils.CollectionCoverLoader;
 
 import java.util.List;
 
-public class CollectionContainersRecyclerViewAdapter extends RecyclerView.Adapter<CollectionContainersRecyclerViewAdapter.CollectionViewHolder> {
+public class CollectionContainersRecyclerViewAdapter extends ListAdapter<CollectionContainer, CollectionContainersRecyclerViewAdapter.CollectionViewHolder> {
 
-    private List<CollectionContainer> collections;
     private final OnCollectionClickListener onCollectionClickListener;
 
+    // The new list is diffed on a background thread, only the changed rows are bound again
     public void setCollections(List<CollectionContainer> collections) {
-        this.collections = collections;
-        notifyDataSetChanged();
+        submitList(collections);
     }
 
     public interface OnCollectionClickListener {
@@ -32,9 +31,8 @@ public class CollectionContainersRecyclerViewAdapter extends RecyclerView.Adapte
         void onDeleteButtonClick(CollectionContainer collection);
     }
 
-    public CollectionContainersRecyclerViewAdapter(List<CollectionContainer> collections,
-                                                   OnCollectionClickListener onCollectionClickListener) {
-        this.collections = collections;
+    public CollectionContainersRecyclerViewAdapter(OnCollectionClickListener onCollectionClickListener) {
+        super(new CollectionContainerDiffCallback());
         this.onCollectionClickListener = onCollectionClickListener;
     }
 
@@ -47,13 +45,24 @@ public class CollectionContainersRecyclerViewAdapter extends RecyclerView.Adapte
 
     @Override
     public void onBindViewHolder(@NonNull CollectionViewHolder holder, int position) {
-        CollectionContainer item = collections.get(position);
+        CollectionContainer item = getItem(position);
         holder.bind(item);
     }
 
     @Override
-    public int getItemCount() {
-        return collections.size();
+    public void onBindViewHolder(@NonNull CollectionViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        CollectionContainer item = getItem(position);
+        for (Object payload : payloads) {
+            if (CollectionContainerDiffCallback.PAYLOAD_IMAGE.equals(payload)) {
+                holder.bindImage(item);
+            } else if (CollectionContainerDiffCallback.PAYLOAD_DESCRIPTION.equals(payload)) {
+                holder.bindDescription(item);
+            }
+        }
     }
 
     public class CollectionViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener{
@@ -70,28 +79,35 @@ public class CollectionContainersRecyclerViewAdapter extends RecyclerView.Adapte
             textViewDescription = itemView.findViewById(R.id.collection_item_description);
             deleteButton = itemView.findViewById(R.id.delete_collection_button);
             itemView.setOnClickListener(this);
+            deleteButton.setOnClickListener(this);
         }
 
         public void bind(CollectionContainer collection) {
-            byte[] imageData = collection.getImageData();
-            if (imageData != null) {
-                Bitmap bitmap = Converters.toBitmap(imageData);
-                imageView.setImageBitmap(bitmap);
-            } else {
-                imageView.setImageResource(R.drawable.library); // Default image if no image stored
-            }
+            bindImage(collection);
             textViewName.setText(collection.getName());
+            bindDescription(collection);
+        }
+
+        public void bindImage(CollectionContainer collection) {
+            // Default image if no image stored
+            CollectionCoverLoader.getInstance().load(imageView, collection.getImagePath(),
+                    collection.getImageHash(), R.drawable.library);
+        }
+
+        public void bindDescription(CollectionContainer collection) {
             textViewDescription.setText(collection.getDescription());
-            deleteButton.setOnClickListener(this);
         }
 
         @Override
         public void onClick(View v) {
+            int position = getAbsoluteAdapterPosition();
+            if (position == RecyclerView.NO_POSITION)
+                return;
 
             if(v.getId() == R.id.delete_collection_button)
-                onCollectionClickListener.onDeleteButtonClick(collections.get(getAbsoluteAdapterPosition()));
+                onCollectionClickListener.onDeleteButtonClick(getItem(position));
             else
-                onCollectionClickListener.onItemClick(collections.get(getAbsoluteAdapterPosition()));
+                onCollectionClickListener.onItemClick(getItem(position));
         }
     }
 }
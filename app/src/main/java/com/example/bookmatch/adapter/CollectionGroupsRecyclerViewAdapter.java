@@ -7,26 +7,24 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.bookmatch.R;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.List;
-
 public class CollectionGroupsRecyclerViewAdapter extends
-        RecyclerView.Adapter<CollectionGroupsRecyclerViewAdapter.BookViewHolder> {
+        PagingDataAdapter<BookListItem, CollectionGroupsRecyclerViewAdapter.BookViewHolder> {
 
-    private final List<Book> bookList;
     private final OnBookSelectedListener onBookSelectedListener;
 
     public interface OnBookSelectedListener {
         void onBookSelected(String bookId, String action);
     }
 
-    public CollectionGroupsRecyclerViewAdapter(List<Book> bookList, OnBookSelectedListener listener) {
-        this.bookList = bookList;
+    public CollectionGroupsRecyclerViewAdapter(OnBookSelectedListener listener) {
+        super(new BookListItemDiffCallback());
         this.onBookSelectedListener = listener;
     }
 
@@ -41,19 +39,14 @@ public class CollectionGroupsRecyclerViewAdapter extends
 
     @Override
     public void onBindViewHolder(@NonNull BookViewHolder holder, int position) {
-        Book book = bookList.get(position);
+        BookListItem book = getItem(position);
         if (book != null) {
             holder.bind(book);
+        } else {
+            holder.clear();
         }
     }
 
-    @Override
-    public int getItemCount() {
-        if (bookList != null)
-            return bookList.size();
-        return 0;
-    }
-
     public class BookViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
         private final TextView title;
         private final TextView author;
@@ -67,42 +60,45 @@ public class CollectionGroupsRecyclerViewAdapter extends
             itemView.setOnClickListener(this);
         }
 
-        public void bind(Book book) {
+        public void bind(BookListItem book) {
             title.setText(book.getTitle());
 
-            String authors = "";
-            for(String a: book.getAuthors())
-                authors += a + ", ";
-            authors = authors.substring(0, authors.length() - 2);
-            author.setText(authors);
+            author.setText(null);
+            if (book.getAuthors() != null && !book.getAuthors().isEmpty()) {
+                String authors = "";
+                for(String a: book.getAuthors())
+                    authors += a + ", ";
+                authors = authors.substring(0, authors.length() - 2);
+                author.setText(authors);
+            }
+        }
+
+        // Placeholder row of a book that is not loaded yet
+        public void clear() {
+            title.setText(null);
+            author.setText(null);
         }
 
         @Override
         public void onClick(View view) {
             int position = getAbsoluteAdapterPosition();
-            if (position != RecyclerView.NO_POSITION) {
-                Book book = bookList.get(position);
+            BookListItem book = position != RecyclerView.NO_POSITION ? peek(position) : null;
+            if (book != null) {
                 if (view.getId() == R.id.imageview_delete_collection_book) {
-                    removeItem(position);
+                    removeItem(book);
                 } else {
                     Snackbar.make(view, book.getTitle(), Snackbar.LENGTH_SHORT).show();
                 }
             }
         }
 
-        private void removeItem(final int position) {
-            final Book removedBook = bookList.get(position);
-            bookList.remove(position);
-            notifyItemRemoved(position);
-
+        // The paged list follows the database, the row goes away once the group is deleted
+        private void removeItem(final BookListItem removedBook) {
             onBookSelectedListener.onBookSelected(removedBook.getId(), "remove");
 
             Snackbar snackbar = Snackbar.make(itemView, removedBook.getTitle() + " removed from collection", Snackbar.LENGTH_SHORT);
-            snackbar.setAction(R.string.undo, v -> {
-                bookList.add(position, removedBook);
-                notifyItemInserted(position);
-                onBookSelectedListener.onBookSelected(removedBook.getId(), "add");
-            });
+            snackbar.setAction(R.string.undo, v ->
+                    onBookSelectedListener.onBookSelected(removedBook.getId(), "add"));
             snackbar.show();
         }
 
@@ -0,0 +1,38 @@
+package com.example.bookmatch.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+
+import com.example.bookmatch.model.ReviewListItem;
+
+import java.util.Objects;
+
+// Compares the rows of the reviews list, an edited review only rebinds its text and rating
+public class ReviewListItemDiffCallback extends DiffUtil.ItemCallback<ReviewListItem> {
+
+    public static final String PAYLOAD_REVIEW = "review";
+
+    @Override
+    public boolean areItemsTheSame(@NonNull ReviewListItem oldReview, @NonNull ReviewListItem newReview) {
+        return oldReview.getId().equals(newReview.getId());
+    }
+
+    @Override
+    public boolean areContentsTheSame(@NonNull ReviewListItem oldReview, @NonNull ReviewListItem newReview) {
+        return sameDetails(oldReview, newReview)
+                && Objects.equals(oldReview.getReview(), newReview.getReview())
+                && Objects.equals(oldReview.getRating(), newReview.getRating());
+    }
+
+    @Nullable
+    @Override
+    public Object getChangePayload(@NonNull ReviewListItem oldReview, @NonNull ReviewListItem newReview) {
+        return sameDetails(oldReview, newReview) ? PAYLOAD_REVIEW : null;
+    }
+
+    private static boolean sameDetails(ReviewListItem oldReview, ReviewListItem newReview) {
+        return Objects.equals(oldReview.getTitle(), newReview.getTitle())
+                && Objects.equals(oldReview.getAuthors(), newReview.getAuthors());
+    }
+}
@@ -1,6 +1,5 @@
 package com.example.bookmatch.adapter;
 
-import android.annotation.SuppressLint;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,40 +7,26 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.bookmatch.R;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.ReviewListItem;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class ReviewsRecyclerViewAdapter extends RecyclerView.Adapter<ReviewsRecyclerViewAdapter.ReviewsViewHolder> {
+public class ReviewsRecyclerViewAdapter extends PagingDataAdapter<ReviewListItem, ReviewsRecyclerViewAdapter.ReviewsViewHolder> {
 
-    private List<Book> books;
     private final OnItemClickListener onItemClickListener;
 
     public ReviewsRecyclerViewAdapter(OnItemClickListener onItemClickListener) {
-        this.books = new ArrayList<>();
+        super(new ReviewListItemDiffCallback());
         this.onItemClickListener = onItemClickListener;
     }
 
-    @SuppressLint("NotifyDataSetChanged")
-    public void setBooks(List<Book> books) {
-        this.books = books;
-        notifyDataSetChanged();
-    }
-
-    public Book removeBook(int position) {
-        return books.remove(position);
-    }
-
-    public void addBook(int position, Book book) {
-        books.add(position, book);
-    }
-
-    public Book getBook(int position) {
-        return books.get(position);
+    // Returns the book at the given position without triggering a page load, null for placeholders
+    public ReviewListItem getBook(int position) {
+        return peek(position);
     }
 
     public interface OnItemClickListener {
@@ -58,14 +43,22 @@ public class ReviewsRecyclerViewAdapter extends RecyclerView.Adapter<ReviewsRecy
 
     @Override
     public void onBindViewHolder(@NonNull ReviewsViewHolder holder, int position) {
-        holder.bind(books.get(position));
+        ReviewListItem book = getItem(position);
+        if (book != null) {
+            holder.bind(book);
+        } else {
+            holder.clear();
+        }
     }
 
     @Override
-    public int getItemCount() {
-        if (books != null)
-            return books.size();
-        return 0;
+    public void onBindViewHolder(@NonNull ReviewsViewHolder holder, int position, @NonNull List<Object> payloads) {
+        ReviewListItem book = getItem(position);
+        if (!payloads.contains(ReviewListItemDiffCallback.PAYLOAD_REVIEW) || book == null) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        holder.bindReview(book);
     }
 
     public class ReviewsViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
@@ -89,24 +82,36 @@ public class ReviewsRecyclerViewAdapter extends RecyclerView.Adapter<ReviewsRecy
             editButton.setOnClickListener(this);
         }
 
-        public void bind(Book b) {
+        public void bind(ReviewListItem b) {
             title.setText(b.getTitle());
-            if (b.getAuthors() != null) {
+            author.setText(null);
+            if (b.getAuthors() != null && !b.getAuthors().isEmpty()) {
                 String authors = "";
                 for (String a : b.getAuthors())
                     authors += a + ", ";
                 authors = authors.substring(0, authors.length() - 2);
                 author.setText(authors);
             }
-            if(b.getReview() != null)
-                review.setText(b.getReview());
+            bindReview(b);
+        }
+
+        public void bindReview(ReviewListItem b) {
+            review.setText(b.getReview());
             rating.setText(String.valueOf(b.getRating()));
         }
 
+        // Placeholder row of a book that is not loaded yet
+        public void clear() {
+            title.setText(null);
+            author.setText(null);
+            review.setText(null);
+            rating.setText(null);
+        }
+
         @Override
         public void onClick(View view) {
             int position = getAbsoluteAdapterPosition();
-            if (position != RecyclerView.NO_POSITION) {
+            if (position != RecyclerView.NO_POSITION && peek(position) != null) {
                 if (view.getId() == R.id.imageview_delete) {
                     onItemClickListener.onDeleteButtonClick(position);
                 } else if (view.getId() == R.id.edit_review_btn){
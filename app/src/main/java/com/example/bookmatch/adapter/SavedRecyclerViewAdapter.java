@@ -1,6 +1,5 @@
 package com.example.bookmatch.adapter;
 
-import android.annotation.SuppressLint;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -8,46 +7,32 @@ import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.bookmatch.R;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
 
-import java.util.ArrayList;
 import java.util.List;
 
-public class SavedRecyclerViewAdapter extends RecyclerView.Adapter<SavedRecyclerViewAdapter.SavedViewHolder> {
+public class SavedRecyclerViewAdapter extends PagingDataAdapter<BookListItem, SavedRecyclerViewAdapter.SavedViewHolder> {
 
-    private List<Book> books;
     private final OnItemClickListener onItemClickListener;
 
-    @SuppressLint("NotifyDataSetChanged")
-    public void setBooks(List<Book> books) {
-        this.books = books;
-        notifyDataSetChanged();
-    }
-
     public interface OnItemClickListener {
-        void onItemClick(Book book);
+        void onItemClick(BookListItem book);
         void onDeleteButtonClick(int position);
         void onReviewButtonClick(int position);
     }
 
     public SavedRecyclerViewAdapter(OnItemClickListener onItemClickListener) {
-        this.books = new ArrayList<>();
+        super(new BookListItemDiffCallback());
         this.onItemClickListener = onItemClickListener;
     }
 
-    public Book removeBook(int position) {
-        return books.remove(position);
-    }
-
-    public void addBook(int position, Book book) {
-        books.add(position, book);
-    }
-
-    public Book getBook(int position) {
-        return books.get(position);
+    // Returns the book at the given position without triggering a page load, null for placeholders
+    public BookListItem getBook(int position) {
+        return peek(position);
     }
 
     @NonNull
@@ -62,14 +47,22 @@ public class SavedRecyclerViewAdapter extends RecyclerView.Adapter<SavedRecycler
 
     @Override
     public void onBindViewHolder(@NonNull SavedRecyclerViewAdapter.SavedViewHolder holder, int position) {
-        holder.bind(books.get(position));
+        BookListItem book = getItem(position);
+        if (book != null) {
+            holder.bind(book);
+        } else {
+            holder.clear();
+        }
     }
 
     @Override
-    public int getItemCount() {
-        if (books != null)
-            return books.size();
-        return 0;
+    public void onBindViewHolder(@NonNull SavedViewHolder holder, int position, @NonNull List<Object> payloads) {
+        BookListItem book = getItem(position);
+        if (payloads.isEmpty() || book == null) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        holder.bindReviewed(book);
     }
 
     public class SavedViewHolder extends RecyclerView.ViewHolder implements View.OnClickListener {
@@ -90,9 +83,10 @@ public class SavedRecyclerViewAdapter extends RecyclerView.Adapter<SavedRecycler
             reviewButton.setOnClickListener(this);
         }
 
-        public void bind(Book b) {
+        public void bind(BookListItem b) {
             title.setText(b.getTitle());
-            if (b.getAuthors() != null) {
+            author.setText(null);
+            if (b.getAuthors() != null && !b.getAuthors().isEmpty()) {
                 String authors = "";
                 for (String a : b.getAuthors())
                     authors += a + ", ";
@@ -100,22 +94,33 @@ public class SavedRecyclerViewAdapter extends RecyclerView.Adapter<SavedRecycler
                 author.setText(authors);
             }
 
+            bindReviewed(b);
+        }
+
+        public void bindReviewed(BookListItem b) {
             if (b.isReviewed())
                 reviewButton.setImageResource(R.drawable.baseline_star_rate_24);
             else
                 reviewButton.setImageResource(R.drawable.baseline_star_outline_24);
         }
 
+        // Placeholder row of a book that is not loaded yet
+        public void clear() {
+            title.setText(null);
+            author.setText(null);
+            reviewButton.setImageResource(R.drawable.baseline_star_outline_24);
+        }
+
         @Override
         public void onClick(View view) {
             int position = getAbsoluteAdapterPosition();
-            if (position != RecyclerView.NO_POSITION) {
+            if (position != RecyclerView.NO_POSITION && peek(position) != null) {
                 if (view.getId() == R.id.imageview_delete ) {
                     onItemClickListener.onDeleteButtonClick(position);
                 } else if (view.getId() == R.id.imageview_review) {
                     onItemClickListener.onReviewButtonClick(position);
                 } else {
-                    onItemClickListener.onItemClick(books.get(position));
+                    onItemClickListener.onItemClick(peek(position));
                 }
             }
         }
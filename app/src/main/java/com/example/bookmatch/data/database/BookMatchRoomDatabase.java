@@ -0,0 +1,480 @@
+package com.example.bookmatch.data.database;
+
+import static com.example.bookmatch.utils.Constants.BOOK_DATABASE_NAME;
+import static com.example.bookmatch.utils.Constants.COLLECTION_IMAGE_BLOB_CHUNK_SIZE;
+import static com.example.bookmatch.utils.Constants.COLLECTION_CONTAINER_DATABASE_NAME;
+import static com.example.bookmatch.utils.Constants.COLLECTION_GROUP_DATABASE_NAME;
+import static com.example.bookmatch.utils.Constants.DATABASE_NAME;
+import static com.example.bookmatch.utils.Constants.DATABASE_VERSION;
+import static com.example.bookmatch.utils.Constants.KEY_LEGACY_DATA_IMPORTED;
+import static com.example.bookmatch.utils.Constants.LEGACY_IMPORT_BATCH_SIZE;
+import static com.example.bookmatch.utils.Constants.LEGACY_OFFLINE_BOOKS_FILE;
+import static com.example.bookmatch.utils.Constants.SHARED_PREF_NAME;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.database.Cursor;
+import android.database.SQLException;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.bookmatch.data.database.books.AffinityDao;
+import com.example.bookmatch.data.database.books.AuthorDao;
+import com.example.bookmatch.data.database.books.BookDao;
+import com.example.bookmatch.data.database.books.BookPageDao;
+import com.example.bookmatch.data.database.books.OfflineCardDao;
+import com.example.bookmatch.data.database.collections.container.CollectionContainerDao;
+import com.example.bookmatch.data.database.collections.grouping.CollectionGroupDao;
+import com.example.bookmatch.data.storage.CollectionImageStore;
+import com.example.bookmatch.model.Author;
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookAuthor;
+import com.example.bookmatch.model.BookFts;
+import com.example.bookmatch.model.BookPage;
+import com.example.bookmatch.model.CollectionContainer;
+import com.example.bookmatch.model.CollectionGroup;
+import com.example.bookmatch.model.OfflineCard;
+import com.example.bookmatch.utils.Converters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+@Database(entities = {Book.class, BookPage.class, CollectionContainer.class, CollectionGroup.class,
+        Author.class, BookAuthor.class, BookFts.class, OfflineCard.class},
+        version = DATABASE_VERSION)
+@TypeConverters({Converters.class})
+public abstract class BookMatchRoomDatabase extends RoomDatabase {
+
+    private static final String TAG = BookMatchRoomDatabase.class.getSimpleName();
+
+    public abstract BookDao bookDao();
+
+    public abstract AuthorDao authorDao();
+
+    public abstract AffinityDao affinityDao();
+
+    public abstract BookPageDao bookPageDao();
+
+    public abstract OfflineCardDao offlineCardDao();
+
+    public abstract CollectionContainerDao collectionContainerDao();
+
+    public abstract CollectionGroupDao collectionGroupDao();
+
+    private static volatile BookMatchRoomDatabase INSTANCE;
+
+    // Image blobs waiting to be moved to the CollectionImageStore, not a Room entity
+    private static final String PENDING_COLLECTION_IMAGE_TABLE = "pending_collection_image";
+    private static final String CREATE_PENDING_COLLECTION_IMAGE_TABLE = "CREATE TABLE IF NOT EXISTS "
+            + PENDING_COLLECTION_IMAGE_TABLE + " (name TEXT NOT NULL PRIMARY KEY, imageData BLOB)";
+
+    // Version 2 stores the collection images as files: the blobs are set aside and the
+    // table is rebuilt with the path and hash columns
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL(CREATE_PENDING_COLLECTION_IMAGE_TABLE);
+            db.execSQL("INSERT OR REPLACE INTO " + PENDING_COLLECTION_IMAGE_TABLE + " (name, imageData) "
+                    + "SELECT name, imageData FROM CollectionContainer WHERE imageData IS NOT NULL");
+
+            db.execSQL("CREATE TABLE IF NOT EXISTS `CollectionContainer_new` (`name` TEXT NOT NULL, "
+                    + "`description` TEXT, `image_path` TEXT, `image_hash` TEXT, PRIMARY KEY(`name`))");
+            db.execSQL("INSERT INTO CollectionContainer_new (name, description) "
+                    + "SELECT name, description FROM CollectionContainer");
+            db.execSQL("DROP TABLE CollectionContainer");
+            db.execSQL("ALTER TABLE CollectionContainer_new RENAME TO CollectionContainer");
+        }
+    };
+
+    // Version 3 normalizes the authors into the author and book_author tables
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `author` (`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, "
+                    + "`name` TEXT NOT NULL)");
+            db.execSQL("CREATE UNIQUE INDEX IF NOT EXISTS `index_author_name` ON `author` (`name`)");
+            db.execSQL("CREATE TABLE IF NOT EXISTS `book_author` (`book_id` TEXT NOT NULL, "
+                    + "`author_id` INTEGER NOT NULL, `position` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`book_id`, `author_id`), "
+                    + "FOREIGN KEY(`book_id`) REFERENCES `Book`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE , "
+                    + "FOREIGN KEY(`author_id`) REFERENCES `author`(`id`) ON UPDATE NO ACTION ON DELETE CASCADE )");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_book_author_author_id` ON `book_author` (`author_id`)");
+
+            normalizeLegacyAuthors(db);
+        }
+    };
+
+    // Version 4 adds the full text index of the books, filled from the existing rows
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE VIRTUAL TABLE IF NOT EXISTS `BookFts` USING FTS4(`title` TEXT, "
+                    + "`author_name` TEXT, `description` TEXT, `review` TEXT, "
+                    + "tokenize=unicode61, content=`Book`)");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_BookFts_BEFORE_UPDATE "
+                    + "BEFORE UPDATE ON `Book` BEGIN DELETE FROM `BookFts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_BookFts_BEFORE_DELETE "
+                    + "BEFORE DELETE ON `Book` BEGIN DELETE FROM `BookFts` WHERE `docid`=OLD.`rowid`; END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_BookFts_AFTER_UPDATE "
+                    + "AFTER UPDATE ON `Book` BEGIN INSERT INTO `BookFts`(`docid`, `title`, `author_name`, "
+                    + "`description`, `review`) VALUES (NEW.`rowid`, NEW.`title`, NEW.`author_name`, "
+                    + "NEW.`description`, NEW.`review`); END");
+            db.execSQL("CREATE TRIGGER IF NOT EXISTS room_fts_content_sync_BookFts_AFTER_INSERT "
+                    + "AFTER INSERT ON `Book` BEGIN INSERT INTO `BookFts`(`docid`, `title`, `author_name`, "
+                    + "`description`, `review`) VALUES (NEW.`rowid`, NEW.`title`, NEW.`author_name`, "
+                    + "NEW.`description`, NEW.`review`); END");
+            db.execSQL("INSERT INTO BookFts(BookFts) VALUES('rebuild')");
+        }
+    };
+
+    // Version 5 keeps the offline Explore cards per genre, they used to be a single books.json file
+    static final Migration MIGRATION_4_5 = new Migration(4, 5) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `offline_card` (`genre` TEXT NOT NULL, "
+                    + "`book_id` TEXT NOT NULL, `book_json` TEXT, `stored_at` INTEGER NOT NULL, "
+                    + "PRIMARY KEY(`genre`, `book_id`))");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_offline_card_genre_stored_at` "
+                    + "ON `offline_card` (`genre`, `stored_at`)");
+        }
+    };
+
+    static final Migration MIGRATION_5_6 = new Migration(5, 6) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            // The books swiped before this version have no genre, they only count for authors and years
+            db.execSQL("ALTER TABLE `Book` ADD COLUMN `genre` TEXT");
+        }
+    };
+
+    /**
+     * Splits the comma joined author_name of the rows written by previous versions, links the
+     * names in the author tables and rewrites the column as a JSON array. Rows already encoded
+     * as JSON are kept in sync by BookDao and are skipped.
+     */
+    static void normalizeLegacyAuthors(SupportSQLiteDatabase db) {
+        List<String> ids = new ArrayList<>();
+        List<String> encodedAuthors = new ArrayList<>();
+        try (Cursor cursor = db.query("SELECT id, author_name FROM Book "
+                + "WHERE author_name IS NULL OR author_name NOT LIKE '[%'")) {
+            while (cursor.moveToNext()) {
+                ids.add(cursor.getString(0));
+                encodedAuthors.add(cursor.isNull(1) ? "" : cursor.getString(1));
+            }
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            String id = ids.get(i);
+            ArrayList<String> authors = Converters.fromLegacyEncoding(encodedAuthors.get(i));
+
+            db.execSQL("DELETE FROM book_author WHERE book_id = ?", new Object[]{id});
+            int position = 0;
+            for (String name : new LinkedHashSet<>(authors)) {
+                db.execSQL("INSERT OR IGNORE INTO author (name) VALUES (?)", new Object[]{name});
+                db.execSQL("INSERT OR IGNORE INTO book_author (book_id, author_id, position) "
+                        + "SELECT ?, id, ? FROM author WHERE name = ?", new Object[]{id, position++, name});
+            }
+
+            ContentValues values = new ContentValues();
+            values.put("author_name", Converters.fromArrayList(authors));
+            db.update("Book", SQLiteDatabase.CONFLICT_NONE, values, "id = ?", new Object[]{id});
+        }
+    }
+
+    // SQLite allows a single writer at a time, every write goes through this dispatcher
+    public static final DatabaseWriteDispatcher databaseWriteExecutor = new DatabaseWriteDispatcher();
+
+    // Synchronous reads of the repositories, they never run on the UI thread
+    private static final int NUMBER_OF_READ_THREADS = 2;
+    public static final ExecutorService databaseReadExecutor =
+            Executors.newFixedThreadPool(NUMBER_OF_READ_THREADS);
+
+    public static BookMatchRoomDatabase getDatabase(final Context context) {
+        if (INSTANCE == null) {
+            synchronized (BookMatchRoomDatabase.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = Room.databaseBuilder(context.getApplicationContext(),
+                                    BookMatchRoomDatabase.class, DATABASE_NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4, MIGRATION_4_5,
+                                    MIGRATION_5_6)
+                            .addCallback(new LegacyDatabasesImport(context.getApplicationContext()))
+                            .addCallback(new PendingImagesExport(context.getApplicationContext()))
+                            .build();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // The import and the export of the first open are done once, the flag is set by PendingImagesExport
+    private static boolean isLegacyDataImported(Context context) {
+        return context.getSharedPreferences(SHARED_PREF_NAME, Context.MODE_PRIVATE)
+                .getBoolean(KEY_LEGACY_DATA_IMPORTED, false);
+    }
+
+    // A failed import keeps its legacy file, it is tried again on the next start
+    private static boolean hasLegacyDatabases(Context context) {
+        return context.getDatabasePath(BOOK_DATABASE_NAME).exists()
+                || context.getDatabasePath(COLLECTION_CONTAINER_DATABASE_NAME).exists()
+                || context.getDatabasePath(COLLECTION_GROUP_DATABASE_NAME).exists();
+    }
+
+    /**
+     * Moves the data of the three databases used by previous versions of the app (books,
+     * collection containers and collection groups) into this one, then deletes the old files.
+     * Each legacy file is opened read only on its own connection and its rows are copied in
+     * batches: an ATTACH on the Room connection would turn write-ahead logging off for good.
+     * Runs on open, until the import has succeeded once.
+     */
+    private static class LegacyDatabasesImport extends Callback {
+
+        private final Context context;
+
+        private LegacyDatabasesImport(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            if (isLegacyDataImported(context)) {
+                return;
+            }
+            db.execSQL(CREATE_PENDING_COLLECTION_IMAGE_TABLE);
+
+            // The offline cards are in offline_card now, the old snapshot has no genre
+            context.deleteFile(LEGACY_OFFLINE_BOOKS_FILE);
+
+            // The imported rows still join the authors with commas
+            if (importLegacyDatabase(BOOK_DATABASE_NAME, legacy -> copyRows(legacy, db, "Book",
+                    "id, title, author_name, description, first_publication_year, cover_uri, is_saved, "
+                            + "is_reviewed, review, rating",
+                    "INSERT OR IGNORE INTO Book (id, title, author_name, description, "
+                            + "first_publication_year, cover_uri, is_saved, is_reviewed, review, rating) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"))) {
+                db.beginTransaction();
+                try {
+                    normalizeLegacyAuthors(db);
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+            }
+
+            // The image blobs are exported to files by PendingImagesExport
+            importLegacyDatabase(COLLECTION_CONTAINER_DATABASE_NAME, legacy -> {
+                copyRows(legacy, db, "CollectionContainer", "name, description",
+                        "INSERT OR IGNORE INTO CollectionContainer (name, description) VALUES (?, ?)");
+                copyLegacyImages(legacy, db);
+            });
+
+            // Containers must be imported first, groups reference them
+            importLegacyDatabase(COLLECTION_GROUP_DATABASE_NAME, legacy -> copyRows(legacy, db,
+                    "collectionGroup", "collectionName, bookId",
+                    "INSERT OR IGNORE INTO collectionGroup (collectionName, bookId) SELECT ?1, ?2 "
+                            + "WHERE EXISTS (SELECT 1 FROM CollectionContainer WHERE name = ?1)"));
+        }
+
+        // Returns true when the legacy database has been imported
+        private boolean importLegacyDatabase(String legacyName, LegacyImport legacyImport) {
+            File legacyFile = context.getDatabasePath(legacyName);
+            if (!legacyFile.exists()) {
+                return false;
+            }
+
+            try (SQLiteDatabase legacy = SQLiteDatabase.openDatabase(legacyFile.getAbsolutePath(), null,
+                    SQLiteDatabase.OPEN_READONLY)) {
+                legacyImport.copy(legacy);
+            } catch (SQLException e) {
+                // The legacy file is kept so the import is tried again on the next start, the rows
+                // already copied are ignored then
+                Log.e(TAG, "Unable to import " + legacyName, e);
+                return false;
+            }
+            context.deleteDatabase(legacyName);
+            return true;
+        }
+
+        // Copies the rows of a legacy table in rowid order, a transaction per batch. The insert
+        // binds the selected columns in order and must ignore the rows already there
+        private static void copyRows(SQLiteDatabase legacy, SupportSQLiteDatabase db, String table,
+                                     String columns, String insertSql) {
+            long lastRowId = Long.MIN_VALUE;
+            while (true) {
+                List<Object[]> rows = new ArrayList<>(LEGACY_IMPORT_BATCH_SIZE);
+                try (Cursor cursor = legacy.rawQuery("SELECT rowid, " + columns + " FROM " + table
+                        + " WHERE rowid > " + lastRowId + " ORDER BY rowid LIMIT " + LEGACY_IMPORT_BATCH_SIZE,
+                        null)) {
+                    while (cursor.moveToNext()) {
+                        lastRowId = cursor.getLong(0);
+                        Object[] row = new Object[cursor.getColumnCount() - 1];
+                        for (int i = 0; i < row.length; i++) {
+                            row[i] = columnValue(cursor, i + 1);
+                        }
+                        rows.add(row);
+                    }
+                }
+
+                db.beginTransaction();
+                try {
+                    for (Object[] row : rows) {
+                        db.execSQL(insertSql, row);
+                    }
+                    db.setTransactionSuccessful();
+                } finally {
+                    db.endTransaction();
+                }
+
+                if (rows.size() < LEGACY_IMPORT_BATCH_SIZE) {
+                    return;
+                }
+            }
+        }
+
+        private static Object columnValue(Cursor cursor, int index) {
+            switch (cursor.getType(index)) {
+                case Cursor.FIELD_TYPE_NULL:
+                    return null;
+                case Cursor.FIELD_TYPE_INTEGER:
+                    return cursor.getLong(index);
+                case Cursor.FIELD_TYPE_FLOAT:
+                    return cursor.getDouble(index);
+                case Cursor.FIELD_TYPE_BLOB:
+                    return cursor.getBlob(index);
+                default:
+                    return cursor.getString(index);
+            }
+        }
+
+        // Sets the image blobs aside for PendingImagesExport. They are read in chunks, a single
+        // image may not fit in the cursor window
+        private static void copyLegacyImages(SQLiteDatabase legacy, SupportSQLiteDatabase db) {
+            List<String> names = new ArrayList<>();
+            List<Long> lengths = new ArrayList<>();
+            try (Cursor cursor = legacy.rawQuery("SELECT name, length(imageData) FROM CollectionContainer "
+                    + "WHERE imageData IS NOT NULL", null)) {
+                while (cursor.moveToNext()) {
+                    names.add(cursor.getString(0));
+                    lengths.add(cursor.getLong(1));
+                }
+            }
+
+            for (int i = 0; i < names.size(); i++) {
+                ByteArrayOutputStream imageData = new ByteArrayOutputStream(lengths.get(i).intValue());
+                for (long offset = 1; offset <= lengths.get(i); offset += COLLECTION_IMAGE_BLOB_CHUNK_SIZE) {
+                    try (Cursor cursor = legacy.rawQuery("SELECT substr(imageData, " + offset + ", "
+                                    + COLLECTION_IMAGE_BLOB_CHUNK_SIZE + ") FROM CollectionContainer WHERE name = ?",
+                            new String[]{names.get(i)})) {
+                        if (!cursor.moveToFirst() || cursor.isNull(0)) {
+                            break;
+                        }
+                        byte[] chunk = cursor.getBlob(0);
+                        imageData.write(chunk, 0, chunk.length);
+                    }
+                }
+                db.execSQL("INSERT OR IGNORE INTO " + PENDING_COLLECTION_IMAGE_TABLE + " (name, imageData) "
+                        + "VALUES (?, ?)", new Object[]{names.get(i), imageData.toByteArray()});
+            }
+        }
+    }
+
+    // Copies the rows of a legacy database, opened read only
+    private interface LegacyImport {
+        void copy(SQLiteDatabase legacy);
+    }
+
+    /**
+     * Writes the image blobs set aside by the migration or the legacy import to the
+     * CollectionImageStore, once, then marks the legacy data as imported. Blobs are read in
+     * chunks, a single row would not fit in the cursor window. On every open the image files no
+     * collection refers to are deleted by a background write.
+     */
+    private static class PendingImagesExport extends Callback {
+
+        private final Context context;
+
+        private PendingImagesExport(Context context) {
+            this.context = context;
+        }
+
+        @Override
+        public void onOpen(@NonNull SupportSQLiteDatabase db) {
+            CollectionImageStore imageStore = CollectionImageStore.getInstance(context);
+
+            // Queued behind the user writes, the thread opening the database does not wait for the files
+            databaseWriteExecutor.execute(DatabaseWriteDispatcher.Lane.BACKGROUND,
+                    () -> imageStore.deleteUnreferenced(INSTANCE.collectionContainerDao().getImagePaths()));
+
+            if (isLegacyDataImported(context)) {
+                return;
+            }
+
+            try {
+                List<String> names = new ArrayList<>();
+                List<Long> lengths = new ArrayList<>();
+                try (Cursor cursor = db.query("SELECT name, length(imageData) FROM "
+                        + PENDING_COLLECTION_IMAGE_TABLE)) {
+                    while (cursor.moveToNext()) {
+                        names.add(cursor.getString(0));
+                        lengths.add(cursor.getLong(1));
+                    }
+                }
+
+                for (int i = 0; i < names.size(); i++) {
+                    exportImage(db, imageStore, names.get(i), lengths.get(i));
+                }
+
+                // Nothing fills the pending table once the legacy databases are gone
+                if (!hasLegacyDatabases(context)) {
+                    db.execSQL("DROP TABLE IF EXISTS " + PENDING_COLLECTION_IMAGE_TABLE);
+                    SharedPreferences preferences = context.getSharedPreferences(SHARED_PREF_NAME,
+                            Context.MODE_PRIVATE);
+                    preferences.edit().putBoolean(KEY_LEGACY_DATA_IMPORTED, true).apply();
+                }
+            } catch (SQLException e) {
+                // Whatever is left in the pending table is exported on the next start
+                Log.e(TAG, "Unable to export the collection images", e);
+            }
+        }
+
+        private void exportImage(SupportSQLiteDatabase db, CollectionImageStore imageStore, String name, long length) {
+            ByteArrayOutputStream imageData = new ByteArrayOutputStream((int) length);
+            for (long offset = 1; offset <= length; offset += COLLECTION_IMAGE_BLOB_CHUNK_SIZE) {
+                try (Cursor cursor = db.query("SELECT substr(imageData, ?, ?) FROM "
+                                + PENDING_COLLECTION_IMAGE_TABLE + " WHERE name = ?",
+                        new Object[]{offset, COLLECTION_IMAGE_BLOB_CHUNK_SIZE, name})) {
+                    if (!cursor.moveToFirst() || cursor.isNull(0)) {
+                        break;
+                    }
+                    byte[] chunk = cursor.getBlob(0);
+                    imageData.write(chunk, 0, chunk.length);
+                }
+            }
+
+            // Images that can not be decoded are dropped, the collection falls back to the default image
+            CollectionImageStore.StoredImage storedImage = imageStore.importEncodedImage(imageData.toByteArray());
+            if (storedImage != null) {
+                ContentValues values = new ContentValues();
+                values.put("image_path", storedImage.getPath());
+                values.put("image_hash", storedImage.getHash());
+                db.update("CollectionContainer", SQLiteDatabase.CONFLICT_NONE, values,
+                        "name = ?", new Object[]{name});
+            }
+            db.delete(PENDING_COLLECTION_IMAGE_TABLE, "name = ?", new Object[]{name});
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.example.bookmatch.data.database;
+
+import static com.example.bookmatch.utils.Constants.DATABASE_SLOW_WRITE_THRESHOLD;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs every write of the database on a single thread, SQLite allows one writer at a time.
+ * Writes are submitted with the keys of the rows they touch, for example the ids of the books
+ * of a batch, and a write never starts before the writes submitted earlier with any of its
+ * keys have finished, whatever their lane. Among the writes free to run, the user lane goes
+ * first and each lane is first in, first out. Writes without keys are not ordered against the
+ * keyed ones. A user write waiting for background writes moves them to the user lane.
+ */
+public class DatabaseWriteDispatcher implements Executor {
+
+    private static final String TAG = DatabaseWriteDispatcher.class.getSimpleName();
+
+    public enum Lane {
+        // Writes caused by an action of the user: saves, deletes, undos, edits
+        USER,
+        // Caches and cleanups nobody is waiting for
+        BACKGROUND
+    }
+
+    private final Object lock;
+    private final ArrayDeque<Task> userLane;
+    private final ArrayDeque<Task> backgroundLane;
+    // Last write submitted with each key, the next write of the key waits for it
+    private final Map<String, Task> keyTails;
+    private final Metrics metrics;
+
+    /**
+     * Counters of the dispatcher, readable from any thread.
+     */
+    public static class Metrics {
+        private final AtomicLong userQueueDepth = new AtomicLong();
+        private final AtomicLong backgroundQueueDepth = new AtomicLong();
+        private final AtomicLong maxQueueDepth = new AtomicLong();
+        private final AtomicLong executedWrites = new AtomicLong();
+        private final AtomicLong failedWrites = new AtomicLong();
+        private final AtomicLong promotedWrites = new AtomicLong();
+        private final AtomicLong totalWaitTime = new AtomicLong();
+        private final AtomicLong totalRunTime = new AtomicLong();
+
+        // Writes waiting in each lane, the ones waiting for earlier writes of their keys included
+        public long getUserQueueDepth() {
+            return userQueueDepth.get();
+        }
+
+        public long getBackgroundQueueDepth() {
+            return backgroundQueueDepth.get();
+        }
+
+        public long getMaxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        public long getExecutedWrites() {
+            return executedWrites.get();
+        }
+
+        public long getFailedWrites() {
+            return failedWrites.get();
+        }
+
+        // Background writes moved to the user lane to keep the order of their key
+        public long getPromotedWrites() {
+            return promotedWrites.get();
+        }
+
+        // Milliseconds between the submission of a write and its start
+        public long getAverageWaitTime() {
+            long count = executedWrites.get();
+            return count == 0 ? 0 : totalWaitTime.get() / count;
+        }
+
+        public long getAverageRunTime() {
+            long count = executedWrites.get();
+            return count == 0 ? 0 : totalRunTime.get() / count;
+        }
+    }
+
+    // A write is in a lane once nothing blocks it, until it starts
+    private static class Task {
+        private final Runnable runnable;
+        private final Collection<String> keys;
+        private final long submittedAt;
+        private final Set<Task> blockers;
+        private final List<Task> dependents;
+        private Lane lane;
+        private boolean started;
+
+        private Task(Runnable runnable, Collection<String> keys, Lane lane) {
+            this.runnable = runnable;
+            this.keys = keys;
+            this.lane = lane;
+            this.submittedAt = SystemClock.elapsedRealtime();
+            this.blockers = new LinkedHashSet<>();
+            this.dependents = new ArrayList<>();
+            this.started = false;
+        }
+    }
+
+    public DatabaseWriteDispatcher() {
+        this.lock = new Object();
+        this.userLane = new ArrayDeque<>();
+        this.backgroundLane = new ArrayDeque<>();
+        this.keyTails = new HashMap<>();
+        this.metrics = new Metrics();
+
+        Thread writer = new Thread(this::runWrites, "database-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Writes without a lane are user writes
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+        submit(Lane.USER, Collections.emptyList(), runnable);
+    }
+
+    public void execute(Lane lane, @NonNull Runnable runnable) {
+        submit(lane, Collections.emptyList(), runnable);
+    }
+
+    /**
+     * Queues a write in the given lane. Writes with the same key, for example the id of a book,
+     * run in the order they were submitted; key may be null when the order does not matter.
+     */
+    public void submit(@NonNull Lane lane, String key, @NonNull Runnable runnable) {
+        submit(lane, key != null ? Collections.singletonList(key) : Collections.emptyList(), runnable);
+    }
+
+    // Queues a write touching several keys, it runs after the earlier writes of every one of them
+    public void submit(@NonNull Lane lane, @NonNull Collection<String> keys, @NonNull Runnable runnable) {
+        Task task = new Task(runnable, new LinkedHashSet<>(keys), lane);
+
+        synchronized (lock) {
+            countQueued(lane, 1);
+
+            for (String key : task.keys) {
+                Task tail = keyTails.put(key, task);
+                if (tail != null && task.blockers.add(tail)) {
+                    tail.dependents.add(task);
+                }
+            }
+
+            if (!task.blockers.isEmpty()) {
+                if (lane == Lane.USER) {
+                    promoteBlockers(task);
+                }
+                return;
+            }
+
+            laneOf(lane).addLast(task);
+            lock.notify();
+        }
+    }
+
+    private void runWrites() {
+        while (true) {
+            Task task;
+            synchronized (lock) {
+                while (userLane.isEmpty() && backgroundLane.isEmpty()) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                task = !userLane.isEmpty() ? userLane.pollFirst() : backgroundLane.pollFirst();
+                task.started = true;
+                countQueued(task.lane, -1);
+            }
+
+            run(task);
+
+            synchronized (lock) {
+                for (String key : task.keys) {
+                    if (keyTails.get(key) == task) {
+                        keyTails.remove(key);
+                    }
+                }
+                for (Task dependent : task.dependents) {
+                    dependent.blockers.remove(task);
+                    if (dependent.blockers.isEmpty()) {
+                        laneOf(dependent.lane).addLast(dependent);
+                    }
+                }
+                task.dependents.clear();
+            }
+        }
+    }
+
+    private void run(Task task) {
+        long startedAt = SystemClock.elapsedRealtime();
+        try {
+            task.runnable.run();
+        } catch (RuntimeException e) {
+            // A failed write must not stop the ones queued after it
+            metrics.failedWrites.incrementAndGet();
+            Log.e(TAG, "Write failed", e);
+        }
+        long finishedAt = SystemClock.elapsedRealtime();
+
+        long runTime = finishedAt - startedAt;
+        metrics.executedWrites.incrementAndGet();
+        metrics.totalWaitTime.addAndGet(startedAt - task.submittedAt);
+        metrics.totalRunTime.addAndGet(runTime);
+        if (runTime > DATABASE_SLOW_WRITE_THRESHOLD) {
+            Log.w(TAG, "Slow " + task.lane + " write: " + runTime + " ms, waited "
+                    + (startedAt - task.submittedAt) + " ms, " + metrics.getUserQueueDepth() + " user and "
+                    + metrics.getBackgroundQueueDepth() + " background writes queued");
+        }
+    }
+
+    // A user write must not wait for background writes, the ones it waits for, directly or not,
+    // move to the user lane
+    private void promoteBlockers(Task task) {
+        ArrayDeque<Task> pending = new ArrayDeque<>(task.blockers);
+        while (!pending.isEmpty()) {
+            Task blocker = pending.pollFirst();
+            // Running already, or promoted with its own blockers by an earlier user write
+            if (blocker.started || blocker.lane != Lane.BACKGROUND) {
+                continue;
+            }
+            if (blocker.blockers.isEmpty()) {
+                backgroundLane.remove(blocker);
+                userLane.addLast(blocker);
+            }
+            blocker.lane = Lane.USER;
+            countQueued(Lane.BACKGROUND, -1);
+            countQueued(Lane.USER, 1);
+            metrics.promotedWrites.incrementAndGet();
+            pending.addAll(blocker.blockers);
+        }
+    }
+
+    private ArrayDeque<Task> laneOf(Lane lane) {
+        return lane == Lane.USER ? userLane : backgroundLane;
+    }
+
+    private void countQueued(Lane lane, int delta) {
+        AtomicLong depth = lane == Lane.USER ? metrics.userQueueDepth : metrics.backgroundQueueDepth;
+        depth.addAndGet(delta);
+
+        long total = metrics.userQueueDepth.get() + metrics.backgroundQueueDepth.get();
+        if (total > metrics.maxQueueDepth.get()) {
+            metrics.maxQueueDepth.set(total);
+        }
+    }
+}
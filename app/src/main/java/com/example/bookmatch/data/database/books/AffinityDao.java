@@ -0,0 +1,37 @@
+package com.example.bookmatch.data.database.books;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.bookmatch.model.AffinitySignal;
+
+import java.util.List;
+
+// Aggregates of the Book table read once to build the TasteProfile, which is then kept current
+// by the repository; the ratings and reviews of the deleted books are not counted
+@Dao
+public interface AffinityDao {
+
+    @Query("SELECT author.name AS signal_key, SUM(Book.is_saved) AS saved_count, "
+            + "SUM(1 - Book.is_saved) AS deleted_count, "
+            + "SUM(Book.is_saved * Book.is_reviewed) AS reviewed_count, "
+            + "SUM(Book.is_saved * IFNULL(Book.rating, 0)) AS rating_sum FROM author "
+            + "JOIN book_author ON book_author.author_id = author.id "
+            + "JOIN Book ON Book.id = book_author.book_id "
+            + "GROUP BY author.id")
+    List<AffinitySignal> getAuthorSignals();
+
+    @Query("SELECT genre AS signal_key, SUM(is_saved) AS saved_count, SUM(1 - is_saved) AS deleted_count, "
+            + "SUM(is_saved * is_reviewed) AS reviewed_count, SUM(is_saved * IFNULL(rating, 0)) AS rating_sum "
+            + "FROM Book WHERE genre IS NOT NULL AND genre != '' "
+            + "GROUP BY genre")
+    List<AffinitySignal> getGenreSignals();
+
+    // Decades are the first three digits of the year, publication dates start with it
+    @Query("SELECT substr(first_publication_year, 1, 3) AS signal_key, SUM(is_saved) AS saved_count, "
+            + "SUM(1 - is_saved) AS deleted_count, SUM(is_saved * is_reviewed) AS reviewed_count, "
+            + "SUM(is_saved * IFNULL(rating, 0)) AS rating_sum "
+            + "FROM Book WHERE first_publication_year GLOB '[0-9][0-9][0-9][0-9]*' "
+            + "GROUP BY signal_key")
+    List<AffinitySignal> getDecadeSignals();
+}
@@ -0,0 +1,32 @@
+package com.example.bookmatch.data.database.books;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import com.example.bookmatch.model.AuthorBookCount;
+import com.example.bookmatch.model.BookListItem;
+
+import java.util.List;
+
+// Reads of the normalized author tables, they are written by BookDao together with the books
+@Dao
+public interface AuthorDao {
+
+    // Resolved through the unique name index and the author_id index, no Book row is split
+    @Query("SELECT Book.id, Book.title, Book.author_name, Book.is_reviewed FROM author "
+            + "JOIN book_author ON book_author.author_id = author.id "
+            + "JOIN Book ON Book.id = book_author.book_id "
+            + "WHERE author.name = :name AND Book.is_saved = 1 "
+            + "ORDER BY Book.title")
+    LiveData<List<BookListItem>> getSavedBooksByAuthorLiveData(String name);
+
+    @Query("SELECT author.name, COUNT(*) AS book_count FROM author "
+            + "JOIN book_author ON book_author.author_id = author.id "
+            + "JOIN Book ON Book.id = book_author.book_id "
+            + "WHERE Book.is_saved = 1 "
+            + "GROUP BY author.id "
+            + "ORDER BY book_count DESC, author.name "
+            + "LIMIT :limit")
+    LiveData<List<AuthorBookCount>> getTopAuthorsLiveData(int limit);
+}
@@ -1,30 +1,36 @@
 package com.example.bookmatch.data.database.books;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
 import androidx.room.Update;
+import androidx.room.Upsert;
 
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookAuthor;
+import com.example.bookmatch.model.BookListItem;
+import com.example.bookmatch.model.ReviewListItem;
 
+import java.util.LinkedHashSet;
 import java.util.List;
 
 @Dao
 public interface BookDao {
-    @Query("SELECT * FROM Book")
-    List<Book> getAllBooks();
+    @Query("SELECT id FROM Book")
+    List<String> getAllBookIds();
 
-    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    // Upsert instead of REPLACE: the row is updated in place, so the rowid the full text
+    // index refers to does not change and the delete triggers are not skipped
+    @Upsert
     void insertBook(Book book);
 
-    @Query("SELECT * FROM Book WHERE is_saved = 1")
-    List<Book> getSavedBooks();
-
     @Query("SELECT COUNT(*) FROM Book WHERE is_saved = 1")
-    Integer getSavedBooksCount();
+    LiveData<Integer> getSavedBooksCountLiveData();
 
     @Update
     void updateSingleSavedBook(Book book);
@@ -35,15 +41,123 @@ public interface BookDao {
     @Query("SELECT * FROM Book WHERE is_saved = 1")
     LiveData<List<Book>> getSavedBooksLiveData();
 
-    @Query("SELECT * FROM Book WHERE is_reviewed = 1 AND is_saved = 1")
-    LiveData<List<Book>> getReviewedBooksLiveData();
+    // The lists only read the columns they show, description and review stay on disk
+    @Query("SELECT id, title, author_name, is_reviewed FROM Book WHERE is_saved = 1")
+    PagingSource<Integer, BookListItem> getSavedBookItemsPagingSource();
+
+    @Query("SELECT id, title, author_name, review, rating FROM Book WHERE is_reviewed = 1 AND is_saved = 1")
+    PagingSource<Integer, ReviewListItem> getReviewedBookItemsPagingSource();
+
+    // Title matches first, then author matches, then matches in the description or the review.
+    // The IN subqueries are evaluated once per page and only over the full text index.
+    @Query("SELECT Book.id, Book.title, Book.author_name, Book.is_reviewed FROM Book "
+            + "JOIN BookFts ON BookFts.rowid = Book.rowid "
+            + "WHERE BookFts MATCH :matchQuery AND Book.is_saved = 1 "
+            + "ORDER BY Book.rowid IN (SELECT rowid FROM BookFts WHERE BookFts MATCH :titleQuery) DESC, "
+            + "Book.rowid IN (SELECT rowid FROM BookFts WHERE BookFts MATCH :authorQuery) DESC, "
+            + "Book.title")
+    PagingSource<Integer, BookListItem> searchSavedBookItemsPagingSource(String matchQuery, String titleQuery,
+                                                                         String authorQuery);
+
+    @Query("UPDATE Book SET is_reviewed = :reviewed WHERE id = :id")
+    void updateReviewed(String id, boolean reviewed);
 
     @Query("SELECT COUNT(*) FROM Book WHERE is_reviewed = 1 AND is_saved = 1")
-    Integer getReviewedBooksCount();
+    LiveData<Integer> getReviewedBooksCountLiveData();
 
     @Query("SELECT * FROM Book WHERE id = :id")
     Book getBookById(String id);
 
+    @Query("SELECT * FROM Book WHERE id = :id")
+    LiveData<Book> getBookLiveData(String id);
+
+    // The author and book_author tables mirror author_name, every write of a book goes
+    // through these methods so they never drift apart
+    @Transaction
+    default void insertBookWithAuthors(Book book) {
+        List<Long> previousAuthorIds = getAuthorIds(book.getId());
+        insertBook(book);
+        replaceBookAuthors(book.getId(), book.getAuthors(), previousAuthorIds);
+    }
+
+    @Transaction
+    default void updateBookWithAuthors(Book book) {
+        List<Long> previousAuthorIds = getAuthorIds(book.getId());
+        updateSingleSavedBook(book);
+        replaceBookAuthors(book.getId(), book.getAuthors(), previousAuthorIds);
+    }
+
+    @Transaction
+    default void deleteBookWithAuthors(Book book) {
+        // the links are removed by the foreign key, the authors left without books are not
+        List<Long> authorIds = getAuthorIds(book.getId());
+        deleteBook(book);
+        deleteAuthorsWithoutBooks(authorIds);
+    }
+
+    // Batch writes, each list is written in a single transaction and a single commit
+    @Transaction
+    default void insertBooksWithAuthors(List<Book> books) {
+        for (Book book : books) {
+            insertBookWithAuthors(book);
+        }
+    }
+
+    @Transaction
+    default void updateBooksWithAuthors(List<Book> books) {
+        for (Book book : books) {
+            updateBookWithAuthors(book);
+        }
+    }
+
+    @Transaction
+    default void deleteBooksWithAuthors(List<Book> books) {
+        for (Book book : books) {
+            deleteBookWithAuthors(book);
+        }
+    }
+
+    // At most SQLITE_MAX_BATCH_VARIABLES ids per call
+    @Query("SELECT * FROM Book WHERE id IN (:ids)")
+    List<Book> getBooksByIds(List<String> ids);
+
+    default void replaceBookAuthors(String bookId, List<String> authors, List<Long> previousAuthorIds) {
+        deleteBookAuthors(bookId);
+
+        if (authors != null) {
+            int position = 0;
+            for (String author : new LinkedHashSet<>(authors)) {
+                String name = author != null ? author.trim() : "";
+                if (name.isEmpty()) {
+                    continue;
+                }
+                insertAuthorName(name);
+                insertBookAuthor(new BookAuthor(bookId, getAuthorId(name), position++));
+            }
+        }
+        deleteAuthorsWithoutBooks(previousAuthorIds);
+    }
+
+    @Query("INSERT OR IGNORE INTO author (name) VALUES (:name)")
+    void insertAuthorName(String name);
+
+    @Query("SELECT id FROM author WHERE name = :name")
+    long getAuthorId(String name);
+
+    @Query("SELECT author_id FROM book_author WHERE book_id = :bookId")
+    List<Long> getAuthorIds(String bookId);
+
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertBookAuthor(BookAuthor bookAuthor);
+
+    @Query("DELETE FROM book_author WHERE book_id = :bookId")
+    void deleteBookAuthors(String bookId);
+
+    // Only the given authors are checked, each through the author_id index
+    @Query("DELETE FROM author WHERE id IN (:authorIds) "
+            + "AND NOT EXISTS (SELECT 1 FROM book_author WHERE book_author.author_id = author.id)")
+    void deleteAuthorsWithoutBooks(List<Long> authorIds);
+
     //return boolean if book id is inside db
     @Query("SELECT EXISTS(SELECT 1 FROM Book WHERE id = :id)")
     LiveData<Boolean> isBookSavedLiveData(String id);
@@ -0,0 +1,26 @@
+package com.example.bookmatch.data.database.books;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.bookmatch.model.BookPage;
+
+@Dao
+public interface BookPageDao {
+
+    @Query("SELECT * FROM book_page WHERE query_string = :query AND start_index = :startIndex AND max_results = :maxResults")
+    BookPage getPage(String query, int startIndex, int maxResults);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void insertPage(BookPage page);
+
+    // TTL eviction
+    @Query("DELETE FROM book_page WHERE fetched_at < :olderThan")
+    void deletePagesOlderThan(long olderThan);
+
+    // Size eviction, keeps only the most recent pages
+    @Query("DELETE FROM book_page WHERE rowid NOT IN (SELECT rowid FROM book_page ORDER BY fetched_at DESC LIMIT :maxPages)")
+    void trimPages(int maxPages);
+}
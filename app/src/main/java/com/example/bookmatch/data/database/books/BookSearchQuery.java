@@ -0,0 +1,71 @@
+package com.example.bookmatch.data.database.books;
+
+import static com.example.bookmatch.utils.Constants.SEARCH_MAX_TERMS;
+
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns the text typed by the user into FTS4 MATCH expressions. Every word is matched as a
+ * prefix and all of them must be found; the title and author expressions are used to rank the
+ * books whose title or authors contain every word before the others.
+ */
+public final class BookSearchQuery {
+
+    private final String matchQuery;
+    private final String titleQuery;
+    private final String authorQuery;
+
+    private BookSearchQuery(String matchQuery, String titleQuery, String authorQuery) {
+        this.matchQuery = matchQuery;
+        this.titleQuery = titleQuery;
+        this.authorQuery = authorQuery;
+    }
+
+    // Returns null when the text has no searchable word
+    public static BookSearchQuery parse(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        // Only letters and digits are kept, quotes and operators typed by the user can not
+        // break the MATCH syntax. Lower case words are never read as AND, OR or NOT.
+        Set<String> terms = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty() && terms.size() < SEARCH_MAX_TERMS) {
+                terms.add(word);
+            }
+        }
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        StringBuilder matchQuery = new StringBuilder();
+        StringBuilder titleQuery = new StringBuilder();
+        StringBuilder authorQuery = new StringBuilder();
+        for (String term : terms) {
+            if (matchQuery.length() > 0) {
+                matchQuery.append(' ');
+                titleQuery.append(' ');
+                authorQuery.append(' ');
+            }
+            matchQuery.append(term).append('*');
+            titleQuery.append("title:").append(term).append('*');
+            authorQuery.append("author_name:").append(term).append('*');
+        }
+        return new BookSearchQuery(matchQuery.toString(), titleQuery.toString(), authorQuery.toString());
+    }
+
+    public String getMatchQuery() {
+        return matchQuery;
+    }
+
+    public String getTitleQuery() {
+        return titleQuery;
+    }
+
+    public String getAuthorQuery() {
+        return authorQuery;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.bookmatch.data.database.books;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Transaction;
+import androidx.room.Upsert;
+
+import com.example.bookmatch.model.OfflineCard;
+
+import java.util.List;
+
+@Dao
+public interface OfflineCardDao {
+
+    // Newest cards first, read through the (genre, stored_at) index
+    @Query("SELECT * FROM offline_card WHERE genre = :genre ORDER BY stored_at DESC LIMIT :limit")
+    List<OfflineCard> getCards(String genre, int limit);
+
+    @Upsert
+    void upsertCards(List<OfflineCard> cards);
+
+    // Keeps only the newest maxCards cards of the genre
+    @Query("DELETE FROM offline_card WHERE genre = :genre AND book_id NOT IN "
+            + "(SELECT book_id FROM offline_card WHERE genre = :genre ORDER BY stored_at DESC LIMIT :maxCards)")
+    void trimGenre(String genre, int maxCards);
+
+    // The cards are appended to the snapshot of their genre, a single commit per refill
+    @Transaction
+    default void appendCards(String genre, List<OfflineCard> cards, int maxCards) {
+        upsertCards(cards);
+        trimGenre(genre, maxCards);
+    }
+}
@@ -21,8 +21,9 @@ public interface CollectionContainerDao {
     void deleteCollectionContainer(CollectionContainer collection);
 
     // update collection container based on name
-    @Query("UPDATE CollectionContainer SET name = :name, description = :description, imageData = :image WHERE name = :oldName")
-    void updateCollectionContainer(String name, String description, byte[] image, String oldName);
+    @Query("UPDATE CollectionContainer SET name = :name, description = :description, " +
+            "image_path = :imagePath, image_hash = :imageHash WHERE name = :oldName")
+    void updateCollectionContainer(String name, String description, String imagePath, String imageHash, String oldName);
 
     // update collection name based on old name
     @Query("UPDATE CollectionContainer SET name = :name WHERE name = :oldName")
@@ -33,12 +34,16 @@ public interface CollectionContainerDao {
     void updateCollectionDescription(String name, String description);
 
     // update collection image based on name
-    @Query("UPDATE CollectionContainer SET imageData = :image WHERE name = :name")
-    void updateCollectionImage(String name, byte[] image);
+    @Query("UPDATE CollectionContainer SET image_path = :imagePath, image_hash = :imageHash WHERE name = :name")
+    void updateCollectionImage(String name, String imagePath, String imageHash);
+
+    // Image files still referenced by a collection
+    @Query("SELECT image_path FROM CollectionContainer WHERE image_path IS NOT NULL")
+    List<String> getImagePaths();
 
     // checks if collection container with same name exists returns a boolean
     @Query("SELECT EXISTS(SELECT 1 FROM CollectionContainer WHERE name = :name)")
-    Boolean collectionContainerExists(String name);
+    LiveData<Boolean> collectionContainerExistsLiveData(String name);
 
     @Query("SELECT * FROM CollectionContainer")
     LiveData<List<CollectionContainer>> getAllCollectionContainersLiveData();
@@ -1,10 +1,15 @@
 package com.example.bookmatch.data.database.collections.grouping;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingSource;
 import androidx.room.Dao;
 import androidx.room.Delete;
 import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
 import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.model.CollectionGroup;
 
 import java.util.List;
@@ -17,6 +22,13 @@ public interface CollectionGroupDao {
     @Delete
     void deleteGroup(CollectionGroup collectionGroup);
 
+    // Room runs each list in a single transaction, books already in the container are skipped
+    @Insert(onConflict = OnConflictStrategy.IGNORE)
+    void insertGroups(List<CollectionGroup> collectionGroups);
+
+    @Delete
+    void deleteGroups(List<CollectionGroup> collectionGroups);
+
     // Delete all collection groups in a given container
     @Query("DELETE FROM collectionGroup WHERE collectionName = :collectionName")
     void deleteGroupsInContainer(String collectionName);
@@ -25,6 +37,24 @@ public interface CollectionGroupDao {
     @Query("SELECT bookId FROM collectionGroup WHERE collectionName = :collectionName")
     LiveData<List<String>> getBookIdsInContainerLiveData(String collectionName);
 
+    // Query the saved books of a given container in insertion order, with a single join
+    @Transaction
+    @Query("SELECT Book.id, Book.title, Book.author_name, Book.is_reviewed " +
+            "FROM Book INNER JOIN collectionGroup ON Book.id = collectionGroup.bookId " +
+            "WHERE collectionGroup.collectionName = :collectionName AND Book.is_saved = 1 " +
+            "ORDER BY collectionGroup.rowid")
+    PagingSource<Integer, BookListItem> getBooksInContainerPagingSource(String collectionName);
+
+    // Query the saved books that are not in a given container
+    @Query("SELECT id, title, author_name, is_reviewed FROM Book WHERE is_saved = 1 AND id NOT IN " +
+            "(SELECT bookId FROM collectionGroup WHERE collectionName = :collectionName)")
+    LiveData<List<BookListItem>> getSavedBooksNotInContainerLiveData(String collectionName);
+
+    // Delete the groups of a given container whose book is not saved anymore
+    @Query("DELETE FROM collectionGroup WHERE collectionName = :collectionName " +
+            "AND bookId NOT IN (SELECT id FROM Book WHERE is_saved = 1)")
+    void deleteOrphanGroupsInContainer(String collectionName);
+
     // Query number of books in a given container
     @Query("SELECT COUNT(*) FROM collectionGroup WHERE collectionName = :collectionName")
     LiveData<Integer> getBooksInContainerCountLiveData(String collectionName);
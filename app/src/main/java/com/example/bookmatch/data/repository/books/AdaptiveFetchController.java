@@ -0,0 +1,142 @@
+package com.example.bookmatch.data.repository.books;
+
+import static com.example.bookmatch.utils.Constants.API_MAX_PARALLEL_REQUESTS;
+import static com.example.bookmatch.utils.Constants.API_PAGE_SIZE_MAX;
+import static com.example.bookmatch.utils.Constants.API_PAGE_SIZE_MIN;
+import static com.example.bookmatch.utils.Constants.API_REFILL_REQUEST_BUDGET;
+import static com.example.bookmatch.utils.Constants.FETCH_DEFAULT_LATENCY;
+import static com.example.bookmatch.utils.Constants.FETCH_DEFAULT_SWIPE_INTERVAL;
+import static com.example.bookmatch.utils.Constants.FETCH_DEFAULT_YIELD;
+import static com.example.bookmatch.utils.Constants.FETCH_SMOOTHING_FACTOR;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Chooses the page size and the number of parallel requests of every deck refill. It keeps
+ * moving averages of the round-trip time of a page, of the share of a page left after the seen
+ * books are filtered out and of the time between two swipes. Pages are sized so that one round
+ * of requests is expected to fill the deck, and requests run in parallel only when a round is
+ * slower than the time the user needs to go through the cards still in the deck.
+ * Page sizes are taken from a grid, API_PAGE_SIZE_MIN times a power of two, and every page starts
+ * at a multiple of its size: the (query, startIndex, maxResults) keys of the page cache stay the
+ * same from one refill to the next and two cached pages never partly overlap.
+ */
+public class AdaptiveFetchController {
+
+    private static final String TAG = AdaptiveFetchController.class.getSimpleName();
+
+    private double latency;
+    private double yield;
+    private double swipeInterval;
+    private long lastSwipeAt;
+
+    /**
+     * Page size, parallelism and request budget of a refill.
+     */
+    public static class FetchPlan {
+        private final int pageSize;
+        private final int parallelism;
+        private final int requestBudget;
+
+        private FetchPlan(int pageSize, int parallelism, int requestBudget) {
+            this.pageSize = pageSize;
+            this.parallelism = parallelism;
+            this.requestBudget = requestBudget;
+        }
+
+        public int getPageSize() {
+            return pageSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public int getRequestBudget() {
+            return requestBudget;
+        }
+    }
+
+    public AdaptiveFetchController() {
+        this.latency = FETCH_DEFAULT_LATENCY;
+        this.yield = FETCH_DEFAULT_YIELD;
+        this.swipeInterval = FETCH_DEFAULT_SWIPE_INTERVAL;
+        this.lastSwipeAt = 0;
+    }
+
+    // Called for every full page received, keptBooks are the unseen books left out of pageSize
+    public synchronized void onPageFetched(int pageSize, int keptBooks) {
+        yield = smooth(yield, Math.min(1.0, (double) keptBooks / pageSize));
+    }
+
+    // Called for the pages that came from the API only, a cached or joined page costs no round trip
+    public synchronized void onPageLatency(long pageLatency) {
+        latency = smooth(latency, pageLatency);
+    }
+
+    public synchronized void onCardSwiped() {
+        long now = SystemClock.elapsedRealtime();
+        if (lastSwipeAt != 0) {
+            // A pause away from the screen is not a swipe rate
+            long interval = Math.min(now - lastSwipeAt, 4 * FETCH_DEFAULT_SWIPE_INTERVAL);
+            swipeInterval = smooth(swipeInterval, interval);
+        }
+        lastSwipeAt = now;
+    }
+
+    // Plans the refill of target cards while deckSize cards are still left to the user
+    public synchronized FetchPlan plan(int target, int deckSize) {
+        // Never below a tenth of a page, a fully seen query would ask for pages of any size
+        double expectedYield = Math.max(yield, 0.1);
+
+        // Results to request for target cards to survive the filtering, in pages as large as possible
+        int requiredSlots = (int) Math.ceil(target / expectedYield);
+        int pagesNeeded = Math.max(1, (int) Math.ceil((double) requiredSlots / API_PAGE_SIZE_MAX));
+
+        // Time left before the deck runs dry, and the rounds of requests that fit in it
+        double drainTime = Math.max(deckSize, 1) * swipeInterval;
+        int affordableRounds = Math.max(1, (int) (drainTime / latency));
+        int parallelism = (int) Math.ceil((double) pagesNeeded / affordableRounds);
+        parallelism = clamp(parallelism, 1, API_MAX_PARALLEL_REQUESTS);
+
+        // The pages of a round share the target
+        int pageSize = gridPageSize((int) Math.ceil((double) requiredSlots / Math.min(pagesNeeded, parallelism)));
+
+        int requestBudget = Math.max(API_REFILL_REQUEST_BUDGET, parallelism);
+
+        Log.d(TAG, "Refill of " + target + " cards with " + deckSize + " left: pageSize=" + pageSize
+                + ", parallelism=" + parallelism + ", budget=" + requestBudget
+                + " (latency=" + Math.round(latency) + " ms, yield=" + String.format(Locale.US, "%.2f", yield)
+                + ", swipeInterval=" + Math.round(swipeInterval) + " ms)");
+        return new FetchPlan(pageSize, parallelism, requestBudget);
+    }
+
+    // Smallest page size of the grid holding the given number of results, at most API_PAGE_SIZE_MAX
+    static int gridPageSize(int results) {
+        int pageSize = API_PAGE_SIZE_MIN;
+        while (pageSize < results && pageSize < API_PAGE_SIZE_MAX) {
+            pageSize *= 2;
+        }
+        return pageSize;
+    }
+
+    // Largest page size of the grid, at most pageSize, of a page starting at startIndex
+    static int alignedPageSize(int pageSize, int startIndex) {
+        int alignedSize = gridPageSize(pageSize);
+        while (alignedSize > API_PAGE_SIZE_MIN && (alignedSize > pageSize || startIndex % alignedSize != 0)) {
+            alignedSize /= 2;
+        }
+        return alignedSize;
+    }
+
+    private static double smooth(double average, double sample) {
+        return average + FETCH_SMOOTHING_FACTOR * (sample - average);
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.bookmatch.data.repository.books;
+
+import androidx.annotation.NonNull;
+
+import com.example.bookmatch.model.Book;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Look-ahead buffer of filtered cards sitting between the repository (producer) and the
+ * card stack (consumer). Pages coming from the network are offered to the deck, the UI
+ * takes cards from it without waiting on a request, and a refill is requested as soon
+ * as the buffer drops below its low watermark.
+ */
+public class BookDeck {
+
+    private final int capacity;
+    private final int lowWatermark;
+
+    // Cards ready to be dealt, in arrival order
+    private final LinkedHashMap<String, Book> cards;
+    // Every id that entered the deck since the last clear, used to drop duplicates across pages
+    private final Set<String> knownIds;
+
+    private int produced;
+    private int consumed;
+    private int duplicates;
+    private int underflows;
+
+    public BookDeck(int capacity, int lowWatermark) {
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.cards = new LinkedHashMap<>();
+        this.knownIds = new HashSet<>();
+    }
+
+    // Adds the books that are not already known to the deck, returns how many were added
+    public synchronized int offer(List<Book> books) {
+        int added = 0;
+        for (Book book : books) {
+            if (knownIds.add(book.getId())) {
+                cards.put(book.getId(), book);
+                added++;
+            } else {
+                duplicates++;
+            }
+        }
+        produced += added;
+        return added;
+    }
+
+    // Removes up to count cards from the head of the deck
+    public synchronized ArrayList<Book> take(int count) {
+        ArrayList<Book> hand = new ArrayList<>(Math.min(count, cards.size()));
+        Iterator<Book> iterator = cards.values().iterator();
+        while (iterator.hasNext() && hand.size() < count) {
+            hand.add(iterator.next());
+            iterator.remove();
+        }
+        if (hand.size() < count) {
+            underflows++;
+        }
+        consumed += hand.size();
+        return hand;
+    }
+
+    public synchronized boolean needsRefill() {
+        return cards.size() < lowWatermark;
+    }
+
+    // Number of cards missing to fill the deck up to its capacity
+    public synchronized int getMissingCards() {
+        return Math.max(0, capacity - cards.size());
+    }
+
+    public synchronized int size() {
+        return cards.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public synchronized float getFillLevel() {
+        return (float) cards.size() / capacity;
+    }
+
+    public synchronized int getUnderflows() {
+        return underflows;
+    }
+
+    public synchronized void clear() {
+        cards.clear();
+        knownIds.clear();
+        produced = 0;
+        consumed = 0;
+        duplicates = 0;
+        underflows = 0;
+    }
+
+    @NonNull
+    @Override
+    public synchronized String toString() {
+        return "BookDeck{" +
+                "size=" + cards.size() +
+                ", capacity=" + capacity +
+                ", fillLevel=" + getFillLevel() +
+                ", produced=" + produced +
+                ", consumed=" + consumed +
+                ", duplicates=" + duplicates +
+                ", underflows=" + underflows +
+                '}';
+    }
+}
@@ -0,0 +1,245 @@
+package com.example.bookmatch.data.repository.books;
+
+import android.os.SystemClock;
+
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Fetches consecutive pages of a single query until enough unseen books have been collected.
+ * Pages are requested in rounds of parallel requests and every refill is bounded by a request
+ * budget, so a query whose results have mostly been seen can no longer trigger an unbounded
+ * chain of requests. The cursor is kept between refills and the query is marked as exhausted
+ * once the API reports no more results.
+ */
+public class BookPageAccumulator implements BookPageSource {
+
+    public interface Listener {
+        // books may be empty when the budget ran out or the query is exhausted
+        void onPagesAccumulated(ArrayList<Book> books, int requestCount, boolean exhausted);
+        void onFailure(String message);
+    }
+
+    private final IBookRepository bookRepository;
+    private final String subject;
+    private final AdaptiveFetchController fetchController;
+
+    private int nextStartIndex;
+    private int totalItems;
+    private boolean exhausted;
+    private boolean cancelled;
+    private Refill currentRefill;
+
+    public BookPageAccumulator(IBookRepository bookRepository, String subject,
+                               AdaptiveFetchController fetchController) {
+        this.bookRepository = bookRepository;
+        this.subject = subject;
+        this.fetchController = fetchController;
+        this.nextStartIndex = 0;
+        this.totalItems = Integer.MAX_VALUE;
+        this.exhausted = false;
+        this.cancelled = false;
+        this.currentRefill = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return currentRefill != null;
+    }
+
+    @Override
+    public synchronized boolean isExhausted() {
+        return exhausted;
+    }
+
+    @Override
+    public synchronized void cancel() {
+        cancelled = true;
+        currentRefill = null;
+        // The pages still in flight are obsolete, their calls are cancelled
+        bookRepository.cancelFetches(subject);
+    }
+
+    @Override
+    public synchronized void accumulate(int target, int pageSize, int requestBudget, int parallelism,
+                                        Listener listener) {
+        if (cancelled || currentRefill != null) {
+            return;
+        }
+        if (exhausted) {
+            listener.onPagesAccumulated(new ArrayList<>(), 0, true);
+            return;
+        }
+
+        currentRefill = new Refill(target, pageSize, requestBudget, Math.max(1, parallelism), listener);
+        startRound(currentRefill);
+    }
+
+    // Every page starts at a multiple of its size, a page of the planned size is shrunk until
+    // the cursor is aligned to it, so the pages of the query keep the same page cache keys
+    private void startRound(Refill refill) {
+        int requests = Math.min(refill.parallelism, refill.budget - refill.requestCount);
+
+        if (requests <= 0 || nextStartIndex >= totalItems) {
+            exhausted = nextStartIndex >= totalItems;
+            finish(refill);
+            return;
+        }
+
+        List<Page> pages = new ArrayList<>(requests);
+        while (pages.size() < requests && nextStartIndex < totalItems) {
+            int pageSize = AdaptiveFetchController.alignedPageSize(refill.pageSize, nextStartIndex);
+            pages.add(new Page(nextStartIndex, pageSize));
+            nextStartIndex += pageSize;
+        }
+
+        refill.roundPages = pages.toArray(new Page[0]);
+        refill.pendingRequests = pages.size();
+
+        for (Page page : pages) {
+            refill.requestCount++;
+            bookRepository.fetchBooks(subject, page.startIndex, page.pageSize, new PageCallback(refill, page));
+        }
+    }
+
+    private synchronized void onPageCompleted(Refill refill) {
+        if (refill != currentRefill) {
+            return;
+        }
+
+        refill.pendingRequests--;
+        if (refill.pendingRequests > 0) {
+            return;
+        }
+
+        int rewindTo = -1;
+        for (Page page : refill.roundPages) {
+            if (page.error != null) {
+                refill.lastError = page.error;
+                if (rewindTo == -1 || page.startIndex < rewindTo) {
+                    rewindTo = page.startIndex;
+                }
+            } else if (page.books == null) {
+                exhausted = true;
+            } else {
+                for (Book book : page.books) {
+                    refill.books.put(book.getId(), book);
+                }
+            }
+        }
+
+        // Failed pages are requested again on the next refill
+        if (rewindTo != -1) {
+            nextStartIndex = rewindTo;
+            exhausted = false;
+        }
+
+        if (rewindTo != -1 || exhausted || refill.books.size() >= refill.target
+                || refill.requestCount >= refill.budget) {
+            finish(refill);
+        } else {
+            startRound(refill);
+        }
+    }
+
+    private void finish(Refill refill) {
+        currentRefill = null;
+        if (refill.books.isEmpty() && refill.lastError != null) {
+            refill.listener.onFailure(refill.lastError);
+        } else {
+            refill.listener.onPagesAccumulated(new ArrayList<>(refill.books.values()),
+                    refill.requestCount, exhausted);
+        }
+    }
+
+    private static class Refill {
+        private final int target;
+        private final int pageSize;
+        private final int budget;
+        private final int parallelism;
+        private final Listener listener;
+        private final LinkedHashMap<String, Book> books;
+        private int requestCount;
+        private int pendingRequests;
+        private Page[] roundPages;
+        private String lastError;
+
+        private Refill(int target, int pageSize, int budget, int parallelism, Listener listener) {
+            this.target = target;
+            this.pageSize = pageSize;
+            this.budget = budget;
+            this.parallelism = parallelism;
+            this.listener = listener;
+            this.books = new LinkedHashMap<>();
+            this.requestCount = 0;
+            this.pendingRequests = 0;
+            this.lastError = null;
+        }
+    }
+
+    private static class Page {
+        private final int startIndex;
+        private final int pageSize;
+        private final long requestedAt;
+        private List<Book> books;
+        private String error;
+
+        private Page(int startIndex, int pageSize) {
+            this.startIndex = startIndex;
+            this.pageSize = pageSize;
+            this.requestedAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    private class PageCallback implements BookAPIResponseCallback {
+        private final Refill refill;
+        private final Page page;
+
+        private PageCallback(Refill refill, Page page) {
+            this.refill = refill;
+            this.page = page;
+        }
+
+        @Override
+        public void onSuccess(String genre, int startIndex, ArrayList<Book> books, int totalItems,
+                              boolean fromNetwork) {
+            // A page of another query is never counted as this one
+            if (!subject.equals(genre) || startIndex != page.startIndex) {
+                onFailure("Unexpected page " + genre + " " + startIndex);
+                return;
+            }
+            if (books != null && fromNetwork) {
+                fetchController.onPageLatency(SystemClock.elapsedRealtime() - page.requestedAt);
+            }
+            // The last page of a query is short, it says nothing about the filtering
+            if (books != null && page.startIndex + page.pageSize <= totalItems) {
+                fetchController.onPageFetched(page.pageSize, books.size());
+            }
+            // The genre of the query is a feature of the book for the taste profile
+            if (books != null && !subject.isEmpty()) {
+                for (Book book : books) {
+                    book.setGenre(subject);
+                }
+            }
+            synchronized (BookPageAccumulator.this) {
+                page.books = books;
+                if (books != null && totalItems > 0) {
+                    BookPageAccumulator.this.totalItems = totalItems;
+                }
+            }
+            onPageCompleted(refill);
+        }
+
+        @Override
+        public void onFailure(String message) {
+            synchronized (BookPageAccumulator.this) {
+                page.error = message != null ? message : "Error generating response";
+            }
+            onPageCompleted(refill);
+        }
+    }
+}
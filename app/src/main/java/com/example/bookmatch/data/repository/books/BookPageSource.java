@@ -0,0 +1,19 @@
+package com.example.bookmatch.data.repository.books;
+
+// Producer of unseen books for the Explore deck, a single query or several ones mixed together
+public interface BookPageSource {
+
+    boolean isRunning();
+
+    boolean isExhausted();
+
+    // Stops delivering results, responses of requests already sent are ignored
+    void cancel();
+
+    /**
+     * Collects at least target unseen books spending at most requestBudget requests of pageSize
+     * results, with no more than parallelism requests in flight at the same time.
+     */
+    void accumulate(int target, int pageSize, int requestBudget, int parallelism,
+                    BookPageAccumulator.Listener listener);
+}
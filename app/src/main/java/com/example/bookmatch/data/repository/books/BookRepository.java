@@ -1,22 +1,53 @@
 package com.example.bookmatch.data.repository.books;
 
-import static com.example.bookmatch.utils.Constants.API_SEARCH_BOOK_MAX_RESULTS_VALUE;
+import static com.example.bookmatch.utils.Constants.OFFLINE_CARDS_PER_GENRE;
+import static com.example.bookmatch.utils.Constants.PAGE_CACHE_MAX_AGE;
+import static com.example.bookmatch.utils.Constants.PAGE_CACHE_MAX_PAGES;
+import static com.example.bookmatch.utils.Constants.PAGE_CACHE_TTL;
+import static com.example.bookmatch.utils.Constants.PAGING_INITIAL_LOAD_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_MAX_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_PAGE_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_PREFETCH_DISTANCE;
+import static com.example.bookmatch.utils.Constants.SQLITE_MAX_BATCH_VARIABLES;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 
 import androidx.annotation.NonNull;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.data.database.DatabaseWriteDispatcher;
+import com.example.bookmatch.data.database.books.AuthorDao;
 import com.example.bookmatch.data.database.books.BookDao;
-import com.example.bookmatch.data.database.books.BookRoomDatabase;
+import com.example.bookmatch.data.database.books.BookPageDao;
+import com.example.bookmatch.data.database.books.BookSearchQuery;
+import com.example.bookmatch.data.database.books.OfflineCardDao;
 import com.example.bookmatch.data.service.BookAPIService;
+import com.example.bookmatch.model.AuthorBookCount;
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
+import com.example.bookmatch.model.BookPage;
 import com.example.bookmatch.model.BooksListApiResponse;
+import com.example.bookmatch.model.OfflineCard;
+import com.example.bookmatch.model.ReviewListItem;
 import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
 import com.example.bookmatch.utils.ServiceLocator;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 
+import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import retrofit2.Call;
 import retrofit2.Callback;
@@ -24,94 +55,354 @@ import retrofit2.Response;
 
 public class BookRepository implements IBookRepository{
 
+    // Books deleted from the lists, kept for their undo action; shared by every repository instance
+    private static final int MAX_DELETED_BOOKS = 20;
+    private static final Map<String, Book> deletedBooks = new LinkedHashMap<String, Book>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Book> eldest) {
+            return size() > MAX_DELETED_BOOKS;
+        }
+    };
+
+    private static final String BOOK_WRITE_KEY_PREFIX = "Book:";
+
     private final BookAPIService bookAPIService;
     private final BookDao bookDao;
-    private BookAPIResponseCallback callback;
+    private final AuthorDao authorDao;
+    private final BookPageDao bookPageDao;
+    private final OfflineCardDao offlineCardDao;
+    private final SeenBooksIndex seenBooksIndex;
+    private final SwipeJournal swipeJournal;
+    private final TasteProfile tasteProfile;
+    private final PageRequestRegistry pageRequests;
+    private final Handler mainThreadHandler;
+    private final Gson gson;
+    private final Type bookListType;
 
     public BookRepository(Application application) {
-        this.bookAPIService = ServiceLocator.getInstance().getBooksApiService();
-        BookRoomDatabase bookRoomDatabase = ServiceLocator.getInstance().getBookDao(application);
-        this.bookDao = bookRoomDatabase.bookDao();
-        this.callback = null;
+        this.bookAPIService = ServiceLocator.getInstance().getBooksApiService(application);
+        BookMatchRoomDatabase database = ServiceLocator.getInstance().getDatabase(application);
+        this.bookDao = database.bookDao();
+        this.authorDao = database.authorDao();
+        this.bookPageDao = database.bookPageDao();
+        this.offlineCardDao = database.offlineCardDao();
+        this.seenBooksIndex = ServiceLocator.getInstance().getSeenBooksIndex(application);
+        this.swipeJournal = ServiceLocator.getInstance().getSwipeJournal(application);
+        this.tasteProfile = ServiceLocator.getInstance().getTasteProfile(application);
+        this.pageRequests = ServiceLocator.getInstance().getPageRequestRegistry();
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+        this.gson = new Gson();
+        this.bookListType = new TypeToken<ArrayList<Book>>() {}.getType();
+
+        // Build the index in background so the first page does not pay for it
+        BookMatchRoomDatabase.databaseReadExecutor.execute(seenBooksIndex::ensureLoaded);
     }
+
+    // Serves the page from the local cache when it is fresh enough, otherwise from the API.
+    // A page already in flight is not requested again, the callback joins it.
+    // The callback is always invoked on the UI thread.
     @Override
-    public void setCallback(BookAPIResponseCallback callback) {
-        this.callback = callback;
-    }
+    public void fetchBooks(String genre, int startIndex, int maxResults, BookAPIResponseCallback callback) {
+        PageRequestRegistry.Request request = pageRequests.join(genre, startIndex, maxResults, callback);
+        if (request == null) {
+            return;
+        }
+        String query = "subject:" + genre;
 
+        BookMatchRoomDatabase.databaseReadExecutor.execute(() -> {
+            BookPage cachedPage = bookPageDao.getPage(query, startIndex, maxResults);
+            if (cachedPage != null && System.currentTimeMillis() - cachedPage.getFetchedAt() < PAGE_CACHE_TTL) {
+                deliverPage(request, cachedPage, false);
+                return;
+            }
 
-    @Override
-    public void fetchBooks(String genre, int startIndex) {
+            Call<BooksListApiResponse> booksResponseCall = bookAPIService.getBooks(query,
+                    maxResults,
+                    startIndex);
+            // The genre was switched while the page cache was read
+            if (!pageRequests.attachCall(request, booksResponseCall)) {
+                return;
+            }
 
-        assert callback != null;
+            booksResponseCall.enqueue(new Callback<BooksListApiResponse>() {
 
-        Call<BooksListApiResponse> booksResponseCall = bookAPIService.getBooks("subject:" + genre,
-                API_SEARCH_BOOK_MAX_RESULTS_VALUE,
-                startIndex);
+                @Override
+                public void onResponse(@NonNull Call<BooksListApiResponse> call,
+                                       @NonNull Response<BooksListApiResponse> response) {
 
-        booksResponseCall.enqueue(new Callback<BooksListApiResponse>() {
+                    BooksListApiResponse body = response.body();
+                    if (body != null && response.isSuccessful()) {
+                        ArrayList<Book> books = body.getBooksList();
+                        BookPage page = new BookPage(query, startIndex, maxResults,
+                                body.getTotResults(), books != null ? gson.toJson(books) : null,
+                                System.currentTimeMillis());
 
-            @Override
-            public void onResponse(@NonNull Call<BooksListApiResponse> call,
-                                   @NonNull Response<BooksListApiResponse> response) {
+                        // The deck does not wait for the page to be cached
+                        BookMatchRoomDatabase.databaseReadExecutor.execute(() -> deliverPage(request, page, true));
+                        BookMatchRoomDatabase.databaseWriteExecutor.execute(DatabaseWriteDispatcher.Lane.BACKGROUND,
+                                () -> storePage(page));
+                    } else {
+                        onPageUnavailable(request, cachedPage, "Error generating response");
+                    }
+                }
 
-                if (response.body() != null && response.isSuccessful()) {
-                    // Remove books already seen by user
-                    ArrayList<Book> finalBooks = response.body().getBooksList();
-                    if (finalBooks != null) {
-                        finalBooks.removeAll(getAllBooks());
+                @Override
+                public void onFailure(@NonNull Call<BooksListApiResponse> call,
+                                      @NonNull Throwable t) {
+                    // Cancelled by a genre switch, nobody is waiting for the page anymore
+                    if (call.isCanceled()) {
+                        return;
                     }
-                    callback.onSuccess(finalBooks);
-                } else {
-                    callback.onFailure("Error generating response");
+                    onPageUnavailable(request, cachedPage, t.getMessage());
                 }
+            });
+        });
+    }
+
+    @Override
+    public void cancelFetches(String genre) {
+        pageRequests.cancel(genre);
+    }
+
+    // Offline or failing API: an expired copy of the page is still better than nothing
+    private void onPageUnavailable(PageRequestRegistry.Request request, BookPage cachedPage, String message) {
+        if (cachedPage != null) {
+            BookMatchRoomDatabase.databaseReadExecutor.execute(() -> deliverPage(request, cachedPage, false));
+        } else {
+            List<BookAPIResponseCallback> callbacks = pageRequests.complete(request);
+            for (BookAPIResponseCallback callback : callbacks) {
+                callback.onFailure(message);
             }
+        }
+    }
+
+    private void storePage(BookPage page) {
+        bookPageDao.insertPage(page);
+        bookPageDao.deletePagesOlderThan(System.currentTimeMillis() - PAGE_CACHE_MAX_AGE);
+        bookPageDao.trimPages(PAGE_CACHE_MAX_PAGES);
+    }
+
+    // Removes the books already seen by the user and hands the page, tagged with its genre and
+    // start index, to every callback of the request on the UI thread. Only the first callback, the
+    // one that started the request, waited for the whole round trip of a page from the network
+    private void deliverPage(PageRequestRegistry.Request request, BookPage page, boolean fromNetwork) {
+        ArrayList<Book> books = null;
+        if (page.getBooksJson() != null) {
+            ArrayList<Book> pageBooks = gson.fromJson(page.getBooksJson(), bookListType);
+            books = seenBooksIndex.filterUnseen(pageBooks);
+        }
 
-            @Override
-            public void onFailure(@NonNull Call<BooksListApiResponse> call,
-                                  @NonNull Throwable t) {
-                callback.onFailure(t.getMessage());
+        ArrayList<Book> finalBooks = books;
+        mainThreadHandler.post(() -> {
+            // Completed on the UI thread so a cancel issued by the UI is always honoured
+            List<BookAPIResponseCallback> callbacks = pageRequests.complete(request);
+            for (int i = 0; i < callbacks.size(); i++) {
+                callbacks.get(i).onSuccess(request.getGenre(), request.getStartIndex(),
+                        finalBooks != null ? new ArrayList<>(finalBooks) : null, page.getTotalItems(),
+                        fromNetwork && i == 0);
             }
         });
     }
 
+    // Appends the cards to the offline snapshot of the genre, nobody waits for it
     @Override
-    public List<Book> getAllBooks() {
-        return bookDao.getAllBooks();
+    public void storeOfflineCards(String genre, List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        long storedAt = System.currentTimeMillis();
+        List<OfflineCard> cards = new ArrayList<>(books.size());
+        for (Book book : books) {
+            cards.add(new OfflineCard(genre, book.getId(), gson.toJson(book), storedAt));
+        }
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(DatabaseWriteDispatcher.Lane.BACKGROUND,
+                () -> offlineCardDao.appendCards(genre, cards, OFFLINE_CARDS_PER_GENRE));
+    }
+
+    // Unseen cards of the genre, an empty list when none was stored for it: the cards of another
+    // genre must not reach its deck
+    @Override
+    public LiveData<List<Book>> getOfflineCardsLiveData(String genre, int limit) {
+        MutableLiveData<List<Book>> offlineCards = new MutableLiveData<>();
+        BookMatchRoomDatabase.databaseReadExecutor.execute(() -> {
+            List<OfflineCard> cards = offlineCardDao.getCards(genre, limit);
+
+            LinkedHashMap<String, Book> books = new LinkedHashMap<>();
+            for (OfflineCard card : cards) {
+                Book book = card.getBookJson() != null ? gson.fromJson(card.getBookJson(), Book.class) : null;
+                if (book != null) {
+                    books.put(book.getId(), book);
+                }
+            }
+            ArrayList<Book> unseenBooks = seenBooksIndex.filterUnseen(new ArrayList<>(books.values()));
+            tasteProfile.rank(unseenBooks);
+            offlineCards.postValue(unseenBooks);
+        });
+        return offlineCards;
     }
 
+    // Orders the fetched cards by how likely the user is to save them
     @Override
-    public List<Book> getSavedBooks() {
-        return bookDao.getSavedBooks();
+    public void rankBooks(List<Book> books) {
+        tasteProfile.rank(books);
     }
 
     @Override
-    public Integer getSavedBooksCount() {
-        return bookDao.getSavedBooksCount();
+    public void setTastePreferences(String genre, String author) {
+        tasteProfile.setPreferences(genre, author);
     }
 
-    public Integer getReviewedBooksCount() {
-        return bookDao.getReviewedBooksCount();
+    @Override
+    public LiveData<Integer> getSavedBooksCountLiveData() {
+        return bookDao.getSavedBooksCountLiveData();
+    }
+
+    @Override
+    public LiveData<Integer> getReviewedBooksCountLiveData() {
+        return bookDao.getReviewedBooksCountLiveData();
     }
 
 
     //Database operations
     @Override
     public void updateBook(Book book) {
-        BookRoomDatabase.databaseWriteExecutor.execute(() -> {
-            bookDao.updateSingleSavedBook(book);
+        submitBookWrite(book.getId(), () -> {
+            bookDao.updateBookWithAuthors(book);
         });
     }
     @Override
     public void insertBook(Book book) {
-        BookRoomDatabase.databaseWriteExecutor.execute(() -> {
-            bookDao.insertBook(book);
+        seenBooksIndex.markSeen(book.getId());
+        submitBookWrite(book.getId(), () -> {
+            bookDao.insertBookWithAuthors(book);
         });
     }
 
+    // Swipe decisions are buffered by the journal and written in batches
+    @Override
+    public void recordSwipe(Book book) {
+        swipeJournal.record(book);
+    }
+
     @Override
-    public void deleteBook(Book book) {
-        BookRoomDatabase.databaseWriteExecutor.execute(() -> bookDao.deleteBook(book));
+    public void flushSwipes() {
+        swipeJournal.flush();
+    }
+
+    // The list rows do not carry the whole book, the deleted row is kept so it can be restored.
+    // A swipe of the book still buffered by the journal is dropped instead of written after the delete
+    @Override
+    public void deleteBook(String id) {
+        seenBooksIndex.markUnseen(id);
+        swipeJournal.discard(Collections.singletonList(id), discardedBooks -> submitBookWrite(id, () -> {
+            Book book = bookDao.getBookById(id);
+            if (book != null) {
+                keepForUndo(Collections.singletonList(book));
+                bookDao.deleteBookWithAuthors(book);
+            }
+            keepForUndo(discardedBooks);
+        }));
+    }
+
+    @Override
+    public void restoreBook(String id) {
+        seenBooksIndex.markSeen(id);
+        submitBookWrite(id, () -> {
+            Book book;
+            synchronized (deletedBooks) {
+                book = deletedBooks.remove(id);
+            }
+            if (book != null) {
+                bookDao.insertBookWithAuthors(book);
+            }
+        });
+    }
+
+    // Batch versions of the writes above, every list is a single transaction
+    @Override
+    public void insertBooks(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        List<Book> batch = new ArrayList<>(books);
+        for (Book book : batch) {
+            seenBooksIndex.markSeen(book.getId());
+        }
+        List<String> ids = idsOf(batch);
+        BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                bookWriteKeys(ids), () -> tasteProfile.trackWrite(ids, () -> bookDao.insertBooksWithAuthors(batch)));
+    }
+
+    @Override
+    public void updateBooks(List<Book> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        List<Book> batch = new ArrayList<>(books);
+        List<String> ids = idsOf(batch);
+        BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                bookWriteKeys(ids), () -> tasteProfile.trackWrite(ids, () -> bookDao.updateBooksWithAuthors(batch)));
+    }
+
+    @Override
+    public void deleteBooks(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<String> batch = new ArrayList<>(ids);
+        for (String id : batch) {
+            seenBooksIndex.markUnseen(id);
+        }
+        swipeJournal.discard(batch, discardedBooks ->
+                BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                        bookWriteKeys(batch), () -> {
+            List<Book> books = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i += SQLITE_MAX_BATCH_VARIABLES) {
+                books.addAll(bookDao.getBooksByIds(
+                        batch.subList(i, Math.min(i + SQLITE_MAX_BATCH_VARIABLES, batch.size()))));
+            }
+            keepForUndo(books);
+            keepForUndo(discardedBooks);
+            tasteProfile.trackWrite(idsOf(books), () -> bookDao.deleteBooksWithAuthors(books));
+        }));
+    }
+
+    // A swipe dropped from the journal is newer than the stored row, it is added after it
+    private static void keepForUndo(List<Book> books) {
+        synchronized (deletedBooks) {
+            for (Book book : books) {
+                deletedBooks.put(book.getId(), book);
+            }
+        }
+    }
+
+    @Override
+    public void updateReviewed(String id, boolean reviewed) {
+        submitBookWrite(id, () -> bookDao.updateReviewed(id, reviewed));
+    }
+
+    // Writes of the same book run in the order they were requested, an undo always follows its delete;
+    // the change they make is applied to the taste profile
+    private void submitBookWrite(String id, Runnable write) {
+        BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                BOOK_WRITE_KEY_PREFIX + id, () -> tasteProfile.trackWrite(id, write));
+    }
+
+    // Keys of a batch write, it runs after the earlier writes of each of its books
+    static List<String> bookWriteKeys(List<String> ids) {
+        List<String> keys = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            keys.add(BOOK_WRITE_KEY_PREFIX + id);
+        }
+        return keys;
+    }
+
+    private static List<String> idsOf(List<Book> books) {
+        List<String> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            ids.add(book.getId());
+        }
+        return ids;
     }
 
     @Override
@@ -120,22 +411,45 @@ public class BookRepository implements IBookRepository{
     }
 
     @Override
-    public LiveData<List<Book>> getReviewedBooksLiveData() {
-        return bookDao.getReviewedBooksLiveData();
+    public LiveData<PagingData<BookListItem>> getSavedBooksPagingLiveData() {
+        return PagingLiveData.getLiveData(new Pager<>(newPagingConfig(), bookDao::getSavedBookItemsPagingSource));
     }
 
     @Override
-    public Book getBookById(String id) {
-        return bookDao.getBookById(id);
+    public LiveData<PagingData<ReviewListItem>> getReviewedBooksPagingLiveData() {
+        return PagingLiveData.getLiveData(new Pager<>(newPagingConfig(), bookDao::getReviewedBookItemsPagingSource));
     }
 
     @Override
-    public List<Book> getBooksByIds(List<String> ids) {
-        List<Book> books = new ArrayList<>();
-        for (String id : ids) {
-            books.add(bookDao.getBookById(id));
+    public LiveData<PagingData<BookListItem>> searchSavedBooksPagingLiveData(String query) {
+        BookSearchQuery searchQuery = BookSearchQuery.parse(query);
+        if (searchQuery == null) {
+            return new MutableLiveData<>(PagingData.empty());
         }
-        return books;
+        return PagingLiveData.getLiveData(new Pager<>(newPagingConfig(),
+                () -> bookDao.searchSavedBookItemsPagingSource(searchQuery.getMatchQuery(),
+                        searchQuery.getTitleQuery(), searchQuery.getAuthorQuery())));
+    }
+
+    // Placeholders keep the scrollbar stable while only a bounded window of books is loaded
+    private static PagingConfig newPagingConfig() {
+        return new PagingConfig(PAGING_PAGE_SIZE, PAGING_PREFETCH_DISTANCE, true,
+                PAGING_INITIAL_LOAD_SIZE, PAGING_MAX_SIZE);
+    }
+
+    @Override
+    public LiveData<List<BookListItem>> getSavedBooksByAuthorLiveData(String author) {
+        return authorDao.getSavedBooksByAuthorLiveData(author);
+    }
+
+    @Override
+    public LiveData<List<AuthorBookCount>> getTopAuthorsLiveData(int limit) {
+        return authorDao.getTopAuthorsLiveData(limit);
+    }
+
+    @Override
+    public LiveData<Book> getBookLiveData(String id) {
+        return bookDao.getBookLiveData(id);
     }
 
     @Override
@@ -1,39 +1,69 @@
 package com.example.bookmatch.data.repository.books;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
 
+import com.example.bookmatch.model.AuthorBookCount;
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
+import com.example.bookmatch.model.ReviewListItem;
 import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
 
 import java.util.List;
 
 public interface IBookRepository {
 
-    void fetchBooks(String genre, int startIndex);
+    void fetchBooks(String genre, int startIndex, int maxResults, BookAPIResponseCallback callback);
 
-    List<Book> getAllBooks();
+    // Drops the pages of the genre still in flight, their callbacks are not invoked
+    void cancelFetches(String genre);
 
-    List<Book> getSavedBooks();
+    void storeOfflineCards(String genre, List<Book> books);
 
-    Integer getSavedBooksCount();
+    LiveData<List<Book>> getOfflineCardsLiveData(String genre, int limit);
 
-    Integer getReviewedBooksCount();
+    void rankBooks(List<Book> books);
+
+    void setTastePreferences(String genre, String author);
 
     void insertBook(Book book);
 
+    void recordSwipe(Book book);
+
+    void flushSwipes();
+
     void updateBook(Book book);
 
-    void deleteBook(Book book);
+    void deleteBook(String id);
+
+    void restoreBook(String id);
+
+    void updateReviewed(String id, boolean reviewed);
+
+    void insertBooks(List<Book> books);
 
-    void setCallback(BookAPIResponseCallback callback);
+    void updateBooks(List<Book> books);
+
+    void deleteBooks(List<String> ids);
 
     LiveData<List<Book>> getSavedBooksLiveData();
 
-    LiveData<List<Book>> getReviewedBooksLiveData();
+    LiveData<PagingData<BookListItem>> getSavedBooksPagingLiveData();
+
+    LiveData<PagingData<ReviewListItem>> getReviewedBooksPagingLiveData();
+
+    // Saved books matching every word of the query, best matches first
+    LiveData<PagingData<BookListItem>> searchSavedBooksPagingLiveData(String query);
+
+    LiveData<List<BookListItem>> getSavedBooksByAuthorLiveData(String author);
+
+    LiveData<List<AuthorBookCount>> getTopAuthorsLiveData(int limit);
+
+    LiveData<Integer> getSavedBooksCountLiveData();
 
-    Book getBookById(String id);
+    LiveData<Integer> getReviewedBooksCountLiveData();
 
-    List<Book> getBooksByIds(List<String> id);
+    LiveData<Book> getBookLiveData(String id);
 
     LiveData<Boolean> isBookSavedLiveData(String id);
 }
@@ -0,0 +1,234 @@
+package com.example.bookmatch.data.repository.books;
+
+import static com.example.bookmatch.utils.Constants.MIX_GENRE_DEADLINE;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import com.example.bookmatch.model.Book;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Fills the deck from several genres at once. Every refill starts one BookPageAccumulator per
+ * genre in parallel, the results are interleaved one book per genre and deduplicated by id.
+ * A refill is delivered when every genre answered or, once MIX_GENRE_DEADLINE has passed, as
+ * soon as any genre has books: a slow genre does not hold the others back, its books are kept
+ * and dealt with the next refill.
+ */
+public class MultiGenreAccumulator implements BookPageSource {
+
+    private final List<BookPageAccumulator> accumulators;
+    // Books of each genre that arrived after their refill was delivered
+    private final List<ArrayDeque<Book>> lateBooks;
+    private final Handler mainThreadHandler;
+
+    private boolean cancelled;
+    private Refill currentRefill;
+
+    public MultiGenreAccumulator(IBookRepository bookRepository, List<String> genres,
+                                 AdaptiveFetchController fetchController) {
+        this.accumulators = new ArrayList<>(genres.size());
+        this.lateBooks = new ArrayList<>(genres.size());
+        for (String genre : genres) {
+            accumulators.add(new BookPageAccumulator(bookRepository, genre, fetchController));
+            lateBooks.add(new ArrayDeque<>());
+        }
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+        this.cancelled = false;
+        this.currentRefill = null;
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return currentRefill != null;
+    }
+
+    @Override
+    public synchronized boolean isExhausted() {
+        for (int i = 0; i < accumulators.size(); i++) {
+            if (!accumulators.get(i).isExhausted() || !lateBooks.get(i).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void cancel() {
+        cancelled = true;
+        for (BookPageAccumulator accumulator : accumulators) {
+            accumulator.cancel();
+        }
+        if (currentRefill != null) {
+            mainThreadHandler.removeCallbacks(currentRefill.deadline);
+            currentRefill = null;
+        }
+    }
+
+    // The target, the budget and the parallelism are split between the genres, and the pages are
+    // resized so that a round still requests about as many results as the plan
+    @Override
+    public synchronized void accumulate(int target, int pageSize, int requestBudget, int parallelism,
+                                        BookPageAccumulator.Listener listener) {
+        if (cancelled || currentRefill != null) {
+            return;
+        }
+        if (isExhausted()) {
+            listener.onPagesAccumulated(new ArrayList<>(), 0, true);
+            return;
+        }
+
+        int genres = accumulators.size();
+        int genreTarget = (int) Math.ceil((double) target / genres);
+        int genreBudget = Math.max(1, requestBudget / genres);
+        int genreParallelism = Math.max(1, parallelism / genres);
+        int genrePageSize = AdaptiveFetchController.gridPageSize(
+                (int) Math.ceil((double) pageSize * parallelism / (genres * genreParallelism)));
+
+        Refill refill = new Refill(listener, genres);
+        currentRefill = refill;
+
+        for (int i = 0; i < genres; i++) {
+            ArrayDeque<Book> buffered = lateBooks.get(i);
+            refill.results.get(i).addAll(buffered);
+            buffered.clear();
+
+            BookPageAccumulator accumulator = accumulators.get(i);
+            int missing = genreTarget - refill.results.get(i).size();
+            // A genre still running for a previous refill delivers to lateBooks
+            if (missing > 0 && !accumulator.isRunning() && !accumulator.isExhausted()) {
+                refill.pendingGenres++;
+                accumulator.accumulate(missing, genrePageSize, genreBudget, genreParallelism,
+                        new GenreListener(refill, i));
+            }
+        }
+
+        refill.starting = false;
+        if (refill.pendingGenres == 0) {
+            finish(refill);
+        } else {
+            mainThreadHandler.postDelayed(refill.deadline, MIX_GENRE_DEADLINE);
+        }
+    }
+
+    private synchronized void onGenreCompleted(Refill refill, int genre, List<Book> books, int requestCount,
+                                               String error) {
+        if (refill != currentRefill) {
+            // Too late for its refill, the books wait for the next one
+            if (books != null && !cancelled) {
+                lateBooks.get(genre).addAll(books);
+            }
+            return;
+        }
+
+        refill.pendingGenres--;
+        refill.requestCount += requestCount;
+        if (books != null) {
+            refill.results.get(genre).addAll(books);
+        }
+        if (error != null) {
+            refill.lastError = error;
+        }
+
+        // While the genres are being started the refill is finished by accumulate
+        if (!refill.starting && (refill.pendingGenres == 0 || (refill.deadlinePassed && refill.hasBooks()))) {
+            finish(refill);
+        }
+    }
+
+    private synchronized void onDeadline(Refill refill) {
+        if (refill != currentRefill) {
+            return;
+        }
+        refill.deadlinePassed = true;
+        if (refill.hasBooks()) {
+            finish(refill);
+        }
+    }
+
+    private void finish(Refill refill) {
+        mainThreadHandler.removeCallbacks(refill.deadline);
+        currentRefill = null;
+
+        // One book per genre at a time, the same volume listed under two genres is dealt once
+        LinkedHashMap<String, Book> mixed = new LinkedHashMap<>();
+        boolean added = true;
+        for (int index = 0; added; index++) {
+            added = false;
+            for (List<Book> genreBooks : refill.results) {
+                if (index < genreBooks.size()) {
+                    Book book = genreBooks.get(index);
+                    if (!mixed.containsKey(book.getId())) {
+                        mixed.put(book.getId(), book);
+                    }
+                    added = true;
+                }
+            }
+        }
+
+        if (mixed.isEmpty() && refill.lastError != null) {
+            refill.listener.onFailure(refill.lastError);
+        } else {
+            refill.listener.onPagesAccumulated(new ArrayList<>(mixed.values()), refill.requestCount,
+                    isExhausted());
+        }
+    }
+
+    private class Refill {
+        private final BookPageAccumulator.Listener listener;
+        private final List<List<Book>> results;
+        private final Runnable deadline;
+        private boolean starting;
+        private int pendingGenres;
+        private int requestCount;
+        private boolean deadlinePassed;
+        private String lastError;
+
+        private Refill(BookPageAccumulator.Listener listener, int genres) {
+            this.listener = listener;
+            this.results = new ArrayList<>(genres);
+            for (int i = 0; i < genres; i++) {
+                results.add(new ArrayList<>());
+            }
+            this.deadline = () -> onDeadline(this);
+            this.starting = true;
+            this.pendingGenres = 0;
+            this.requestCount = 0;
+            this.deadlinePassed = false;
+            this.lastError = null;
+        }
+
+        private boolean hasBooks() {
+            for (List<Book> genreBooks : results) {
+                if (!genreBooks.isEmpty()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private class GenreListener implements BookPageAccumulator.Listener {
+        private final Refill refill;
+        private final int genre;
+
+        private GenreListener(Refill refill, int genre) {
+            this.refill = refill;
+            this.genre = genre;
+        }
+
+        @Override
+        public void onPagesAccumulated(ArrayList<Book> books, int requestCount, boolean exhausted) {
+            onGenreCompleted(refill, genre, books, requestCount, null);
+        }
+
+        @Override
+        public void onFailure(String message) {
+            onGenreCompleted(refill, genre, null, 0, message);
+        }
+    }
+}
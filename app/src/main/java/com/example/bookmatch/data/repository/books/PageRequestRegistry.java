@@ -0,0 +1,158 @@
+package com.example.bookmatch.data.repository.books;
+
+import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+
+/**
+ * Pages of the API being fetched, keyed by genre, start index and size. A request for a page
+ * already in flight joins it instead of being sent again, and every caller gets the same response.
+ * The requests of a genre can be cancelled as a whole when the user switches to another one:
+ * their callbacks are dropped and their calls are cancelled, so a stale page never reaches
+ * the deck of the new genre.
+ */
+public class PageRequestRegistry {
+
+    private static volatile PageRequestRegistry INSTANCE = null;
+
+    private final Map<String, Request> requests;
+    private final Metrics metrics;
+
+    /**
+     * Counters of the registry, readable from any thread.
+     */
+    public static class Metrics {
+        private final AtomicLong startedRequests = new AtomicLong();
+        private final AtomicLong coalescedRequests = new AtomicLong();
+        private final AtomicLong cancelledRequests = new AtomicLong();
+
+        // Requests that went to the page cache or to the API
+        public long getStartedRequests() {
+            return startedRequests.get();
+        }
+
+        // Requests served by a page already in flight
+        public long getCoalescedRequests() {
+            return coalescedRequests.get();
+        }
+
+        public long getCancelledRequests() {
+            return cancelledRequests.get();
+        }
+    }
+
+    /**
+     * A page in flight and the callbacks waiting for it.
+     */
+    public static class Request {
+        private final String genre;
+        private final int startIndex;
+        private final int maxResults;
+        private final List<BookAPIResponseCallback> callbacks;
+        private Call<?> call;
+        private boolean cancelled;
+
+        private Request(String genre, int startIndex, int maxResults) {
+            this.genre = genre;
+            this.startIndex = startIndex;
+            this.maxResults = maxResults;
+            this.callbacks = new ArrayList<>();
+            this.call = null;
+            this.cancelled = false;
+        }
+
+        public String getGenre() {
+            return genre;
+        }
+
+        public int getStartIndex() {
+            return startIndex;
+        }
+    }
+
+    // Package-private so the tests get a registry of their own
+    PageRequestRegistry() {
+        this.requests = new HashMap<>();
+        this.metrics = new Metrics();
+    }
+
+    public static PageRequestRegistry getInstance() {
+        if (INSTANCE == null) {
+            synchronized (PageRequestRegistry.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new PageRequestRegistry();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Returns the new request the caller has to run, or null when the page was already in flight
+    public synchronized Request join(String genre, int startIndex, int maxResults,
+                                     BookAPIResponseCallback callback) {
+        String key = keyOf(genre, startIndex, maxResults);
+        Request request = requests.get(key);
+        if (request != null) {
+            request.callbacks.add(callback);
+            metrics.coalescedRequests.incrementAndGet();
+            return null;
+        }
+
+        request = new Request(genre, startIndex, maxResults);
+        request.callbacks.add(callback);
+        requests.put(key, request);
+        metrics.startedRequests.incrementAndGet();
+        return request;
+    }
+
+    // Remembers the call of the request so it can be cancelled, returns false if it already was
+    public synchronized boolean attachCall(Request request, Call<?> call) {
+        if (request.cancelled) {
+            return false;
+        }
+        request.call = call;
+        return true;
+    }
+
+    // Ends the request, the returned callbacks are the ones still interested in the page
+    public synchronized List<BookAPIResponseCallback> complete(Request request) {
+        if (request.cancelled) {
+            return new ArrayList<>();
+        }
+        requests.remove(keyOf(request.genre, request.startIndex, request.maxResults));
+        return new ArrayList<>(request.callbacks);
+    }
+
+    // Cancels every request of the genre, their callbacks are never invoked
+    public synchronized void cancel(String genre) {
+        Iterator<Request> iterator = requests.values().iterator();
+        while (iterator.hasNext()) {
+            Request request = iterator.next();
+            if (!request.genre.equals(genre)) {
+                continue;
+            }
+            iterator.remove();
+            request.cancelled = true;
+            request.callbacks.clear();
+            if (request.call != null) {
+                request.call.cancel();
+            }
+            metrics.cancelledRequests.incrementAndGet();
+        }
+    }
+
+    private static String keyOf(String genre, int startIndex, int maxResults) {
+        return genre + '#' + startIndex + '#' + maxResults;
+    }
+}
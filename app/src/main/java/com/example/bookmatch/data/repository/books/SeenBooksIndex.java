@@ -0,0 +1,80 @@
+package com.example.bookmatch.data.repository.books;
+
+import com.example.bookmatch.data.database.books.BookDao;
+import com.example.bookmatch.model.Book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of the ids of every book stored in the Book table (saved or deleted).
+ * It is built once from an id-only projection and then kept current by the repository on
+ * every insert/delete, so filtering a page of results costs O(page size) regardless of
+ * how many books the user has already swiped.
+ */
+public class SeenBooksIndex {
+
+    private static volatile SeenBooksIndex INSTANCE = null;
+
+    private final BookDao bookDao;
+    private final Set<String> seenIds;
+    private volatile boolean loaded;
+
+    private SeenBooksIndex(BookDao bookDao) {
+        this.bookDao = bookDao;
+        this.seenIds = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        this.loaded = false;
+    }
+
+    public static SeenBooksIndex getInstance(BookDao bookDao) {
+        if (INSTANCE == null) {
+            synchronized (SeenBooksIndex.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SeenBooksIndex(bookDao);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Loads the ids from the database the first time it is called, must not run on the UI thread
+    public void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded) {
+                seenIds.addAll(bookDao.getAllBookIds());
+                loaded = true;
+            }
+        }
+    }
+
+    public boolean isSeen(String id) {
+        ensureLoaded();
+        return seenIds.contains(id);
+    }
+
+    public void markSeen(String id) {
+        seenIds.add(id);
+    }
+
+    public void markUnseen(String id) {
+        seenIds.remove(id);
+    }
+
+    // Returns a new list containing only the books the user has never swiped
+    public ArrayList<Book> filterUnseen(List<Book> books) {
+        ensureLoaded();
+        ArrayList<Book> unseen = new ArrayList<>(books.size());
+        for (Book book : books) {
+            if (!seenIds.contains(book.getId())) {
+                unseen.add(book);
+            }
+        }
+        return unseen;
+    }
+}
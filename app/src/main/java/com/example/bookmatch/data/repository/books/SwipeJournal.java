@@ -0,0 +1,422 @@
+package com.example.bookmatch.data.repository.books;
+
+import static com.example.bookmatch.utils.Constants.SWIPE_JOURNAL_DIRECTORY;
+import static com.example.bookmatch.utils.Constants.SWIPE_JOURNAL_FLUSH_DELAY;
+import static com.example.bookmatch.utils.Constants.SWIPE_JOURNAL_FLUSH_SIZE;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.data.database.DatabaseWriteDispatcher;
+import com.example.bookmatch.data.database.books.BookDao;
+import com.example.bookmatch.model.Book;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind buffer of the Explore swipe decisions. Swiped books are kept in memory and
+ * written with a single transaction once SWIPE_JOURNAL_FLUSH_SIZE of them are pending or
+ * SWIPE_JOURNAL_FLUSH_DELAY has passed since the first one. Every decision is also appended to
+ * a segment file, segments are deleted once their books are in the database and the ones left
+ * by a killed process are replayed on the next start.
+ */
+public class SwipeJournal {
+
+    private static final String TAG = SwipeJournal.class.getSimpleName();
+    private static final String SEGMENT_PREFIX = "segment_";
+    private static final String SEGMENT_EXTENSION = ".log";
+
+    private static volatile SwipeJournal INSTANCE;
+
+    private final BookDao bookDao;
+    private final SeenBooksIndex seenBooksIndex;
+    private final TasteProfile tasteProfile;
+    private final File directory;
+    private final Gson gson;
+
+    // Every field below is only touched by this executor
+    private final ScheduledExecutorService executor;
+    private final LinkedHashMap<String, Book> pendingBooks;
+    private long activeSegment;
+    private Writer activeWriter;
+    private ScheduledFuture<?> scheduledFlush;
+
+    private final Metrics metrics;
+
+    /**
+     * Counters of the journal, readable from any thread.
+     */
+    public static class Metrics {
+        private final AtomicLong queueDepth = new AtomicLong();
+        private final AtomicLong flushCount = new AtomicLong();
+        private final AtomicLong flushedBooks = new AtomicLong();
+        private final AtomicLong totalFlushLatency = new AtomicLong();
+        private final AtomicLong lastFlushLatency = new AtomicLong();
+        private final AtomicLong recoveredBooks = new AtomicLong();
+
+        // Decisions not yet written to the database
+        public long getQueueDepth() {
+            return queueDepth.get();
+        }
+
+        public long getFlushCount() {
+            return flushCount.get();
+        }
+
+        public long getFlushedBooks() {
+            return flushedBooks.get();
+        }
+
+        // Milliseconds from the first pending decision to the commit of its transaction
+        public long getLastFlushLatency() {
+            return lastFlushLatency.get();
+        }
+
+        public long getAverageFlushLatency() {
+            long count = flushCount.get();
+            return count == 0 ? 0 : totalFlushLatency.get() / count;
+        }
+
+        // Decisions replayed from the segments of a previous process
+        public long getRecoveredBooks() {
+            return recoveredBooks.get();
+        }
+    }
+
+    private SwipeJournal(Context context, BookDao bookDao, SeenBooksIndex seenBooksIndex,
+                         TasteProfile tasteProfile) {
+        this.bookDao = bookDao;
+        this.seenBooksIndex = seenBooksIndex;
+        this.tasteProfile = tasteProfile;
+        this.directory = new File(context.getFilesDir(), SWIPE_JOURNAL_DIRECTORY);
+        this.gson = new Gson();
+        this.executor = Executors.newSingleThreadScheduledExecutor();
+        this.pendingBooks = new LinkedHashMap<>();
+        this.activeSegment = 0;
+        this.activeWriter = null;
+        this.scheduledFlush = null;
+        this.metrics = new Metrics();
+
+        executor.execute(this::recover);
+    }
+
+    public static SwipeJournal getInstance(Context context, BookDao bookDao, SeenBooksIndex seenBooksIndex,
+                                           TasteProfile tasteProfile) {
+        if (INSTANCE == null) {
+            synchronized (SwipeJournal.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new SwipeJournal(context.getApplicationContext(), bookDao, seenBooksIndex,
+                            tasteProfile);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    // Records the decision taken on a book, it can be called on the UI thread
+    public void record(Book book) {
+        seenBooksIndex.markSeen(book.getId());
+        long recordedAt = SystemClock.elapsedRealtime();
+
+        executor.execute(() -> {
+            append(book);
+            // A second swipe of the same book replaces the first one
+            pendingBooks.remove(book.getId());
+            pendingBooks.put(book.getId(), book);
+            metrics.queueDepth.set(pendingBooks.size());
+
+            if (pendingBooks.size() >= SWIPE_JOURNAL_FLUSH_SIZE) {
+                flushPending(recordedAt);
+            } else if (scheduledFlush == null) {
+                scheduledFlush = executor.schedule(() -> flushPending(recordedAt),
+                        SWIPE_JOURNAL_FLUSH_DELAY, TimeUnit.MILLISECONDS);
+            }
+        });
+    }
+
+    // Writes the pending decisions now, used when the user leaves the Explore screen
+    public void flush() {
+        executor.execute(() -> flushPending(SystemClock.elapsedRealtime()));
+    }
+
+    /**
+     * Drops the decisions on these books, buffered or still in a segment, then hands the dropped
+     * books to delete on the journal thread. A flush already queued is submitted to the database
+     * before the delete, so delete must be a write keyed by the books.
+     */
+    public void discard(List<String> ids, Consumer<List<Book>> delete) {
+        Set<String> discardedIds = new HashSet<>(ids);
+
+        executor.execute(() -> {
+            List<Book> discardedBooks = new ArrayList<>();
+            for (String id : discardedIds) {
+                Book book = pendingBooks.remove(id);
+                if (book != null) {
+                    discardedBooks.add(book);
+                }
+            }
+            metrics.queueDepth.set(pendingBooks.size());
+
+            // A replay must not bring the books back, the active segment is reopened by the next append
+            closeActiveWriter();
+            File[] files = directory.listFiles((dir, name) ->
+                    name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION));
+            if (files != null) {
+                for (File file : files) {
+                    removeFromSegment(file, discardedIds);
+                }
+            }
+
+            delete.accept(discardedBooks);
+        });
+    }
+
+    private void append(Book book) {
+        try {
+            if (activeWriter == null) {
+                if (!directory.exists() && !directory.mkdirs()) {
+                    throw new IOException("Unable to create " + directory);
+                }
+                activeWriter = new BufferedWriter(new OutputStreamWriter(
+                        new FileOutputStream(segmentFile(activeSegment), true), StandardCharsets.UTF_8));
+            }
+            activeWriter.write(gson.toJson(book));
+            activeWriter.write('\n');
+            // Handed to the OS at every decision, it survives the death of the process
+            activeWriter.flush();
+        } catch (IOException e) {
+            // The decision is still written by the next flush, it is only not recoverable
+            Log.e(TAG, "Unable to append to the swipe journal", e);
+        }
+    }
+
+    private void flushPending(long firstRecordedAt) {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (pendingBooks.isEmpty()) {
+            return;
+        }
+
+        List<Book> batch = new ArrayList<>(pendingBooks.values());
+        pendingBooks.clear();
+        metrics.queueDepth.set(0);
+
+        // The segment is closed and the next decisions go to a new one, so it can be
+        // deleted as soon as the transaction is committed
+        long flushedSegment = activeSegment;
+        closeActiveWriter();
+        activeSegment++;
+
+        // Ordered with the other writes of the same books, a delete requested after the swipe follows it
+        List<String> ids = idsOf(batch);
+        BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                BookRepository.bookWriteKeys(ids), () -> {
+            try {
+                tasteProfile.trackWrite(ids, () -> bookDao.insertBooksWithAuthors(batch));
+            } catch (RuntimeException e) {
+                // The segment is kept and replayed on the next start
+                Log.e(TAG, "Unable to write " + batch.size() + " swiped books", e);
+                return;
+            }
+
+            long latency = SystemClock.elapsedRealtime() - firstRecordedAt;
+            metrics.flushCount.incrementAndGet();
+            metrics.flushedBooks.addAndGet(batch.size());
+            metrics.lastFlushLatency.set(latency);
+            metrics.totalFlushLatency.addAndGet(latency);
+            Log.d(TAG, "Flushed " + batch.size() + " swiped books in " + latency + " ms");
+
+            executor.execute(() -> deleteSegment(flushedSegment));
+        });
+    }
+
+    // Replays the segments left by a previous process, runs before any new decision is recorded
+    private void recover() {
+        File[] files = directory.listFiles((dir, name) ->
+                name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_EXTENSION));
+        if (files == null || files.length == 0) {
+            return;
+        }
+
+        long[] segments = new long[files.length];
+        int count = 0;
+        for (File file : files) {
+            Long segment = parseSegment(file.getName());
+            if (segment != null) {
+                segments[count++] = segment;
+            }
+        }
+        segments = Arrays.copyOf(segments, count);
+        Arrays.sort(segments);
+
+        // Older segments first, the last decision taken on a book wins
+        Map<String, Book> recoveredBooks = new LinkedHashMap<>();
+        for (long segment : segments) {
+            readSegment(segmentFile(segment), recoveredBooks);
+            activeSegment = Math.max(activeSegment, segment + 1);
+        }
+
+        List<Book> batch = new ArrayList<>(recoveredBooks.values());
+        for (Book book : batch) {
+            seenBooksIndex.markSeen(book.getId());
+        }
+
+        long[] recoveredSegments = segments;
+        List<String> ids = idsOf(batch);
+        BookMatchRoomDatabase.databaseWriteExecutor.submit(DatabaseWriteDispatcher.Lane.USER,
+                BookRepository.bookWriteKeys(ids), () -> {
+            try {
+                if (!batch.isEmpty()) {
+                    tasteProfile.trackWrite(ids, () -> bookDao.insertBooksWithAuthors(batch));
+                }
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Unable to replay the swipe journal", e);
+                return;
+            }
+
+            metrics.recoveredBooks.addAndGet(batch.size());
+            executor.execute(() -> {
+                for (long segment : recoveredSegments) {
+                    deleteSegment(segment);
+                }
+            });
+        });
+    }
+
+    private void readSegment(File file, Map<String, Book> books) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    Book book = gson.fromJson(line, Book.class);
+                    if (book != null && book.getId() != null) {
+                        books.remove(book.getId());
+                        books.put(book.getId(), book);
+                    }
+                } catch (JsonParseException e) {
+                    // A line cut by the death of the process
+                    Log.w(TAG, "Skipping a damaged entry of " + file.getName());
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to read " + file.getName(), e);
+        }
+    }
+
+    // Rewrites a segment without the lines of the given books
+    private void removeFromSegment(File file, Set<String> ids) {
+        List<String> keptLines = new ArrayList<>();
+        boolean changed = false;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new FileInputStream(file), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Book book = null;
+                try {
+                    book = gson.fromJson(line, Book.class);
+                } catch (JsonParseException e) {
+                    // A damaged line is kept, the replay skips it
+                }
+                if (book != null && ids.contains(book.getId())) {
+                    changed = true;
+                } else {
+                    keptLines.add(line);
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to read " + file.getName(), e);
+            return;
+        }
+        if (!changed) {
+            return;
+        }
+
+        File rewritten = new File(directory, file.getName() + ".tmp");
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(rewritten), StandardCharsets.UTF_8))) {
+            for (String line : keptLines) {
+                writer.write(line);
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to rewrite " + file.getName(), e);
+            return;
+        }
+        if (!rewritten.renameTo(file)) {
+            Log.w(TAG, "Unable to replace " + file.getName());
+        }
+    }
+
+    private void closeActiveWriter() {
+        if (activeWriter == null) {
+            return;
+        }
+        try {
+            activeWriter.close();
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to close the swipe journal", e);
+        }
+        activeWriter = null;
+    }
+
+    private void deleteSegment(long segment) {
+        File file = segmentFile(segment);
+        if (file.exists() && !file.delete()) {
+            Log.w(TAG, "Unable to delete " + file.getName());
+        }
+    }
+
+    private static List<String> idsOf(List<Book> books) {
+        List<String> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            ids.add(book.getId());
+        }
+        return ids;
+    }
+
+    private File segmentFile(long segment) {
+        return new File(directory, SEGMENT_PREFIX + segment + SEGMENT_EXTENSION);
+    }
+
+    private static Long parseSegment(String name) {
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                    name.length() - SEGMENT_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.bookmatch.data.repository.books;
+
+import static com.example.bookmatch.utils.Constants.SQLITE_MAX_BATCH_VARIABLES;
+import static com.example.bookmatch.utils.Constants.TASTE_AUTHOR_WEIGHT;
+import static com.example.bookmatch.utils.Constants.TASTE_GENRE_WEIGHT;
+import static com.example.bookmatch.utils.Constants.TASTE_PREFERENCE_BONUS;
+import static com.example.bookmatch.utils.Constants.TASTE_SIGNAL_PRIOR;
+import static com.example.bookmatch.utils.Constants.TASTE_YEAR_WEIGHT;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.bookmatch.BuildConfig;
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.data.database.DatabaseWriteDispatcher;
+import com.example.bookmatch.data.database.books.AffinityDao;
+import com.example.bookmatch.data.database.books.BookDao;
+import com.example.bookmatch.model.AffinitySignal;
+import com.example.bookmatch.model.Book;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Compact summary of the tastes of the user: for every author, genre and publication decade the
+ * weight of the books saved (more when reviewed or rated) and of the books deleted. It is built
+ * once from three aggregates of the Book table and then updated with the difference made by every
+ * write, so ranking a page only costs a few map lookups per book, whatever the size of the history.
+ * Loading and updates run on the database writer. The load is background work: the writes that
+ * run before it are found in the table, the ones that run after it are applied as differences.
+ */
+public class TasteProfile {
+
+    private static final String TAG = TasteProfile.class.getSimpleName();
+
+    private static final double REVIEWED_BONUS = 0.5;
+    private static final float MAX_RATING = 5;
+
+    private static volatile TasteProfile INSTANCE = null;
+
+    private final BookReader bookReader;
+    private final AffinityDao affinityDao;
+
+    // Keys are lower case, the decades are the first three digits of the year
+    private final Map<String, Signal> authors;
+    private final Map<String, Signal> genres;
+    private final Map<String, Signal> decades;
+    private boolean loaded;
+    private String preferredGenre;
+    private String preferredAuthor;
+
+    // Reads the stored books by primary key, at most SQLITE_MAX_BATCH_VARIABLES ids per call
+    interface BookReader {
+        List<Book> getBooksByIds(List<String> ids);
+    }
+
+    private static class Signal {
+        private double liked;
+        private double disliked;
+
+        // Between -1 and 1, a handful of books cannot push it to the ends
+        private double affinity() {
+            return (liked - disliked) / (liked + disliked + TASTE_SIGNAL_PRIOR);
+        }
+    }
+
+    // The load runs on loadExecutor, it has to be the executor of the tracked writes
+    TasteProfile(BookReader bookReader, AffinityDao affinityDao, Executor loadExecutor) {
+        this.bookReader = bookReader;
+        this.affinityDao = affinityDao;
+        this.authors = new HashMap<>();
+        this.genres = new HashMap<>();
+        this.decades = new HashMap<>();
+        this.loaded = false;
+        this.preferredGenre = null;
+        this.preferredAuthor = null;
+
+        loadExecutor.execute(this::load);
+    }
+
+    public static TasteProfile getInstance(BookDao bookDao, AffinityDao affinityDao) {
+        if (INSTANCE == null) {
+            synchronized (TasteProfile.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new TasteProfile(bookDao::getBooksByIds, affinityDao,
+                            runnable -> BookMatchRoomDatabase.databaseWriteExecutor.execute(
+                                    DatabaseWriteDispatcher.Lane.BACKGROUND, runnable));
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    private void load() {
+        long startedAt = SystemClock.elapsedRealtime();
+        List<AffinitySignal> authorSignals = affinityDao.getAuthorSignals();
+        List<AffinitySignal> genreSignals = affinityDao.getGenreSignals();
+        List<AffinitySignal> decadeSignals = affinityDao.getDecadeSignals();
+
+        synchronized (this) {
+            addSignals(authors, authorSignals, false);
+            addSignals(genres, genreSignals, false);
+            addSignals(decades, decadeSignals, true);
+            loaded = true;
+        }
+        Log.d(TAG, "Loaded " + authors.size() + " authors, " + genres.size() + " genres and "
+                + decades.size() + " decades in " + (SystemClock.elapsedRealtime() - startedAt) + " ms");
+    }
+
+    // Favourite genre and author set by the user in the account preferences
+    public synchronized void setPreferences(String genre, String author) {
+        this.preferredGenre = normalize(genre);
+        this.preferredAuthor = normalize(author);
+    }
+
+    /**
+     * Runs a write of the given books and applies its difference to the profile. Must be called
+     * on the database writer, the books are read before and after the write by primary key.
+     */
+    public void trackWrite(List<String> bookIds, Runnable write) {
+        if (!isLoaded()) {
+            // The load, queued before, has not run: it will find the write in the table
+            write.run();
+            return;
+        }
+
+        List<Book> before = getBooks(bookIds);
+        write.run();
+        List<Book> after = getBooks(bookIds);
+
+        synchronized (this) {
+            for (Book book : before) {
+                apply(book, -1);
+            }
+            for (Book book : after) {
+                apply(book, 1);
+            }
+        }
+    }
+
+    public void trackWrite(String bookId, Runnable write) {
+        trackWrite(Collections.singletonList(bookId), write);
+    }
+
+    // Sorts the books from the most to the least likely to be saved, the order of ties is kept
+    public void rank(List<Book> books) {
+        long startedAt = BuildConfig.DEBUG ? SystemClock.elapsedRealtimeNanos() : 0;
+        Map<Book, Double> scores = new HashMap<>(books.size() * 2);
+        synchronized (this) {
+            for (Book book : books) {
+                scores.put(book, score(book));
+            }
+        }
+        Collections.sort(books, (first, second) -> Double.compare(scores.get(second), scores.get(first)));
+        if (BuildConfig.DEBUG) {
+            Log.d(TAG, "Ranked " + books.size() + " books in "
+                    + (SystemClock.elapsedRealtimeNanos() - startedAt) / 1000 + " us");
+        }
+    }
+
+    private double score(Book book) {
+        double authorAffinity = 0;
+        if (book.getAuthors() != null) {
+            // The best known author of the book counts
+            for (String author : book.getAuthors()) {
+                String key = normalize(author);
+                if (key == null) {
+                    continue;
+                }
+                double affinity = affinityOf(authors, key);
+                if (key.equals(preferredAuthor)) {
+                    affinity += TASTE_PREFERENCE_BONUS;
+                }
+                if (Math.abs(affinity) > Math.abs(authorAffinity)) {
+                    authorAffinity = affinity;
+                }
+            }
+        }
+
+        String genre = normalize(book.getGenre());
+        double genreAffinity = genre != null ? affinityOf(genres, genre) : 0;
+        if (genre != null && genre.equals(preferredGenre)) {
+            genreAffinity += TASTE_PREFERENCE_BONUS;
+        }
+
+        // The two neighbouring decades count for a quarter each, tastes rarely stop at a round year
+        double yearAffinity = 0;
+        Integer decade = decadeOf(book.getPublicationYear());
+        if (decade != null) {
+            yearAffinity = affinityOf(decades, String.valueOf(decade))
+                    + (affinityOf(decades, String.valueOf(decade - 1))
+                    + affinityOf(decades, String.valueOf(decade + 1))) / 4;
+        }
+
+        return TASTE_AUTHOR_WEIGHT * authorAffinity + TASTE_GENRE_WEIGHT * genreAffinity
+                + TASTE_YEAR_WEIGHT * yearAffinity;
+    }
+
+    private synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    // Adds (sign 1) or removes (sign -1) the weight of a stored book
+    private void apply(Book book, int sign) {
+        double liked = 0;
+        double disliked = 0;
+        if (book.isSaved()) {
+            liked = likedWeight(book.isReviewed(), book.getRating() != null ? book.getRating() : 0);
+        } else {
+            disliked = 1;
+        }
+        liked *= sign;
+        disliked *= sign;
+
+        if (book.getAuthors() != null) {
+            for (String author : book.getAuthors()) {
+                update(authors, normalize(author), liked, disliked);
+            }
+        }
+        update(genres, normalize(book.getGenre()), liked, disliked);
+        Integer decade = decadeOf(book.getPublicationYear());
+        update(decades, decade != null ? String.valueOf(decade) : null, liked, disliked);
+    }
+
+    // The sums of the aggregates weigh as much as the books they count, see likedWeight
+    private static void addSignals(Map<String, Signal> signals, List<AffinitySignal> rows, boolean decadeKeys) {
+        for (AffinitySignal row : rows) {
+            double liked = row.getSavedCount() + REVIEWED_BONUS * row.getReviewedCount()
+                    + row.getRatingSum() / MAX_RATING;
+            String key;
+            if (decadeKeys) {
+                Integer decade = row.getKey() != null ? decadeOf(row.getKey() + "0") : null;
+                key = decade != null ? String.valueOf(decade) : null;
+            } else {
+                key = normalize(row.getKey());
+            }
+            update(signals, key, liked, row.getDeletedCount());
+        }
+    }
+
+    // A saved book weighs 1, half more when reviewed, up to one more for a five stars rating
+    private static double likedWeight(boolean reviewed, float rating) {
+        return 1 + (reviewed ? REVIEWED_BONUS : 0) + rating / MAX_RATING;
+    }
+
+    private static void update(Map<String, Signal> signals, String key, double liked, double disliked) {
+        if (key == null) {
+            return;
+        }
+        Signal signal = signals.get(key);
+        if (signal == null) {
+            signal = new Signal();
+            signals.put(key, signal);
+        }
+        signal.liked += liked;
+        signal.disliked += disliked;
+        // Rounding errors must not keep the signal of a removed book alive
+        if (signal.liked < 1e-6 && signal.disliked < 1e-6) {
+            signals.remove(key);
+        }
+    }
+
+    private static double affinityOf(Map<String, Signal> signals, String key) {
+        Signal signal = signals.get(key);
+        return signal != null ? signal.affinity() : 0;
+    }
+
+    private List<Book> getBooks(List<String> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i += SQLITE_MAX_BATCH_VARIABLES) {
+            books.addAll(bookReader.getBooksByIds(ids.subList(i, Math.min(i + SQLITE_MAX_BATCH_VARIABLES, ids.size()))));
+        }
+        return books;
+    }
+
+    private static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    // Publication dates look like 1999, 1999-05 or 1999-05-17
+    private static Integer decadeOf(String publicationYear) {
+        if (publicationYear == null || publicationYear.length() < 4) {
+            return null;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (!Character.isDigit(publicationYear.charAt(i))) {
+                return null;
+            }
+        }
+        return Integer.parseInt(publicationYear.substring(0, 3));
+    }
+}
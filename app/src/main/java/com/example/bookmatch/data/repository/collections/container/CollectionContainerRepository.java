@@ -1,28 +1,40 @@
 package com.example.bookmatch.data.repository.collections.container;
 
 import android.app.Application;
+import android.net.Uri;
 
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
 
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.data.database.DatabaseWriteDispatcher;
 import com.example.bookmatch.data.database.collections.container.CollectionContainerDao;
-import com.example.bookmatch.data.database.collections.container.CollectionContainerRoomDatabase;
+import com.example.bookmatch.data.storage.CollectionImageStore;
+import com.example.bookmatch.utils.ServiceLocator;
 import com.example.bookmatch.model.CollectionContainer;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class CollectionContainerRepository implements ICollectionContainerRepository {
 
+    // Decoding and compressing a picked image takes too long for the database writer
+    private static final ExecutorService imageExecutor = Executors.newSingleThreadExecutor();
+
     private final CollectionContainerDao collectionDao;
+    private final CollectionImageStore imageStore;
 
     public CollectionContainerRepository(Application application) {
-        CollectionContainerRoomDatabase database = CollectionContainerRoomDatabase.getDatabase(application);
-        collectionDao = database.collectionDao();
+        BookMatchRoomDatabase database = ServiceLocator.getInstance().getDatabase(application);
+        collectionDao = database.collectionContainerDao();
+        imageStore = ServiceLocator.getInstance().getCollectionImageStore(application);
     }
 
     @Override
     public boolean insertCollectionContainer(CollectionContainer collection) {
         try{
-            CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
+            BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
                 collectionDao.insertCollectionContainer(collection);
             });
         } catch (Exception e) {
@@ -33,42 +45,61 @@ public class CollectionContainerRepository implements ICollectionContainerReposi
 
     @Override
     public void deleteCollectionContainer(CollectionContainer collection) {
-        CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionDao.deleteCollectionContainer(collection);
         });
+        deleteUnreferencedImages();
     }
 
     @Override
-    public void updateCollectionContainer(String name, String description, byte[] image, String oldName) {
-        CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
-            collectionDao.updateCollectionContainer(name, description, image, oldName);
+    public void updateCollectionContainer(String name, String description, CollectionImageStore.StoredImage image, String oldName) {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
+            collectionDao.updateCollectionContainer(name, description,
+                    image != null ? image.getPath() : null, image != null ? image.getHash() : null, oldName);
         });
+        deleteUnreferencedImages();
     }
 
     @Override
     public void updateCollectionName(String name, String oldName) {
-        CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionDao.updateCollectionName(name, oldName);
         });
     }
 
     @Override
     public void updateCollectionDescription(String name, String description) {
-        CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionDao.updateCollectionDescription(name, description);
         });
     }
 
     @Override
-    public void updateCollectionImage(String name, byte[] image) {
-        CollectionContainerRoomDatabase.databaseWriteExecutor.execute(() -> {
-            collectionDao.updateCollectionImage(name, image);
+    public void updateCollectionImage(String name, CollectionImageStore.StoredImage image) {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
+            collectionDao.updateCollectionImage(name,
+                    image != null ? image.getPath() : null, image != null ? image.getHash() : null);
         });
+        deleteUnreferencedImages();
+    }
+
+    // Queued after the write that dropped the reference, the user does not wait for the files
+    private void deleteUnreferencedImages() {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(DatabaseWriteDispatcher.Lane.BACKGROUND,
+                () -> imageStore.deleteUnreferenced(collectionDao.getImagePaths()));
+    }
+
+    // Posts the stored image, or null if the picture could not be read
+    @Override
+    public LiveData<CollectionImageStore.StoredImage> importCollectionImage(Uri uri) {
+        MutableLiveData<CollectionImageStore.StoredImage> storedImage = new MutableLiveData<>();
+        imageExecutor.execute(() -> storedImage.postValue(imageStore.importImage(uri)));
+        return storedImage;
     }
 
     @Override
-    public Boolean collectionContainerExists(String name) {
-        return collectionDao.collectionContainerExists(name);
+    public LiveData<Boolean> collectionContainerExistsLiveData(String name) {
+        return collectionDao.collectionContainerExistsLiveData(name);
     }
 
     @Override
@@ -1,7 +1,10 @@
 package com.example.bookmatch.data.repository.collections.container;
 
+import android.net.Uri;
+
 import androidx.lifecycle.LiveData;
 
+import com.example.bookmatch.data.storage.CollectionImageStore;
 import com.example.bookmatch.model.CollectionContainer;
 
 import java.util.List;
@@ -9,11 +12,12 @@ import java.util.List;
 public interface ICollectionContainerRepository {
     boolean insertCollectionContainer(CollectionContainer collection);
     void deleteCollectionContainer(CollectionContainer collection);
-    void updateCollectionContainer(String name, String description, byte[] image, String oldName);
+    void updateCollectionContainer(String name, String description, CollectionImageStore.StoredImage image, String oldName);
     void updateCollectionName(String name, String oldName);
     void updateCollectionDescription(String name, String description);
-    void updateCollectionImage(String name, byte[] image);
-    Boolean collectionContainerExists(String name);
+    void updateCollectionImage(String name, CollectionImageStore.StoredImage image);
+    LiveData<CollectionImageStore.StoredImage> importCollectionImage(Uri uri);
+    LiveData<Boolean> collectionContainerExistsLiveData(String name);
     LiveData<CollectionContainer> getCollectionContainerByNameLiveData(String name);
     LiveData<Integer> getCountCollectionContainersLiveData();
     LiveData<List<CollectionContainer>> getAllCollectionContainersLiveData();
@@ -1,27 +1,39 @@
 package com.example.bookmatch.data.repository.collections.grouping;
 
+import static com.example.bookmatch.utils.Constants.PAGING_INITIAL_LOAD_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_MAX_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_PAGE_SIZE;
+import static com.example.bookmatch.utils.Constants.PAGING_PREFETCH_DISTANCE;
+
 import android.app.Application;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingConfig;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
 import com.example.bookmatch.data.database.collections.grouping.CollectionGroupDao;
-import com.example.bookmatch.data.database.collections.grouping.CollectionGroupRoomDatabase;
+import com.example.bookmatch.utils.ServiceLocator;
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.model.CollectionGroup;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class CollectionGroupRepository implements ICollectionGroupRepository {
     private final CollectionGroupDao collectionGroupDao;
 
     public CollectionGroupRepository(Application application) {
-        CollectionGroupRoomDatabase database = CollectionGroupRoomDatabase.getDatabase(application);
+        BookMatchRoomDatabase database = ServiceLocator.getInstance().getDatabase(application);
         collectionGroupDao = database.collectionGroupDao();
     }
 
     @Override
     public boolean insertCollectionGroup(CollectionGroup collectionGroup) {
         try {
-            CollectionGroupRoomDatabase.databaseWriteExecutor.execute(() -> {
+            BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
                 collectionGroupDao.insertGroup(collectionGroup);
             });
         } catch (Exception e) {
@@ -32,30 +44,72 @@ public class CollectionGroupRepository implements ICollectionGroupRepository {
 
     @Override
     public void deleteCollectionGroup(CollectionGroup collectionGroup) {
-        CollectionGroupRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionGroupDao.deleteGroup(collectionGroup);
         });
     }
 
+    @Override
+    public void insertCollectionGroups(List<CollectionGroup> collectionGroups) {
+        if (collectionGroups.isEmpty()) {
+            return;
+        }
+        List<CollectionGroup> groups = new ArrayList<>(collectionGroups);
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
+            collectionGroupDao.insertGroups(groups);
+        });
+    }
+
+    @Override
+    public void deleteCollectionGroups(List<CollectionGroup> collectionGroups) {
+        if (collectionGroups.isEmpty()) {
+            return;
+        }
+        List<CollectionGroup> groups = new ArrayList<>(collectionGroups);
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
+            collectionGroupDao.deleteGroups(groups);
+        });
+    }
+
     @Override
     public void deleteGroupsInContainer(String collectionName) {
-        CollectionGroupRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionGroupDao.deleteGroupsInContainer(collectionName);
         });
     }
 
     @Override
     public void updateContainerName(String oldName, String newName) {
-        CollectionGroupRoomDatabase.databaseWriteExecutor.execute(() -> {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
             collectionGroupDao.updateContainerName(oldName, newName);
         });
     }
 
+    @Override
+    public void deleteOrphanGroupsInContainer(String collectionName) {
+        BookMatchRoomDatabase.databaseWriteExecutor.execute(() -> {
+            collectionGroupDao.deleteOrphanGroupsInContainer(collectionName);
+        });
+    }
+
     @Override
     public LiveData<List<String>> getBookIdsInContainerLiveData(String containerName) {
         return collectionGroupDao.getBookIdsInContainerLiveData(containerName);
     }
 
+    @Override
+    public LiveData<PagingData<BookListItem>> getBooksInContainerPagingLiveData(String containerName) {
+        PagingConfig config = new PagingConfig(PAGING_PAGE_SIZE, PAGING_PREFETCH_DISTANCE, true,
+                PAGING_INITIAL_LOAD_SIZE, PAGING_MAX_SIZE);
+        return PagingLiveData.getLiveData(new Pager<>(config,
+                () -> collectionGroupDao.getBooksInContainerPagingSource(containerName)));
+    }
+
+    @Override
+    public LiveData<List<BookListItem>> getSavedBooksNotInContainerLiveData(String containerName) {
+        return collectionGroupDao.getSavedBooksNotInContainerLiveData(containerName);
+    }
+
     @Override
     public LiveData<Integer> getBooksInContainerCountLiveData(String collectionName) {
         return collectionGroupDao.getBooksInContainerCountLiveData(collectionName);
@@ -1,6 +1,9 @@
 package com.example.bookmatch.data.repository.collections.grouping;
 
 import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
+
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.model.CollectionGroup;
 
 import java.util.List;
@@ -8,9 +11,14 @@ import java.util.List;
 public interface ICollectionGroupRepository {
     boolean insertCollectionGroup(CollectionGroup collectionGroup);
     void deleteCollectionGroup(CollectionGroup collectionGroup);
+    void insertCollectionGroups(List<CollectionGroup> collectionGroups);
+    void deleteCollectionGroups(List<CollectionGroup> collectionGroups);
     void deleteGroupsInContainer(String collectionName);
     void updateContainerName(String oldName, String newName);
+    void deleteOrphanGroupsInContainer(String collectionName);
     LiveData<List<String>> getBookIdsInContainerLiveData(String containerName);
+    LiveData<PagingData<BookListItem>> getBooksInContainerPagingLiveData(String containerName);
+    LiveData<List<BookListItem>> getSavedBooksNotInContainerLiveData(String containerName);
     LiveData<Integer> getBooksInContainerCountLiveData(String collectionName);
     LiveData<Boolean> isBookInContainerLiveData(String collectionName, String bookId);
 }
\ No newline at end of file
@@ -0,0 +1,173 @@
+package com.example.bookmatch.data.service;
+
+import androidx.annotation.NonNull;
+
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BooksListApiResponse;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Streams the Google Books volumes response straight into Book instances, without building
+ * the intermediate item/volumeInfo/imageLinks objects of a reflective Gson mapping.
+ * Unused fields are skipped. Pages are parsed whole, the books already seen are filtered
+ * out by the repository so the page cache keeps every result. Every other type is left to
+ * the next converter factory.
+ */
+public class BooksListConverterFactory extends Converter.Factory {
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(@NonNull Type type,
+                                                            @NonNull Annotation[] annotations,
+                                                            @NonNull Retrofit retrofit) {
+        if (type != BooksListApiResponse.class) {
+            return null;
+        }
+        return (Converter<ResponseBody, BooksListApiResponse>) this::convert;
+    }
+
+    private BooksListApiResponse convert(ResponseBody body) throws IOException {
+        try (JsonReader reader = new JsonReader(body.charStream())) {
+            int totalItems = 0;
+            ArrayList<Book> books = null;
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "totalItems":
+                        totalItems = reader.nextInt();
+                        break;
+                    case "items":
+                        books = readItems(reader);
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+
+            return new BooksListApiResponse(totalItems, books);
+        }
+    }
+
+    private ArrayList<Book> readItems(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+
+        ArrayList<Book> books = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            Book book = readItem(reader);
+            if (book != null) {
+                books.add(book);
+            }
+        }
+        reader.endArray();
+        return books;
+    }
+
+    // Returns null for malformed items
+    private Book readItem(JsonReader reader) throws IOException {
+        String id = null;
+        Book book = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (name.equals("id") && reader.peek() == JsonToken.STRING) {
+                id = reader.nextString();
+            } else if (name.equals("volumeInfo") && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                book = readVolumeInfo(reader);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (id == null || book == null) {
+            return null;
+        }
+        book.setId(id);
+        return book;
+    }
+
+    private Book readVolumeInfo(JsonReader reader) throws IOException {
+        String title = null;
+        ArrayList<String> authors = null;
+        String description = null;
+        String publishedDate = null;
+        String thumbnail = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "title":
+                    title = reader.nextString();
+                    break;
+                case "authors":
+                    authors = readStrings(reader);
+                    break;
+                case "description":
+                    description = reader.nextString();
+                    break;
+                case "publishedDate":
+                    publishedDate = reader.nextString();
+                    break;
+                case "imageLinks":
+                    thumbnail = readThumbnail(reader);
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        // The real id is set by the caller
+        return new Book("", title, authors, description, publishedDate, thumbnail,
+                false, false, null, 0.0f);
+    }
+
+    private ArrayList<String> readStrings(JsonReader reader) throws IOException {
+        ArrayList<String> strings = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() == JsonToken.STRING) {
+                strings.add(reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endArray();
+        return strings;
+    }
+
+    private String readThumbnail(JsonReader reader) throws IOException {
+        String thumbnail = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("thumbnail") && reader.peek() == JsonToken.STRING) {
+                thumbnail = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return thumbnail;
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.bookmatch.data.storage;
+
+import static com.example.bookmatch.utils.Constants.COLLECTION_IMAGE_DIRECTORY;
+import static com.example.bookmatch.utils.Constants.COLLECTION_IMAGE_MAX_SIZE;
+import static com.example.bookmatch.utils.Constants.COLLECTION_IMAGE_ORPHAN_GRACE;
+import static com.example.bookmatch.utils.Constants.COLLECTION_IMAGE_QUALITY;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.net.Uri;
+import android.util.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps the cover images of the collections as downscaled JPEG files under the app storage.
+ * Files are named after the SHA-256 of their content, the database only stores that name and
+ * the hash, so rows stay small and the same picture is written once. None of the methods may
+ * be called on the UI thread.
+ */
+public class CollectionImageStore {
+
+    private static final String TAG = CollectionImageStore.class.getSimpleName();
+    private static final String IMAGE_EXTENSION = ".jpg";
+
+    private static volatile CollectionImageStore INSTANCE;
+
+    private final Context context;
+    private final File directory;
+
+    public static class StoredImage {
+        private final String path;
+        private final String hash;
+
+        private StoredImage(String path, String hash) {
+            this.path = path;
+            this.hash = hash;
+        }
+
+        // Name of the file, relative to the image directory
+        public String getPath() {
+            return path;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    private CollectionImageStore(Context context) {
+        this.context = context.getApplicationContext();
+        this.directory = new File(this.context.getFilesDir(), COLLECTION_IMAGE_DIRECTORY);
+    }
+
+    public static CollectionImageStore getInstance(Context context) {
+        if (INSTANCE == null) {
+            synchronized (CollectionImageStore.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new CollectionImageStore(context);
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    public File getImageFile(String path) {
+        return new File(directory, path);
+    }
+
+    // Imports a picture chosen by the user, returns null if it can not be read
+    public StoredImage importImage(Uri uri) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try (InputStream inputStream = context.getContentResolver().openInputStream(uri)) {
+            BitmapFactory.decodeStream(inputStream, null, options);
+        } catch (IOException | SecurityException e) {
+            Log.e(TAG, "Unable to read " + uri, e);
+            return null;
+        }
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight);
+        options.inJustDecodeBounds = false;
+        try (InputStream inputStream = context.getContentResolver().openInputStream(uri)) {
+            return store(BitmapFactory.decodeStream(inputStream, null, options));
+        } catch (IOException | SecurityException e) {
+            Log.e(TAG, "Unable to read " + uri, e);
+            return null;
+        }
+    }
+
+    // Stores an image encoded in any format BitmapFactory understands, returns null if it can not be decoded
+    public StoredImage importEncodedImage(byte[] imageData) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options);
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight);
+        options.inJustDecodeBounds = false;
+        return store(BitmapFactory.decodeByteArray(imageData, 0, imageData.length, options));
+    }
+
+    // Deletes the files no collection refers to anymore. Recent files are kept, they may belong
+    // to a picture the user has just chosen for a collection that is not saved yet
+    public void deleteUnreferenced(Collection<String> referencedPaths) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        Set<String> referenced = new HashSet<>(referencedPaths);
+        long keepAfter = System.currentTimeMillis() - COLLECTION_IMAGE_ORPHAN_GRACE;
+        for (File file : files) {
+            if (referenced.contains(file.getName()) || file.lastModified() > keepAfter) {
+                continue;
+            }
+            if (!file.delete()) {
+                Log.w(TAG, "Unable to delete " + file.getName());
+            }
+        }
+    }
+
+    private StoredImage store(Bitmap bitmap) {
+        if (bitmap == null) {
+            return null;
+        }
+
+        Bitmap scaled = scaleDown(bitmap);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        scaled.compress(Bitmap.CompressFormat.JPEG, COLLECTION_IMAGE_QUALITY, outputStream);
+        if (scaled != bitmap) {
+            scaled.recycle();
+        }
+        bitmap.recycle();
+
+        byte[] encoded = outputStream.toByteArray();
+        String hash = sha256(encoded);
+        String path = hash + IMAGE_EXTENSION;
+        File file = getImageFile(path);
+
+        // Same content, same name: the file is already there
+        if (file.exists()) {
+            file.setLastModified(System.currentTimeMillis());
+            return new StoredImage(path, hash);
+        }
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            Log.e(TAG, "Unable to create " + directory);
+            return null;
+        }
+
+        File tempFile = new File(directory, path + ".tmp");
+        try (FileOutputStream fileOutputStream = new FileOutputStream(tempFile)) {
+            fileOutputStream.write(encoded);
+            fileOutputStream.getFD().sync();
+        } catch (IOException e) {
+            Log.e(TAG, "Unable to write " + path, e);
+            tempFile.delete();
+            return null;
+        }
+
+        if (!tempFile.renameTo(file)) {
+            tempFile.delete();
+            return null;
+        }
+        return new StoredImage(path, hash);
+    }
+
+    private static Bitmap scaleDown(Bitmap bitmap) {
+        int width = bitmap.getWidth();
+        int height = bitmap.getHeight();
+        int largestSide = Math.max(width, height);
+        if (largestSide <= COLLECTION_IMAGE_MAX_SIZE) {
+            return bitmap;
+        }
+
+        float scale = (float) COLLECTION_IMAGE_MAX_SIZE / largestSide;
+        return Bitmap.createScaledBitmap(bitmap, Math.round(width * scale), Math.round(height * scale), true);
+    }
+
+    // Largest power of two that keeps the longest side at least COLLECTION_IMAGE_MAX_SIZE
+    private static int calculateInSampleSize(int width, int height) {
+        int inSampleSize = 1;
+        int largestSide = Math.max(width, height);
+        while (largestSide / (inSampleSize * 2) >= COLLECTION_IMAGE_MAX_SIZE) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // Every Android version ships SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.bookmatch.model;
+
+import androidx.room.ColumnInfo;
+
+// Swipes, reviews and ratings of the books sharing an author, a genre or a decade
+public class AffinitySignal {
+
+    @ColumnInfo(name = "signal_key")
+    private final String key;
+
+    @ColumnInfo(name = "saved_count")
+    private final int savedCount;
+
+    @ColumnInfo(name = "deleted_count")
+    private final int deletedCount;
+
+    @ColumnInfo(name = "reviewed_count")
+    private final int reviewedCount;
+
+    @ColumnInfo(name = "rating_sum")
+    private final float ratingSum;
+
+    public AffinitySignal(String key, int savedCount, int deletedCount, int reviewedCount, float ratingSum) {
+        this.key = key;
+        this.savedCount = savedCount;
+        this.deletedCount = deletedCount;
+        this.reviewedCount = reviewedCount;
+        this.ratingSum = ratingSum;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getSavedCount() {
+        return savedCount;
+    }
+
+    public int getDeletedCount() {
+        return deletedCount;
+    }
+
+    public int getReviewedCount() {
+        return reviewedCount;
+    }
+
+    public float getRatingSum() {
+        return ratingSum;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+// Every author name is stored once, the books refer to it through BookAuthor
+@Entity(tableName = "author",
+        indices = {@Index(value = {"name"}, unique = true)})
+public class Author {
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    @ColumnInfo(name = "name")
+    @NonNull
+    private String name;
+
+    public Author(@NonNull String name) {
+        this.name = name;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    public void setName(@NonNull String name) {
+        this.name = name;
+    }
+}
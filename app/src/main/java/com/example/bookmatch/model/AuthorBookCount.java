@@ -0,0 +1,25 @@
+package com.example.bookmatch.model;
+
+import androidx.room.ColumnInfo;
+
+// An author with the number of saved books credited to them
+public class AuthorBookCount {
+
+    private final String name;
+
+    @ColumnInfo(name = "book_count")
+    private final int bookCount;
+
+    public AuthorBookCount(String name, int bookCount) {
+        this.name = name;
+        this.bookCount = bookCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getBookCount() {
+        return bookCount;
+    }
+}
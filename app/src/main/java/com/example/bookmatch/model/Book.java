@@ -41,6 +41,10 @@ public class Book implements Parcelable {
 
     private Float rating;
 
+    // Genre of the Explore query the book was found with, null for the books found without one
+    @ColumnInfo(name = "genre")
+    private String genre;
+
 
     public Book(@NonNull String id, String title, ArrayList<String> authors, String description,
                 String publicationYear, String coverURI, boolean isSaved, boolean isReviewed,
@@ -94,6 +98,10 @@ public class Book implements Parcelable {
         return rating;
     }
 
+    public String getGenre() {
+        return genre;
+    }
+
     public void setId(@NonNull String id) {
         this.id = id;
     }
@@ -134,6 +142,10 @@ public class Book implements Parcelable {
         this.rating = rating;
     }
 
+    public void setGenre(String genre) {
+        this.genre = genre;
+    }
+
     @Override
     public String toString() {
         return "Book{" +
@@ -179,6 +191,7 @@ public class Book implements Parcelable {
         dest.writeByte(this.isReviewed ? (byte) 1 : (byte) 0);
         dest.writeString(this.review);
         dest.writeValue(this.rating);
+        dest.writeString(this.genre);
     }
 
     public void readFromParcel(Parcel source) {
@@ -192,6 +205,7 @@ public class Book implements Parcelable {
         this.isReviewed = source.readByte() != 0;
         this.review = source.readString();
         this.rating = (Float) source.readValue(Float.class.getClassLoader());
+        this.genre = source.readString();
     }
 
     public Book(Parcel in) {
@@ -205,6 +219,7 @@ public class Book implements Parcelable {
         this.isReviewed = in.readByte() != 0;
         this.review = in.readString();
         this.rating = (Float) in.readValue(Float.class.getClassLoader());
+        this.genre = in.readString();
     }
 
     public static final Creator<Book> CREATOR = new Creator<Book>() {
@@ -0,0 +1,66 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+
+@Entity(tableName = "book_author",
+        primaryKeys = {"book_id", "author_id"},
+        // the primary key already covers the lookups by book
+        indices = {@Index(value = {"author_id"})},
+        // the links go away with the book or the author
+        foreignKeys = {
+                @ForeignKey(entity = Book.class,
+                        parentColumns = "id",
+                        childColumns = "book_id",
+                        onDelete = ForeignKey.CASCADE),
+                @ForeignKey(entity = Author.class,
+                        parentColumns = "id",
+                        childColumns = "author_id",
+                        onDelete = ForeignKey.CASCADE)}
+)
+public class BookAuthor {
+    @ColumnInfo(name = "book_id")
+    @NonNull
+    private String bookId;
+
+    @ColumnInfo(name = "author_id")
+    private long authorId;
+
+    // order of the author in the book credits
+    @ColumnInfo(name = "position")
+    private int position;
+
+    public BookAuthor(@NonNull String bookId, long authorId, int position) {
+        this.bookId = bookId;
+        this.authorId = authorId;
+        this.position = position;
+    }
+
+    @NonNull
+    public String getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(@NonNull String bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(long authorId) {
+        this.authorId = authorId;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public void setPosition(int position) {
+        this.position = position;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.bookmatch.model;
+
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+
+// Full text index of the searchable Book columns, Room keeps it in sync with triggers on Book
+@Fts4(contentEntity = Book.class, tokenizer = FtsOptions.TOKENIZER_UNICODE61)
+@Entity(tableName = "BookFts")
+public class BookFts {
+
+    private String title;
+
+    @ColumnInfo(name = "author_name")
+    private String authors;
+
+    @ColumnInfo(name = "description")
+    private String description;
+
+    private String review;
+
+    public BookFts(String title, String authors, String description, String review) {
+        this.title = title;
+        this.authors = authors;
+        this.description = description;
+        this.review = review;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthors() {
+        return authors;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getReview() {
+        return review;
+    }
+}
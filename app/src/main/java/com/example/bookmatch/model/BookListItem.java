@@ -0,0 +1,45 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import java.util.ArrayList;
+
+// Columns of a Book shown by the book lists, the full row is loaded only when a book is opened
+public class BookListItem {
+
+    @NonNull
+    private final String id;
+
+    private final String title;
+
+    @ColumnInfo(name = "author_name")
+    private final ArrayList<String> authors;
+
+    @ColumnInfo(name = "is_reviewed")
+    private final boolean isReviewed;
+
+    public BookListItem(@NonNull String id, String title, ArrayList<String> authors, boolean isReviewed) {
+        this.id = id;
+        this.title = title;
+        this.authors = authors;
+        this.isReviewed = isReviewed;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ArrayList<String> getAuthors() {
+        return authors;
+    }
+
+    public boolean isReviewed() {
+        return isReviewed;
+    }
+}
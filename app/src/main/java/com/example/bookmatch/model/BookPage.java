@@ -0,0 +1,93 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+// Cached page of Google Books results, books are stored unfiltered as JSON
+@Entity(tableName = "book_page",
+        primaryKeys = {"query_string", "start_index", "max_results"},
+        indices = {@Index(value = {"fetched_at"})}
+)
+public class BookPage {
+
+    @ColumnInfo(name = "query_string")
+    @NonNull
+    private String query;
+
+    @ColumnInfo(name = "start_index")
+    private int startIndex;
+
+    @ColumnInfo(name = "max_results")
+    private int maxResults;
+
+    @ColumnInfo(name = "total_items")
+    private int totalItems;
+
+    // null when the API returned no items for the page
+    @ColumnInfo(name = "books_json")
+    private String booksJson;
+
+    @ColumnInfo(name = "fetched_at")
+    private long fetchedAt;
+
+    public BookPage(@NonNull String query, int startIndex, int maxResults, int totalItems,
+                    String booksJson, long fetchedAt) {
+        this.query = query;
+        this.startIndex = startIndex;
+        this.maxResults = maxResults;
+        this.totalItems = totalItems;
+        this.booksJson = booksJson;
+        this.fetchedAt = fetchedAt;
+    }
+
+    @NonNull
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(@NonNull String query) {
+        this.query = query;
+    }
+
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    public void setStartIndex(int startIndex) {
+        this.startIndex = startIndex;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public int getTotalItems() {
+        return totalItems;
+    }
+
+    public void setTotalItems(int totalItems) {
+        this.totalItems = totalItems;
+    }
+
+    public String getBooksJson() {
+        return booksJson;
+    }
+
+    public void setBooksJson(String booksJson) {
+        this.booksJson = booksJson;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+
+    public void setFetchedAt(long fetchedAt) {
+        this.fetchedAt = fetchedAt;
+    }
+}
@@ -1,121 +1,33 @@
 package com.example.bookmatch.model;
 
-import com.google.gson.annotations.SerializedName;
-
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
 
+// Built by BooksListConverterFactory while streaming the Google Books response
 public class BooksListApiResponse {
 
-    private static class Item {
-
-        private static class VolumeInfo {
-            private final String title;
-            private final ArrayList<String> authors;
-            private final String description;
-            private final String publishedDate;
-            private final HashMap<String, String> imageLinks;
-
-            public VolumeInfo(String title,
-                              ArrayList<String> authors,
-                              String description,
-                              String publishedDate,
-                              HashMap<String, String> imageLinks) {
-                this.title = title;
-                this.authors = authors;
-                this.description = description;
-                this.publishedDate = publishedDate;
-                this.imageLinks = imageLinks;
-            }
-
-            public String getTitle() {
-                return title;
-            }
-
-            public ArrayList<String> getAuthors() {
-                return authors;
-            }
-
-            public String getDescription() {
-                return description;
-            }
-
-            public String getPublishedDate() {
-                return publishedDate;
-            }
-
-            public HashMap<String, String> getImageLinks() {
-                return imageLinks;
-            }
-        }
-        private final String id;
-        @SerializedName("volumeInfo")
-        private final VolumeInfo bookInfos;
-
-        public Item(String id, VolumeInfo bookInfos) {
-            this.id = id;
-            this.bookInfos = bookInfos;
-        }
-
-        public String getId() {
-            return id;
-        }
-
-        public VolumeInfo getBookInfos() {
-            return bookInfos;
-        }
-    }
-
-    @SerializedName("totalItems")
     private int totResults;
 
-    @SerializedName("items")
-    private List<Item> itemsList;
+    // null when the response has no items
+    private ArrayList<Book> booksList;
 
-    public BooksListApiResponse(int totResults, int start, List<Item> itemsList) {
+    public BooksListApiResponse(int totResults, ArrayList<Book> booksList) {
         this.totResults = totResults;
-        this.itemsList = itemsList;
+        this.booksList = booksList;
     }
 
     public int getTotResults() {
         return totResults;
     }
 
-
     public ArrayList<Book> getBooksList() {
-        ArrayList<Book> books = new ArrayList<>();
-
-        if (itemsList == null)
-            return null;
-
-        for(Item i: itemsList) {
-            String imageURI = null;
-            if (i.getBookInfos().getImageLinks() != null)
-                imageURI = i.getBookInfos().getImageLinks().getOrDefault("thumbnail", null);
-
-            Book b = new Book(i.getId(),
-                    i.getBookInfos().getTitle(),
-                    i.getBookInfos().getAuthors(),
-                    i.getBookInfos().getDescription(),
-                    i.getBookInfos().getPublishedDate(),
-                    imageURI,
-                    false,
-                    false,
-                    null,
-                    0.0f);
-            books.add(b);
-        }
-
-        return books;
+        return booksList;
     }
 
     public void setTotResults(int totResults) {
         this.totResults = totResults;
     }
 
-
-    public void setItemsList(List<Item> itemsList) {
-        this.itemsList = itemsList;
+    public void setBooksList(ArrayList<Book> booksList) {
+        this.booksList = booksList;
     }
 }
@@ -18,26 +18,33 @@ public class CollectionContainer implements Parcelable {
     private String name;
     private String description;
 
-    @ColumnInfo(typeAffinity = ColumnInfo.BLOB)
-    private byte[] imageData;
+    // File of the cover image in the CollectionImageStore, null if the collection has no image
+    @ColumnInfo(name = "image_path")
+    private String imagePath;
 
-    public CollectionContainer(@NonNull String name, String description, byte[] imageData) {
+    @ColumnInfo(name = "image_hash")
+    private String imageHash;
+
+    public CollectionContainer(@NonNull String name, String description, String imagePath, String imageHash) {
         this.name = name;
         this.description = description;
-        this.imageData = imageData;
+        this.imagePath = imagePath;
+        this.imageHash = imageHash;
     }
 
     protected CollectionContainer(Parcel in) {
         name = Objects.requireNonNull(in.readString());
         description = in.readString();
-        imageData = in.createByteArray();
+        imagePath = in.readString();
+        imageHash = in.readString();
     }
 
     @Override
     public void writeToParcel(Parcel dest, int flags) {
         dest.writeString(name);
         dest.writeString(description);
-        dest.writeByteArray(imageData);
+        dest.writeString(imagePath);
+        dest.writeString(imageHash);
     }
 
     @Override
@@ -74,11 +81,17 @@ public class CollectionContainer implements Parcelable {
         this.description = description;
     }
 
-    public byte[] getImageData() {
-        return imageData;
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    public void setImagePath(String imagePath) { this.imagePath = imagePath; }
+
+    public String getImageHash() {
+        return imageHash;
     }
 
-    public void setImageData(byte[] imageData) { this.imageData = imageData; }
+    public void setImageHash(String imageHash) { this.imageHash = imageHash; }
 
     @Override
     public boolean equals(Object o) {
@@ -6,13 +6,20 @@ import android.os.Parcelable;
 import androidx.annotation.NonNull;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
+import androidx.room.ForeignKey;
 import androidx.room.Index;
 
 import java.util.Objects;
 
 @Entity(tableName = "collectionGroup",
         primaryKeys = {"collectionName", "bookId"}, // composite primary key
-        indices = {@Index(value = {"collectionName"}), @Index(value = {"bookId"})}
+        indices = {@Index(value = {"collectionName"}), @Index(value = {"bookId"})},
+        // renaming or deleting a container is propagated to its groups
+        foreignKeys = {@ForeignKey(entity = CollectionContainer.class,
+                parentColumns = "name",
+                childColumns = "collectionName",
+                onUpdate = ForeignKey.CASCADE,
+                onDelete = ForeignKey.CASCADE)}
 )
 public class CollectionGroup implements Parcelable {
     @ColumnInfo(name = "collectionName")
@@ -0,0 +1,68 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+
+// A card of the Explore deck kept for offline use, one snapshot of cards per genre
+@Entity(tableName = "offline_card",
+        primaryKeys = {"genre", "book_id"},
+        indices = {@Index(value = {"genre", "stored_at"})})
+public class OfflineCard {
+    @ColumnInfo(name = "genre")
+    @NonNull
+    private String genre;
+
+    @ColumnInfo(name = "book_id")
+    @NonNull
+    private String bookId;
+
+    // Book serialized with Gson, the card is shown as it was fetched
+    @ColumnInfo(name = "book_json")
+    private String bookJson;
+
+    @ColumnInfo(name = "stored_at")
+    private long storedAt;
+
+    public OfflineCard(@NonNull String genre, @NonNull String bookId, String bookJson, long storedAt) {
+        this.genre = genre;
+        this.bookId = bookId;
+        this.bookJson = bookJson;
+        this.storedAt = storedAt;
+    }
+
+    @NonNull
+    public String getGenre() {
+        return genre;
+    }
+
+    public void setGenre(@NonNull String genre) {
+        this.genre = genre;
+    }
+
+    @NonNull
+    public String getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(@NonNull String bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getBookJson() {
+        return bookJson;
+    }
+
+    public void setBookJson(String bookJson) {
+        this.bookJson = bookJson;
+    }
+
+    public long getStoredAt() {
+        return storedAt;
+    }
+
+    public void setStoredAt(long storedAt) {
+        this.storedAt = storedAt;
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.bookmatch.model;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+
+import java.util.ArrayList;
+
+// Columns of a reviewed Book shown by the reviews list
+public class ReviewListItem {
+
+    @NonNull
+    private final String id;
+
+    private final String title;
+
+    @ColumnInfo(name = "author_name")
+    private final ArrayList<String> authors;
+
+    private final String review;
+
+    private final Float rating;
+
+    public ReviewListItem(@NonNull String id, String title, ArrayList<String> authors, String review, Float rating) {
+        this.id = id;
+        this.title = title;
+        this.authors = authors;
+        this.review = review;
+        this.rating = rating;
+    }
+
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public ArrayList<String> getAuthors() {
+        return authors;
+    }
+
+    public String getReview() {
+        return review;
+    }
+
+    public Float getRating() {
+        return rating;
+    }
+}
@@ -1,76 +1,173 @@
 package com.example.bookmatch.ui.main;
 
-import static com.example.bookmatch.utils.Constants.API_SEARCH_BOOK_MAX_RESULTS_VALUE;
-import static com.example.bookmatch.utils.Constants.API_SEARCH_BOOK_MIN_RESULTS_VALUE;
+import static com.example.bookmatch.utils.Constants.DECK_CAPACITY;
+import static com.example.bookmatch.utils.Constants.DECK_DEAL_SIZE;
+import static com.example.bookmatch.utils.Constants.DECK_LOW_WATERMARK;
+import static com.example.bookmatch.utils.Constants.DECK_REFILL_MAX_RETRIES;
+import static com.example.bookmatch.utils.Constants.DECK_REFILL_RETRY_DELAY;
+import static com.example.bookmatch.utils.Constants.MIX_GENRES;
 
 import android.app.Application;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.Log;
 
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 import androidx.lifecycle.ViewModel;
 
-import com.example.bookmatch.data.repository.books.BookSavedLiveData;
+import com.example.bookmatch.R;
+import com.example.bookmatch.data.repository.books.AdaptiveFetchController;
+import com.example.bookmatch.data.repository.books.BookDeck;
+import com.example.bookmatch.data.repository.books.BookPageAccumulator;
+import com.example.bookmatch.data.repository.books.BookPageSource;
 import com.example.bookmatch.data.repository.books.BookRepository;
 import com.example.bookmatch.data.repository.books.IBookRepository;
+import com.example.bookmatch.data.repository.books.MultiGenreAccumulator;
+import com.example.bookmatch.model.AuthorBookCount;
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
+import com.example.bookmatch.model.ReviewListItem;
 import com.example.bookmatch.model.Result;
-import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
+import com.example.bookmatch.model.UserPreferences;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
-public class BookViewModel extends ViewModel implements BookAPIResponseCallback {
+public class BookViewModel extends ViewModel implements BookPageAccumulator.Listener {
     private static final String TAG = BookViewModel.class.getSimpleName();
+    private final Application application;
     private final IBookRepository bookRepository;
     private final MutableLiveData<Result> extractedBooks;
-    private final BookSavedLiveData booksMockData;
+    private final BookDeck deck;
+    private final AdaptiveFetchController fetchController;
+    private final Handler mainThreadHandler;
+    private final Runnable refillRetry;
+    private int refillRetries;
     private String prevGenre;
-    private int startIndex;
+    // The genre as selected by the user, shown in the messages
+    private String prevSelectedGenre;
+    private BookPageSource pageSource;
+    private boolean dealPending;
+    private boolean offlineCardsRequested;
+    private LiveData<PagingData<BookListItem>> savedBooksPagingLiveData;
+    private final MutableLiveData<String> savedBooksQuery;
+    private LiveData<PagingData<ReviewListItem>> reviewedBooksPagingLiveData;
 
     public BookViewModel(Application application) {
+        this.application = application;
         this.bookRepository = new BookRepository(application);
         this.extractedBooks = new MutableLiveData<>();
-        this.booksMockData = new BookSavedLiveData(application);
+        this.deck = new BookDeck(DECK_CAPACITY, DECK_LOW_WATERMARK);
+        this.fetchController = new AdaptiveFetchController();
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+        this.refillRetry = this::refillDeck;
+        this.refillRetries = 0;
+        this.savedBooksQuery = new MutableLiveData<>("");
         prevGenre = null;
-        startIndex = 0;
-    }
-
-    public void setStartIndex(int startIndex) {
-        this.startIndex = startIndex;
+        prevSelectedGenre = null;
+        pageSource = null;
+        dealPending = false;
+        offlineCardsRequested = false;
     }
 
+    // Selects the genre of the deck and deals a first hand of cards, must be called on the UI thread
     public void fetchBooks(String selectedGenre) {
-        String englishGenre = GenreMapping.getEnglishGenre(selectedGenre);
+        String genre = GenreMapping.resolveGenre(selectedGenre);
 
-        if (englishGenre != null) {
-            if (!englishGenre.equals(prevGenre)) {
-                prevGenre = englishGenre;
-                startIndex = 0;
+        if (!genre.equals(prevGenre)) {
+            prevGenre = genre;
+            prevSelectedGenre = selectedGenre;
+            deck.clear();
+            mainThreadHandler.removeCallbacks(refillRetry);
+            refillRetries = 0;
+            offlineCardsRequested = false;
+
+            // Pages still running for the previous genre must not reach the new deck
+            if (pageSource != null) {
+                pageSource.cancel();
+            }
+            if (GenreMapping.MIX_GENRE.equals(genre)) {
+                pageSource = new MultiGenreAccumulator(bookRepository, Arrays.asList(MIX_GENRES),
+                        fetchController);
+            } else {
+                pageSource = new BookPageAccumulator(bookRepository, genre, fetchController);
             }
+        }
+
+        dealPending = true;
+        dealCards();
+    }
 
-            bookRepository.setCallback(this);
-            bookRepository.fetchBooks(englishGenre, startIndex * API_SEARCH_BOOK_MAX_RESULTS_VALUE);
+    // Hands the next cards of the deck to the UI and refills the deck in background if needed,
+    // must be called on the UI thread
+    public void dealCards() {
+        if (deck.size() > 0) {
+            dealPending = false;
+            ArrayList<Book> hand = deck.take(DECK_DEAL_SIZE);
+            this.extractedBooks.setValue(new Result.BooksResponseSuccess(hand));
         } else {
-            if (!selectedGenre.equals(prevGenre)) {
-                prevGenre = selectedGenre;
-                startIndex = 0;
-            }
+            dealPending = true;
+        }
 
-            bookRepository.setCallback(this);
-            bookRepository.fetchBooks("", startIndex * API_SEARCH_BOOK_MAX_RESULTS_VALUE);
+        if (deck.needsRefill()) {
+            refillDeck();
         }
-        startIndex++;
+    }
+
+    private void refillDeck() {
+        if (pageSource == null || pageSource.isRunning() || pageSource.isExhausted()) {
+            return;
+        }
+        AdaptiveFetchController.FetchPlan plan = fetchController.plan(deck.getMissingCards(), deck.size());
+        pageSource.accumulate(deck.getMissingCards(), plan.getPageSize(), plan.getRequestBudget(),
+                plan.getParallelism(), this);
+    }
+
+    // The favourite genre and author of the account rank the cards higher
+    public void setUserPreferences(UserPreferences preferences) {
+        bookRepository.setTastePreferences(GenreMapping.resolveGenre(preferences.getGenre()),
+                preferences.getAuthor());
+    }
+
+    // Every swipe, whatever its direction, tells the fetch controller how fast the deck is used
+    public void onCardSwiped() {
+        fetchController.onCardSwiped();
+    }
+
+    public BookDeck getDeck() {
+        return deck;
     }
 
     // if mode true, book saved as favorite, if false book saved as deleted
     public void saveBook(Book book, boolean mode) {
         book.setSaved(mode);
-        bookRepository.insertBook(book);
+        bookRepository.recordSwipe(book);
+    }
+
+    // Writes the swipe decisions still buffered
+    public void flushSwipes() {
+        bookRepository.flushSwipes();
+    }
+
+    public void deleteBook(String bookId) {
+        bookRepository.deleteBook(bookId);
+    }
+
+    // Undoes the last deleteBook of the given book
+    public void restoreBook(String bookId) {
+        bookRepository.restoreBook(bookId);
     }
 
-    public void deleteBook(Book book) {
-        bookRepository.deleteBook(book);
+    public void setReviewed(String bookId, boolean reviewed) {
+        bookRepository.updateReviewed(bookId, reviewed);
     }
 
     public MutableLiveData<Result> getExtractedBooksLiveData() {
@@ -82,48 +179,136 @@ public class BookViewModel extends ViewModel implements BookAPIResponseCallback
         return bookRepository.getSavedBooksLiveData();
     }
 
-    public LiveData<List<Book>> getReviewedBooksLiveData() { return bookRepository.getReviewedBooksLiveData(); }
+    // Paged lists are cached in the ViewModel so they survive configuration changes
+    // Shows the search results while a query is set, the whole saved list otherwise
+    public LiveData<PagingData<BookListItem>> getSavedBooksPagingLiveData() {
+        if (savedBooksPagingLiveData == null) {
+            LiveData<PagingData<BookListItem>> savedBooks = Transformations.switchMap(savedBooksQuery,
+                    query -> query.isEmpty()
+                            ? bookRepository.getSavedBooksPagingLiveData()
+                            : bookRepository.searchSavedBooksPagingLiveData(query));
+            savedBooksPagingLiveData = PagingLiveData.cachedIn(savedBooks, ViewModelKt.getViewModelScope(this));
+        }
+        return savedBooksPagingLiveData;
+    }
 
-    public MutableLiveData<Integer> getSavedBooksCountLiveData() {
-        return new MutableLiveData<>(bookRepository.getSavedBooksCount());
+    public void setSavedBooksQuery(String query) {
+        String trimmedQuery = query != null ? query.trim() : "";
+        if (!trimmedQuery.equals(savedBooksQuery.getValue())) {
+            savedBooksQuery.setValue(trimmedQuery);
+        }
     }
 
-    public MutableLiveData<Integer> getReviewedBooksCountLiveData() {
-        return new MutableLiveData<>(bookRepository.getReviewedBooksCount());
+    public LiveData<PagingData<ReviewListItem>> getReviewedBooksPagingLiveData() {
+        if (reviewedBooksPagingLiveData == null) {
+            reviewedBooksPagingLiveData = PagingLiveData.cachedIn(bookRepository.getReviewedBooksPagingLiveData(),
+                    ViewModelKt.getViewModelScope(this));
+        }
+        return reviewedBooksPagingLiveData;
     }
 
-    public Book getBookById(String id) {
-        return bookRepository.getBookById(id);
+    public LiveData<Integer> getSavedBooksCountLiveData() {
+        return bookRepository.getSavedBooksCountLiveData();
     }
 
-    public List<Book> getBooksByIds(List<String> ids) {
-        List<Book> books = new ArrayList<>();
-        for (String id : ids) {
-            Book book = getBookById(id);
-            if (book != null) {
-                books.add(book);
-            }
-        }
-        return books;
+    public LiveData<Integer> getReviewedBooksCountLiveData() {
+        return bookRepository.getReviewedBooksCountLiveData();
+    }
+
+    public LiveData<Book> getBookLiveData(String id) {
+        return bookRepository.getBookLiveData(id);
+    }
+
+    public LiveData<List<BookListItem>> getSavedBooksByAuthorLiveData(String author) {
+        return bookRepository.getSavedBooksByAuthorLiveData(author);
+    }
+
+    public LiveData<List<AuthorBookCount>> getTopAuthorsLiveData(int limit) {
+        return bookRepository.getTopAuthorsLiveData(limit);
     }
 
     @Override
-    public void onSuccess(ArrayList<Book> books) {
+    public void onPagesAccumulated(ArrayList<Book> books, int requestCount, boolean exhausted) {
+        // The deck is dealt in order, the most promising cards of the refill come first
+        bookRepository.rankBooks(books);
+        deck.offer(books);
+        bookRepository.storeOfflineCards(prevGenre, books);
+        Log.d(TAG, "Deck refill of " + books.size() + " books cost " + requestCount
+                + " requests, exhausted=" + exhausted + ", " + deck);
+
+        if (!books.isEmpty()) {
+            refillRetries = 0;
+        }
 
-        if(books != null) {
-            if(books.size() < API_SEARCH_BOOK_MIN_RESULTS_VALUE)
-                fetchBooks(prevGenre);
+        if (dealPending && deck.size() > 0) {
+            dealCards();
+        } else if (exhausted && dealPending && deck.size() == 0) {
+            // Nothing left to deal for this genre, an empty hand tells the UI the list is over
+            dealPending = false;
+            this.extractedBooks.setValue(new Result.BooksResponseSuccess(new ArrayList<>()));
+        }
 
-            Result.BooksResponseSuccess result = new Result.BooksResponseSuccess(books);
-            this.extractedBooks.postValue(result);
+        // The budget ran out before the deck was refilled, nothing else would start the next refill
+        if (!exhausted && deck.needsRefill() && pageSource != null && !pageSource.isRunning()) {
+            scheduleRefillRetry();
         }
     }
 
+    // Retries the refill with an exponential backoff, gives up after DECK_REFILL_MAX_RETRIES empty refills
+    private void scheduleRefillRetry() {
+        if (refillRetries >= DECK_REFILL_MAX_RETRIES) {
+            if (dealPending && deck.size() == 0) {
+                dealPending = false;
+                this.extractedBooks.setValue(new Result.Error(
+                        application.getString(R.string.error_no_new_books, prevSelectedGenre)));
+            }
+            return;
+        }
+        long delay = DECK_REFILL_RETRY_DELAY << refillRetries;
+        refillRetries++;
+        mainThreadHandler.removeCallbacks(refillRetry);
+        mainThreadHandler.postDelayed(refillRetry, delay);
+    }
+
+    @Override
+    protected void onCleared() {
+        super.onCleared();
+        mainThreadHandler.removeCallbacks(refillRetry);
+    }
+
     @Override
     public void onFailure(String message) {
         Log.e(TAG, message);
         Result.Error result = new Result.Error(message);
         this.extractedBooks.postValue(result);
+        mainThreadHandler.post(this::offerOfflineCards);
+    }
+
+    // Offline: the cards stored for the genre by the previous refills go through the deck like the
+    // fetched ones, they are read once per genre however many requests fail
+    private void offerOfflineCards() {
+        if (offlineCardsRequested) {
+            return;
+        }
+        offlineCardsRequested = true;
+
+        String genre = prevGenre;
+        LiveData<List<Book>> offlineCards = bookRepository.getOfflineCardsLiveData(genre != null ? genre : "",
+                DECK_CAPACITY);
+        offlineCards.observeForever(new Observer<List<Book>>() {
+            @Override
+            public void onChanged(List<Book> books) {
+                offlineCards.removeObserver(this);
+                // The cards of a genre left meanwhile must not reach the new deck
+                if (!Objects.equals(genre, prevGenre) || books.isEmpty()) {
+                    return;
+                }
+                deck.offer(books);
+                if (dealPending) {
+                    dealCards();
+                }
+            }
+        });
     }
 
     public void updateBook(Book book) {
@@ -133,12 +318,4 @@ public class BookViewModel extends ViewModel implements BookAPIResponseCallback
     public LiveData<Boolean> isBookSavedLiveData(String bookId) {
         return bookRepository.isBookSavedLiveData(bookId);
     }
-
-    public ArrayList<Book> getMockBooks(){
-        return booksMockData.getSavedBooks();
-    }
-
-    public boolean saveMockBooks(ArrayList<Book> books){
-        return booksMockData.saveBooks(books);
-    }
 }
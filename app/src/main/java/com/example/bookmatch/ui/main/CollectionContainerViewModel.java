@@ -1,11 +1,14 @@
 package com.example.bookmatch.ui.main;
 
 import android.app.Application;
+import android.net.Uri;
+
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 
 import com.example.bookmatch.data.repository.collections.container.CollectionContainerRepository;
 import com.example.bookmatch.data.repository.collections.container.ICollectionContainerRepository;
+import com.example.bookmatch.data.storage.CollectionImageStore;
 import com.example.bookmatch.model.CollectionContainer;
 import java.util.List;
 
@@ -26,7 +29,7 @@ public class CollectionContainerViewModel extends AndroidViewModel {
         collectionRepository.deleteCollectionContainer(collection);
     }
 
-    public void updateCollectionContainer(String name, String description, byte[] image, String oldName) {
+    public void updateCollectionContainer(String name, String description, CollectionImageStore.StoredImage image, String oldName) {
         collectionRepository.updateCollectionContainer(name, description, image, oldName);
     }
 
@@ -38,12 +41,16 @@ public class CollectionContainerViewModel extends AndroidViewModel {
         collectionRepository.updateCollectionDescription(name, description);
     }
 
-    public void updateCollectionImage(String name, byte[] image) {
+    public void updateCollectionImage(String name, CollectionImageStore.StoredImage image) {
         collectionRepository.updateCollectionImage(name, image);
     }
 
-    public Boolean collectionContainerExists(String name) {
-        return collectionRepository.collectionContainerExists(name);
+    public LiveData<CollectionImageStore.StoredImage> importCollectionImage(Uri uri) {
+        return collectionRepository.importCollectionImage(uri);
+    }
+
+    public LiveData<Boolean> collectionContainerExistsLiveData(String name) {
+        return collectionRepository.collectionContainerExistsLiveData(name);
     }
 
     public LiveData<List<CollectionContainer>> getAllCollectionsLiveData() {
@@ -4,21 +4,31 @@ import android.app.Application;
 
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
 
 import com.example.bookmatch.data.repository.collections.grouping.CollectionGroupRepository;
 import com.example.bookmatch.data.repository.collections.grouping.ICollectionGroupRepository;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.model.CollectionGroup;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public class CollectionGroupViewModel extends AndroidViewModel {
 
     private final ICollectionGroupRepository collectionGroupRepository;
+    private final MutableLiveData<String> displayedContainerName;
+    private LiveData<PagingData<BookListItem>> savedBooksInContainerPagingLiveData;
 
     public CollectionGroupViewModel(Application application) {
         super(application);
         this.collectionGroupRepository = new CollectionGroupRepository(application);
+        this.displayedContainerName = new MutableLiveData<>();
     }
 
     public boolean insertInCollection(CollectionGroup collectionGroup) {
@@ -30,11 +40,20 @@ public class CollectionGroupViewModel extends AndroidViewModel {
         return collectionGroupRepository.insertCollectionGroup(collectionGroup);
     }
 
-    public boolean insertInCollection(String collectionName, Book selectedBook) {
+    public boolean insertInCollection(String collectionName, BookListItem selectedBook) {
         CollectionGroup collectionGroup = new CollectionGroup(collectionName, selectedBook.getId());
         return collectionGroupRepository.insertCollectionGroup(collectionGroup);
     }
 
+    // All the books are added with a single transaction
+    public void insertInCollection(String collectionName, List<BookListItem> selectedBooks) {
+        List<CollectionGroup> collectionGroups = new ArrayList<>(selectedBooks.size());
+        for (BookListItem book : selectedBooks) {
+            collectionGroups.add(new CollectionGroup(collectionName, book.getId()));
+        }
+        collectionGroupRepository.insertCollectionGroups(collectionGroups);
+    }
+
     public void deleteCollectionGroup(CollectionGroup collectionGroup) {
         collectionGroupRepository.deleteCollectionGroup(collectionGroup);
     }
@@ -52,10 +71,36 @@ public class CollectionGroupViewModel extends AndroidViewModel {
         collectionGroupRepository.updateContainerName(oldName, newName);
     }
 
+    public void deleteOrphanGroupsInContainer(String collectionName) {
+        collectionGroupRepository.deleteOrphanGroupsInContainer(collectionName);
+    }
+
     public LiveData<List<String>> getBooksInContainer(String containerName) {
         return collectionGroupRepository.getBookIdsInContainerLiveData(containerName);
     }
 
+    // Paged list of the displayed collection, cached in the ViewModel so it survives configuration
+    // changes and follows the collection when it is renamed
+    public LiveData<PagingData<BookListItem>> getSavedBooksInContainer() {
+        if (savedBooksInContainerPagingLiveData == null) {
+            LiveData<PagingData<BookListItem>> savedBooks = Transformations.switchMap(displayedContainerName,
+                    collectionGroupRepository::getBooksInContainerPagingLiveData);
+            savedBooksInContainerPagingLiveData = PagingLiveData.cachedIn(savedBooks,
+                    ViewModelKt.getViewModelScope(this));
+        }
+        return savedBooksInContainerPagingLiveData;
+    }
+
+    public void setDisplayedContainer(String containerName) {
+        if (!Objects.equals(containerName, displayedContainerName.getValue())) {
+            displayedContainerName.setValue(containerName);
+        }
+    }
+
+    public LiveData<List<BookListItem>> getSavedBooksNotInContainer(String containerName) {
+        return collectionGroupRepository.getSavedBooksNotInContainerLiveData(containerName);
+    }
+
     public LiveData<Integer> getNumberBooksInContainer(String containerName) {
         return collectionGroupRepository.getBooksInContainerCountLiveData(containerName);
     }
@@ -3,6 +3,9 @@ package com.example.bookmatch.ui.main;
 import java.util.Arrays;
 
 public class GenreMapping {
+    // Deck mixing several genres, its English name is the same in every language
+    public static final String MIX_GENRE = "Mix";
+
     private static final String[] ENGLISH_GENRES = {
             "Art",
             "Architecture",
@@ -26,7 +29,8 @@ public class GenreMapping {
             "Science",
             "Sports",
             "Technology",
-            "Travel"
+            "Travel",
+            MIX_GENRE
     };
 
     private static final String[] ITALIAN_GENRES = {
@@ -52,9 +56,16 @@ public class GenreMapping {
             "Scienza",
             "Sport",
             "Tecnologia",
-            "Viaggi"
+            "Viaggi",
+            "Mix di generi"
     };
 
+    // English name of a genre selected in either language, the queries and the taste profile use it
+    public static String resolveGenre(String selectedGenre) {
+        String englishGenre = getEnglishGenre(selectedGenre);
+        return englishGenre != null ? englishGenre : selectedGenre;
+    }
+
     public static String getEnglishGenre(String italianGenre) {
         int index = Arrays.asList(ITALIAN_GENRES).indexOf(italianGenre);
         if (index != -1 && index < ENGLISH_GENRES.length) {
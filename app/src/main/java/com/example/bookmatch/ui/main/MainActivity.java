@@ -1,6 +1,5 @@
 package com.example.bookmatch.ui.main;
 
-import android.database.CursorWindow;
 import android.os.Bundle;
 
 import com.example.bookmatch.R;
@@ -12,23 +11,12 @@ import androidx.navigation.ui.NavigationUI;
 
 import com.example.bookmatch.databinding.ActivityMainBinding;
 
-import java.lang.reflect.Field;
-
 public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
 
-        try {
-            Field field = CursorWindow.class.getDeclaredField("sCursorWindowSize");
-            field.setAccessible(true);
-            field.set(null, 100 * 1024 * 1024); // 100 MB
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-
         com.example.bookmatch.databinding.ActivityMainBinding binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
@@ -1,5 +1,7 @@
 package com.example.bookmatch.ui.main.account;
 
+import static com.example.bookmatch.utils.Constants.AUTHOR_SUGGESTIONS_LIMIT;
+
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
@@ -13,6 +15,7 @@ import androidx.lifecycle.ViewModelProvider;
 import com.example.bookmatch.R;
 import com.example.bookmatch.data.repository.user.IUserRepository;
 import com.example.bookmatch.databinding.ActivityPreferencesEditBinding;
+import com.example.bookmatch.model.AuthorBookCount;
 import com.example.bookmatch.model.Book;
 import com.example.bookmatch.model.UserPreferences;
 import com.example.bookmatch.ui.main.BookViewModel;
@@ -55,23 +58,29 @@ public class AccountPreferencesActivity extends AppCompatActivity {
         bookViewModel.getSavedBooksLiveData().observe(this, savedBooks -> {
             if (savedBooks != null && savedBooks.size() > 0) {
                 List<String> titles = new ArrayList<>();
-                List<String> authors = new ArrayList<>();
 
                 for (Book savedBook : savedBooks) {
                     titles.add(savedBook.getTitle());
-                    authors.addAll(savedBook.getAuthors());
                 }
 
                 ArrayAdapter<String> titleAdapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, titles);
-                ArrayAdapter<String> authorAdapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, authors);
-
                 binding.book.setAdapter(titleAdapter);
-                binding.author.setAdapter(authorAdapter);
             } else {
                 binding.menuAuthor.setError(getString(R.string.please_add_some_books_to_your_saved_list));
                 binding.menuBook.setError(getString(R.string.please_add_some_books_to_your_saved_list));
             }
         });
+
+        // Read from the author table, every name once
+        bookViewModel.getTopAuthorsLiveData(AUTHOR_SUGGESTIONS_LIMIT).observe(this, topAuthors -> {
+            List<String> authors = new ArrayList<>();
+            for (AuthorBookCount author : topAuthors) {
+                authors.add(author.getName());
+            }
+
+            ArrayAdapter<String> authorAdapter = new ArrayAdapter<>(this, android.R.layout.simple_dropdown_item_1line, authors);
+            binding.author.setAdapter(authorAdapter);
+        });
     }
 
 
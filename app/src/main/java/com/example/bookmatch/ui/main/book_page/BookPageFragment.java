@@ -2,6 +2,7 @@ package com.example.bookmatch.ui.main.book_page;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,6 +10,9 @@ import android.view.ViewGroup;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 
@@ -17,11 +21,11 @@ import com.example.bookmatch.R;
 
 import com.example.bookmatch.databinding.FragmentBookPageBinding;
 import com.example.bookmatch.model.Book;
+import com.example.bookmatch.ui.main.BookViewModel;
+import com.example.bookmatch.ui.main.BookViewModelFactory;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.Objects;
-
 
 public class BookPageFragment extends Fragment {
 
@@ -38,11 +42,34 @@ public class BookPageFragment extends Fragment {
     public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
 
+        binding.goBackButton.setOnClickListener(v -> {
+            NavController navController = Navigation.findNavController(v);
+            navController.navigateUp();
+        });
+
+        // Saved books are passed by id and loaded in background, explore cards are passed whole
         Bundle arguments = getArguments();
-        if (arguments != null) {
-            Book book = arguments.getParcelable("book");
+        String bookId = arguments != null ? arguments.getString("bookId") : null;
+        if (bookId != null) {
+            BookViewModelFactory factory = new BookViewModelFactory(requireActivity().getApplication());
+            BookViewModel bookViewModel = new ViewModelProvider(this, factory).get(BookViewModel.class);
+
+            LiveData<Book> bookLiveData = bookViewModel.getBookLiveData(bookId);
+            bookLiveData.observe(getViewLifecycleOwner(), new Observer<Book>() {
+                @Override
+                public void onChanged(Book book) {
+                    bookLiveData.removeObserver(this);
+                    showBook(book);
+                }
+            });
+        } else {
+            showBook(arguments != null ? arguments.getParcelable("book") : null);
+        }
+    }
 
-            binding.bookTitleAppbar.setText(Objects.requireNonNull(book).getTitle());
+    private void showBook(Book book) {
+        if (book != null) {
+            binding.bookTitleAppbar.setText(book.getTitle());
             binding.bookTitle.setText(book.getTitle());
             binding.authorTextView.setText(book.getAuthors().toString());
             binding.pubblicationYearTextView.setText(book.getPublicationYear());
@@ -50,11 +77,8 @@ public class BookPageFragment extends Fragment {
             if(book.getDescription() != null)
                 binding.plotTextView.setText(book.getDescription());
 
-            String authors = "";
-            for(String a: book.getAuthors())
-                authors += a + ", ";
-            authors = authors.substring(0, authors.length() - 2);
-            binding.authorTextView.setText(authors);
+            // books without authors decode to an empty list
+            binding.authorTextView.setText(TextUtils.join(", ", book.getAuthors()));
 
             if (book.getCoverURI() != null && !book.getCoverURI().isEmpty()) {
                 Glide.with(this)
@@ -89,11 +113,5 @@ public class BookPageFragment extends Fragment {
             snackbar.setAnchorView(bottomNavigationView);
             snackbar.show();
         }
-
-        binding.goBackButton.setOnClickListener(v -> {
-            NavController navController = Navigation.findNavController(v);
-            navController.navigateUp();
-        });
-
     }
 }
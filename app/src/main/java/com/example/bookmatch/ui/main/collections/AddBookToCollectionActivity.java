@@ -11,9 +11,7 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.bookmatch.R;
 import com.example.bookmatch.adapter.AddBookToCollectionRecyclerViewAdapter;
 import com.example.bookmatch.databinding.ActivityAddBookToCollectionBinding;
-import com.example.bookmatch.model.Book;
-import com.example.bookmatch.ui.main.BookViewModel;
-import com.example.bookmatch.ui.main.BookViewModelFactory;
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.ui.main.CollectionGroupViewModel;
 import com.example.bookmatch.ui.main.CollectionGroupViewModelFactory;
 
@@ -23,9 +21,8 @@ import java.util.List;
 public class AddBookToCollectionActivity extends AppCompatActivity {
 
     private ActivityAddBookToCollectionBinding binding;
-    private BookViewModel bookViewModel;
     private String collectionName;
-    private List<Book> selectedBooks = new ArrayList<>();
+    private List<BookListItem> selectedBooks = new ArrayList<>();
     private CollectionGroupViewModel collectionGroupViewModel;
 
     @Override
@@ -36,17 +33,11 @@ public class AddBookToCollectionActivity extends AppCompatActivity {
 
         setupViewModel();
         retrieveInfos();
-
-        // Retrieve the list of saved books from the intent extras
-        List<Book> savedBooksInContainer = getIntent().getParcelableArrayListExtra("savedBooksInContainer");
-
-        setupRecyclerView(savedBooksInContainer);
+        setupRecyclerView();
         setupClickListeners();
     }
 
     private void setupViewModel() {
-        BookViewModelFactory factory = new BookViewModelFactory(getApplication());
-        bookViewModel = new ViewModelProvider(this, factory).get(BookViewModel.class);
         CollectionGroupViewModelFactory factoryCollectionGroup = new CollectionGroupViewModelFactory(getApplication());
         collectionGroupViewModel = new ViewModelProvider(this, factoryCollectionGroup).get(CollectionGroupViewModel.class);
     }
@@ -58,25 +49,24 @@ public class AddBookToCollectionActivity extends AppCompatActivity {
         }
     }
 
-    private void setupRecyclerView(List<Book> savedBooksInContainer) {
+    private void setupRecyclerView() {
         LinearLayoutManager linearLayoutManager = new LinearLayoutManager(this);
         binding.recyclerViewAddBookToCollection.setLayoutManager(linearLayoutManager);
 
-        observeSavedBooks(savedBooksInContainer);
+        observeSavedBooks();
     }
 
-    private void observeSavedBooks(List<Book> savedBooksInContainer) {
-        LiveData<List<Book>> savedBooksLiveData = bookViewModel.getSavedBooksLiveData();
+    private void observeSavedBooks() {
+        LiveData<List<BookListItem>> savedBooksLiveData = collectionGroupViewModel.getSavedBooksNotInContainer(collectionName);
         savedBooksLiveData.observe(this, savedBooks -> {
             savedBooksLiveData.removeObservers(this);
 
-            List<Book> filteredBooks = new ArrayList<>(savedBooks);
-            filteredBooks.removeAll(savedBooksInContainer);
+            List<BookListItem> filteredBooks = new ArrayList<>(savedBooks);
 
             AddBookToCollectionRecyclerViewAdapter recyclerViewAdapter = new AddBookToCollectionRecyclerViewAdapter(
                     filteredBooks, new AddBookToCollectionRecyclerViewAdapter.OnBookSelectedListener() {
                 @Override
-                public void onBookSelected(Book book, String action) {
+                public void onBookSelected(BookListItem book, String action) {
                     if (action.equals("remove")) {
                         selectedBooks.remove(book);
                     } else if (action.equals("add")) {
@@ -92,9 +82,7 @@ public class AddBookToCollectionActivity extends AppCompatActivity {
         binding.goBackButton.setOnClickListener(v -> finish());
 
         binding.addBooks.setOnClickListener(v -> {
-            for (Book book : selectedBooks) {
-                collectionGroupViewModel.insertInCollection(collectionName, book);
-            }
+            collectionGroupViewModel.insertInCollection(collectionName, selectedBooks);
 
             setResult(RESULT_OK);
             finish();
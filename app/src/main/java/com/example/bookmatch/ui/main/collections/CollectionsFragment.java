@@ -24,7 +24,6 @@ import com.example.bookmatch.ui.main.CollectionContainerViewModelFactory;
 import com.example.bookmatch.ui.main.CollectionGroupViewModel;
 import com.example.bookmatch.ui.main.CollectionGroupViewModelFactory;
 
-import java.util.ArrayList;
 import java.util.Objects;
 
 public class CollectionsFragment extends Fragment {
@@ -42,9 +41,11 @@ public class CollectionsFragment extends Fragment {
                     Intent data = result.getData();
                     String name = data.getStringExtra("collectionName");
                     String description = data.getStringExtra("collectionDescription");
-                    byte[] imageData = data.getByteArrayExtra("collectionImageData");
+                    String imagePath = data.getStringExtra("collectionImagePath");
+                    String imageHash = data.getStringExtra("collectionImageHash");
 
-                    CollectionContainer newCollection = new CollectionContainer(Objects.requireNonNull(name), description, imageData);
+                    CollectionContainer newCollection = new CollectionContainer(Objects.requireNonNull(name), description,
+                            imagePath, imageHash);
                     collectionViewModel.insertCollection(newCollection);
 
                     Toast.makeText(getActivity(), "CollectionContainer added successfully", Toast.LENGTH_SHORT).show();
@@ -83,7 +84,7 @@ public class CollectionsFragment extends Fragment {
     }
 
     private void setupRecyclerView() {
-        adapter = new CollectionContainersRecyclerViewAdapter(new ArrayList<>(),
+        adapter = new CollectionContainersRecyclerViewAdapter(
                 new CollectionContainersRecyclerViewAdapter.OnCollectionClickListener() {
                     @Override
                     public void onItemClick(CollectionContainer collection) {
@@ -1,7 +1,5 @@
 package com.example.bookmatch.ui.main.collections;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 
 import androidx.activity.result.ActivityResultLauncher;
@@ -10,15 +8,14 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.bookmatch.R;
+import com.example.bookmatch.data.storage.CollectionImageStore;
 import com.example.bookmatch.databinding.ActivityCreateCollectionBinding;
 import com.example.bookmatch.model.CollectionContainer;
 import com.example.bookmatch.ui.main.CollectionContainerViewModel;
 import com.example.bookmatch.ui.main.CollectionContainerViewModelFactory;
-import com.example.bookmatch.utils.Converters;
+import com.example.bookmatch.utils.CollectionCoverLoader;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.io.IOException;
-import java.io.InputStream;
 import java.util.Objects;
 
 public class CreateCollectionActivity extends AppCompatActivity {
@@ -26,7 +23,7 @@ public class CreateCollectionActivity extends AppCompatActivity {
     private ActivityCreateCollectionBinding binding;
     private CollectionContainerViewModel collectionViewModel;
     private ActivityResultLauncher<String> galleryLauncher;
-    private byte[] selectedImageData;
+    private CollectionImageStore.StoredImage selectedImage;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,7 +42,9 @@ public class CreateCollectionActivity extends AppCompatActivity {
             String collectionDescription = Objects.requireNonNull(binding.collectionDescriptionInput.getText()).toString().trim();
 
             if (validateInput(collectionName, collectionDescription)) {
-                CollectionContainer collection = new CollectionContainer(collectionName, collectionDescription, selectedImageData);
+                CollectionContainer collection = new CollectionContainer(collectionName, collectionDescription,
+                        selectedImage != null ? selectedImage.getPath() : null,
+                        selectedImage != null ? selectedImage.getHash() : null);
                 if (!collectionViewModel.insertCollection(collection)) {
                     Snackbar.make(view, "CollectionContainer with this name already existing!", Snackbar.LENGTH_SHORT).show();
                 }
@@ -80,21 +79,24 @@ public class CreateCollectionActivity extends AppCompatActivity {
     private void galleryLauncher() {
         galleryLauncher = registerForActivityResult(new ActivityResultContracts.GetContent(),
             result -> {
-                try {
-                    InputStream inputStream = getContentResolver().openInputStream(result);
-                    Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-                    byte[] imageData = Converters.fromBitmap(bitmap);
-                    loadImageIntoCollection(imageData);
-                } catch (IOException e) {
-                    e.printStackTrace();
+                if (result == null) {
+                    return;
                 }
+                // The picture is downscaled and written to the image store in the background
+                collectionViewModel.importCollectionImage(result).observe(this, storedImage -> {
+                    if (storedImage != null) {
+                        loadImageIntoCollection(storedImage);
+                    } else {
+                        Snackbar.make(binding.getRoot(), R.string.error_image_not_loaded, Snackbar.LENGTH_SHORT).show();
+                    }
+                });
             });
     }
 
-    private void loadImageIntoCollection(byte[] imageData) {
-        Bitmap bitmap = Converters.toBitmap(imageData);
-        binding.collectionImage.setImageBitmap(bitmap);
-        selectedImageData = imageData;
+    private void loadImageIntoCollection(CollectionImageStore.StoredImage storedImage) {
+        CollectionCoverLoader.getInstance().load(binding.collectionImage, storedImage.getPath(),
+                storedImage.getHash(), R.drawable.library);
+        selectedImage = storedImage;
     }
 
     private void changePic() {
@@ -7,39 +7,24 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
-import androidx.lifecycle.LiveData;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.bookmatch.R;
 import com.example.bookmatch.adapter.CollectionGroupsRecyclerViewAdapter;
 import com.example.bookmatch.databinding.ActivityDisplayCollectionBinding;
-import com.example.bookmatch.model.Book;
-import com.example.bookmatch.ui.main.BookViewModel;
-import com.example.bookmatch.ui.main.BookViewModelFactory;
 import com.example.bookmatch.ui.main.CollectionGroupViewModel;
 import com.example.bookmatch.ui.main.CollectionGroupViewModelFactory;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.ArrayList;
-import java.util.List;
-
 public class DisplayCollectionActivity extends AppCompatActivity {
     private ActivityDisplayCollectionBinding binding;
 
     private CollectionGroupViewModel collectionGroupViewModel;
-    private BookViewModel bookViewModel;
+    private CollectionGroupsRecyclerViewAdapter recyclerViewAdapter;
 
     String collectionName;
 
-    ActivityResultLauncher<Intent> addBookToCollectionLauncher = registerForActivityResult(
-            new ActivityResultContracts.StartActivityForResult(),
-            result -> {
-                if (result.getResultCode() == RESULT_OK) {
-                    observeSavedBooks();
-                }
-            });
-
     ActivityResultLauncher<Intent> editCollectionLauncher = registerForActivityResult(
             new ActivityResultContracts.StartActivityForResult(),
             result -> {
@@ -57,6 +42,7 @@ public class DisplayCollectionActivity extends AppCompatActivity {
                                 if(newCollectionName != null) {
                                     collectionName = newCollectionName;
                                     binding.topAppBar.setTitle(collectionName);
+                                    displayCollection();
                                 }
                             }
                         } else {
@@ -81,9 +67,6 @@ public class DisplayCollectionActivity extends AppCompatActivity {
     private void setupViewModel() {
         CollectionGroupViewModelFactory factory = new CollectionGroupViewModelFactory(getApplication());
         collectionGroupViewModel = new ViewModelProvider(this, factory).get(CollectionGroupViewModel.class);
-
-        BookViewModelFactory factoryBook = new BookViewModelFactory(getApplication());
-        bookViewModel = new ViewModelProvider(this, factoryBook).get(BookViewModel.class);
     }
 
     private void retrieveInfo() {
@@ -101,56 +84,38 @@ public class DisplayCollectionActivity extends AppCompatActivity {
         LinearLayoutManager linearLayoutManager = new LinearLayoutManager(this);
         binding.recyclerViewDisplayCollectionBooks.setLayoutManager(linearLayoutManager);
 
-        observeSavedBooks();
-    }
-
-    private void observeSavedBooks() {
-        LiveData<List<String>> savedGroupOfBooksLiveData = collectionGroupViewModel.getBooksInContainer(collectionName);
-        savedGroupOfBooksLiveData.observe(this, savedBookIds -> {
-            savedGroupOfBooksLiveData.removeObservers(this);
-
-            for (String bookId : savedBookIds) {
-                LiveData<Boolean> isBookSavedLiveData = bookViewModel.isBookSavedLiveData(bookId);
-                isBookSavedLiveData.observe(this, isBookSaved -> {
-                    if (!isBookSaved) {
-                        collectionGroupViewModel.deleteCollectionGroup(collectionName, bookId);
-                    }
-                });
+        recyclerViewAdapter = new CollectionGroupsRecyclerViewAdapter(
+                new CollectionGroupsRecyclerViewAdapter.OnBookSelectedListener() {
+            @Override
+            public void onBookSelected(String bookId, String action) {
+                if (action.equals("remove")) {
+                    collectionGroupViewModel.deleteCollectionGroup(collectionName, bookId);
+                } else if (action.equals("add")) {
+                    collectionGroupViewModel.insertInCollection(collectionName, bookId);
+                }
             }
+        });
+        binding.recyclerViewDisplayCollectionBooks.setAdapter(recyclerViewAdapter);
 
-            List<Book> booksSavedInCollection = bookViewModel.getBooksByIds(savedBookIds);
+        // Observed once, the ViewModel switches the list when the collection is renamed
+        collectionGroupViewModel.getSavedBooksInContainer().observe(this, booksSavedInCollection ->
+                recyclerViewAdapter.submitData(getLifecycle(), booksSavedInCollection));
+        displayCollection();
+    }
 
-            CollectionGroupsRecyclerViewAdapter recyclerViewAdapter = new CollectionGroupsRecyclerViewAdapter(
-                    booksSavedInCollection, new CollectionGroupsRecyclerViewAdapter.OnBookSelectedListener() {
-                @Override
-                public void onBookSelected(String bookId, String action) {
-                    if (action.equals("remove")) {
-                        collectionGroupViewModel.deleteCollectionGroup(collectionName, bookId);
-                    } else if (action.equals("add")) {
-                        collectionGroupViewModel.insertInCollection(collectionName, bookId);
-                    }
-                }
-            });
-            binding.recyclerViewDisplayCollectionBooks.setAdapter(recyclerViewAdapter);
-        });
+    private void displayCollection() {
+        collectionGroupViewModel.deleteOrphanGroupsInContainer(collectionName);
+        collectionGroupViewModel.setDisplayedContainer(collectionName);
     }
 
     private void setupClickListeners() {
         binding.topAppBar.setOnClickListener(v -> finish());
         binding.topAppBar.setOnMenuItemClickListener(item -> {
             if (item.getItemId() == R.id.add_books_to_collection) {
-                LiveData<List<String>> savedGroupOfBooksLiveData = collectionGroupViewModel.getBooksInContainer(collectionName);
-                savedGroupOfBooksLiveData.observe(this, savedBookIds-> {
-                    savedGroupOfBooksLiveData.removeObservers(this);
-
-                    List<Book> booksSavedInCollection = bookViewModel.getBooksByIds(savedBookIds);
-
-                    Intent intent = new Intent(this, AddBookToCollectionActivity.class);
-                    intent.putExtra("collectionName", collectionName);
-                    intent.putParcelableArrayListExtra("savedBooksInContainer", new ArrayList<>(booksSavedInCollection));
-
-                    addBookToCollectionLauncher.launch(intent);
-                });
+                // The list of the collection is observed, it refreshes by itself once books are added
+                Intent intent = new Intent(this, AddBookToCollectionActivity.class);
+                intent.putExtra("collectionName", collectionName);
+                startActivity(intent);
                 return true;
             }
             if(item.getItemId() == R.id.edit_collection){
@@ -1,35 +1,27 @@
 package com.example.bookmatch.ui.main.collections;
 
 import android.content.Intent;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
 import android.os.Bundle;
 
 import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.bookmatch.R;
+import com.example.bookmatch.data.storage.CollectionImageStore;
 import com.example.bookmatch.databinding.ActivityEditCollectionBinding;
 import com.example.bookmatch.model.CollectionContainer;
 import com.example.bookmatch.ui.main.CollectionContainerViewModel;
 import com.example.bookmatch.ui.main.CollectionContainerViewModelFactory;
 import com.example.bookmatch.ui.main.CollectionGroupViewModel;
 import com.example.bookmatch.ui.main.CollectionGroupViewModelFactory;
-import com.example.bookmatch.utils.Converters;
+import com.example.bookmatch.utils.CollectionCoverLoader;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Arrays;
 import java.util.Objects;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 public class EditCollectionActivity extends AppCompatActivity {
 
@@ -39,7 +31,7 @@ public class EditCollectionActivity extends AppCompatActivity {
     private CollectionGroupViewModel groupViewModel;
 
     private ActivityResultLauncher<String> galleryLauncher;
-    private byte[] selectedImageData;
+    private CollectionImageStore.StoredImage selectedImage;
     private CollectionContainer pastCollectionContainer;
 
     @Override
@@ -64,7 +56,8 @@ public class EditCollectionActivity extends AppCompatActivity {
             LiveData<CollectionContainer> pastCollectionContainerLiveData = collectionViewModel.getCollectionByNameLiveData(collectionName);
             pastCollectionContainerLiveData.observe(this, pastCollectionContainer -> {
                 if (pastCollectionContainer != null) {
-                    loadImageIntoCollection(pastCollectionContainer.getImageData());
+                    CollectionCoverLoader.getInstance().load(binding.collectionImage, pastCollectionContainer.getImagePath(),
+                            pastCollectionContainer.getImageHash(), R.drawable.library);
                     binding.collectionEditNameInput.setText(pastCollectionContainer.getName());
                     binding.collectionEditDescriptionInput.setText(pastCollectionContainer.getDescription());
 
@@ -82,60 +75,62 @@ public class EditCollectionActivity extends AppCompatActivity {
             Intent resultIntent = new Intent();
 
             if (validateInput(collectionName, collectionDescription)) {
-                boolean hasChanges = false;
-                String updatedName = pastCollectionContainer.getName();
-
                 if (!pastCollectionContainer.getName().equals(collectionName)) {
-                    updatedName = collectionName;
-                    ExecutorService executor = Executors.newSingleThreadExecutor();
-                    Future<Boolean> future = executor.submit(new Callable<Boolean>() {
+                    // the name check is answered by Room on a background thread
+                    binding.editCollectionButton.setEnabled(false);
+                    LiveData<Boolean> existsLiveData = collectionViewModel.collectionContainerExistsLiveData(collectionName);
+                    existsLiveData.observe(this, new Observer<Boolean>() {
                         @Override
-                        public Boolean call() throws Exception {
-                            return collectionViewModel.collectionContainerExists(collectionName);
+                        public void onChanged(Boolean exists) {
+                            existsLiveData.removeObserver(this);
+                            if (Boolean.TRUE.equals(exists)) {
+                                resultIntent.putExtra("changes", true);
+                                resultIntent.putExtra("collectionNameExists", true);
+                                setResult(RESULT_OK, resultIntent);
+                                finish();
+                            } else {
+                                saveChanges(collectionName, collectionDescription, resultIntent);
+                            }
                         }
                     });
-
-                    try {
-                        Boolean checkCollectionContainerExists = future.get();
-                        if (!checkCollectionContainerExists) {
-                            collectionViewModel.updateCollectionName(collectionName, pastCollectionContainer.getName());
-                            groupViewModel.updateContainerName(pastCollectionContainer.getName(), collectionName);
-                            hasChanges = true;
-                            resultIntent.putExtra("newCollectionName", collectionName);
-                        } else {
-                            resultIntent.putExtra("changes", true);
-                            resultIntent.putExtra("collectionNameExists", true);
-                            setResult(RESULT_OK, resultIntent);
-                            finish();
-                        }
-                    } catch (InterruptedException | ExecutionException e) {
-                        e.printStackTrace();
-                    } finally {
-                        executor.shutdown();
-                    }
+                } else {
+                    saveChanges(collectionName, collectionDescription, resultIntent);
                 }
+            }
+        });
 
-                if (!pastCollectionContainer.getDescription().equals(collectionDescription)) {
-                    collectionViewModel.updateCollectionDescription(updatedName, collectionDescription);
-                    hasChanges = true;
-                }
 
-                if (!Arrays.equals(pastCollectionContainer.getImageData(), selectedImageData)) {
-                    collectionViewModel.updateCollectionImage(updatedName, selectedImageData);
-                    hasChanges = true;
-                }
+        binding.goBackButton.setOnClickListener(view -> finish());
+    }
 
-                if (hasChanges) {
-                    resultIntent.putExtra("changes", true);
-                }
+    private void saveChanges(String collectionName, String collectionDescription, Intent resultIntent) {
+        boolean hasChanges = false;
+        String updatedName = pastCollectionContainer.getName();
 
-                setResult(RESULT_OK, resultIntent);
-                finish();
-            }
-        });
+        if (!pastCollectionContainer.getName().equals(collectionName)) {
+            updatedName = collectionName;
+            collectionViewModel.updateCollectionName(collectionName, pastCollectionContainer.getName());
+            groupViewModel.updateContainerName(pastCollectionContainer.getName(), collectionName);
+            hasChanges = true;
+            resultIntent.putExtra("newCollectionName", collectionName);
+        }
 
+        if (!pastCollectionContainer.getDescription().equals(collectionDescription)) {
+            collectionViewModel.updateCollectionDescription(updatedName, collectionDescription);
+            hasChanges = true;
+        }
 
-        binding.goBackButton.setOnClickListener(view -> finish());
+        if (selectedImage != null && !selectedImage.getHash().equals(pastCollectionContainer.getImageHash())) {
+            collectionViewModel.updateCollectionImage(updatedName, selectedImage);
+            hasChanges = true;
+        }
+
+        if (hasChanges) {
+            resultIntent.putExtra("changes", true);
+        }
+
+        setResult(RESULT_OK, resultIntent);
+        finish();
     }
 
     private boolean validateInput(String name, String description) {
@@ -161,21 +156,24 @@ public class EditCollectionActivity extends AppCompatActivity {
     private void galleryLauncher() {
         galleryLauncher = registerForActivityResult(new ActivityResultContracts.GetContent(),
                 result -> {
-                    try {
-                        InputStream inputStream = getContentResolver().openInputStream(result);
-                        Bitmap bitmap = BitmapFactory.decodeStream(inputStream);
-                        byte[] imageData = Converters.fromBitmap(bitmap);
-                        loadImageIntoCollection(imageData);
-                    } catch (IOException e) {
-                        e.printStackTrace();
+                    if (result == null) {
+                        return;
                     }
+                    // The picture is downscaled and written to the image store in the background
+                    collectionViewModel.importCollectionImage(result).observe(this, storedImage -> {
+                        if (storedImage != null) {
+                            loadImageIntoCollection(storedImage);
+                        } else {
+                            Snackbar.make(binding.getRoot(), R.string.error_image_not_loaded, Snackbar.LENGTH_SHORT).show();
+                        }
+                    });
                 });
     }
 
-    private void loadImageIntoCollection(byte[] imageData) {
-        Bitmap bitmap = Converters.toBitmap(imageData);
-        binding.collectionImage.setImageBitmap(bitmap);
-        selectedImageData = imageData;
+    private void loadImageIntoCollection(CollectionImageStore.StoredImage storedImage) {
+        CollectionCoverLoader.getInstance().load(binding.collectionImage, storedImage.getPath(),
+                storedImage.getHash(), R.drawable.library);
+        selectedImage = storedImage;
     }
 
     private void changePic() {
@@ -1,8 +1,6 @@
 package com.example.bookmatch.ui.main.explore;
 
-import static com.example.bookmatch.utils.Constants.LAST_UPDATE_PREF;
-import static com.example.bookmatch.utils.Constants.SAVE_INTERVAL;
-import static com.example.bookmatch.utils.Constants.SHARED_PREF_NAME;
+import static com.example.bookmatch.utils.Constants.DECK_DEAL_THRESHOLD;
 
 import android.os.Bundle;
 import android.text.Editable;
@@ -21,14 +19,20 @@ import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 
+import com.bumptech.glide.Glide;
 import com.example.bookmatch.R;
 import com.example.bookmatch.adapter.CardStackAdapter;
+import com.example.bookmatch.data.repository.user.IUserRepository;
 import com.example.bookmatch.databinding.FragmentExploreBinding;
 import com.example.bookmatch.model.Book;
 import com.example.bookmatch.model.Result;
+import com.example.bookmatch.model.UserPreferences;
 import com.example.bookmatch.ui.main.BookViewModel;
 import com.example.bookmatch.ui.main.BookViewModelFactory;
-import com.example.bookmatch.utils.SharedPreferencesUtil;
+import com.example.bookmatch.ui.welcome.UserViewModel;
+import com.example.bookmatch.ui.welcome.UserViewModelFactory;
+import com.example.bookmatch.utils.CoverPrefetcher;
+import com.example.bookmatch.utils.ServiceLocator;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.android.material.snackbar.Snackbar;
@@ -49,9 +53,9 @@ public class ExploreFragment extends Fragment implements CardStackListener {
     private CardStackView cardStackView;
     private CardStackLayoutManager cardStackManager;
     private CardStackAdapter cardStackAdapter;
+    private CoverPrefetcher coverPrefetcher;
     private BookViewModel bookViewModel;
-    SharedPreferencesUtil sharedPreferencesUtil;
-    private long lastUpdate;
+    private UserViewModel userViewModel;
 
     public View onCreateView(@NonNull LayoutInflater inflater,
                              ViewGroup container, Bundle savedInstanceState) {
@@ -59,17 +63,24 @@ public class ExploreFragment extends Fragment implements CardStackListener {
 
         BookViewModelFactory factory = new BookViewModelFactory(requireActivity().getApplication());
         bookViewModel = new ViewModelProvider(this, factory).get(BookViewModel.class);
-        bookViewModel.setStartIndex(0);
 
-        sharedPreferencesUtil = new SharedPreferencesUtil(getContext());
-        lastUpdate = sharedPreferencesUtil.readLongDataSharedPreferences(SHARED_PREF_NAME, LAST_UPDATE_PREF);
+        IUserRepository userRepository = ServiceLocator.getInstance().getUserRepository(requireActivity().getApplication());
+        userViewModel = new ViewModelProvider(requireActivity(), new UserViewModelFactory(userRepository)).get(UserViewModel.class);
 
         return binding.getRoot();
     }
 
+    // The saved list is usually the next screen, it must show the last swipes
+    @Override
+    public void onStop() {
+        super.onStop();
+        bookViewModel.flushSwipes();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        coverPrefetcher.cancel();
         binding = null;
     }
 
@@ -86,7 +97,8 @@ public class ExploreFragment extends Fragment implements CardStackListener {
 
         cardStackView = binding.cardStackView;
         cardStackManager = new CardStackLayoutManager(getContext(), this);
-        cardStackAdapter = new CardStackAdapter(book -> {
+        coverPrefetcher = new CoverPrefetcher(Glide.with(this));
+        cardStackAdapter = new CardStackAdapter(coverPrefetcher, book -> {
             Bundle args = new Bundle();
             args.putParcelable("book", book);
 
@@ -127,25 +139,26 @@ public class ExploreFragment extends Fragment implements CardStackListener {
                 ArrayList<Book> books = ((Result.BooksResponseSuccess)result).getBooks();
                 if (books != null) {
                     cardStackAdapter.addBooks(books);
-
-                    long currentTime = System.currentTimeMillis();
-                    if(currentTime - lastUpdate > SAVE_INTERVAL){
-                        bookViewModel.saveMockBooks(books);
-
-                        lastUpdate = System.currentTimeMillis();
-
-                        //Saving last update in preferences
-                        sharedPreferencesUtil.writeLongDataSharedPreferences(SHARED_PREF_NAME, LAST_UPDATE_PREF, lastUpdate);
+                    // An empty hand means the genre has no unseen books left
+                    if (books.isEmpty()) {
+                        binding.noMoreBooks.setVisibility(View.VISIBLE);
                     }
                 }
             }else{
+                // The ViewModel deals the offline cards of the genre, if any
                 String message = ((Result.Error)result).getMessage();
-                ArrayList<Book> books = bookViewModel.getMockBooks();
-                cardStackAdapter.addBooks(books);
                 showSnackBar(message);
             }
         });
 
+        // The preferences of the account weigh in the order of the cards
+        userViewModel.getPreferences().observe(getViewLifecycleOwner(), result -> {
+            if (result.isSuccess()) {
+                UserPreferences preferences = ((Result.PreferencesResponseSuccess) result).getUserPreference();
+                bookViewModel.setUserPreferences(preferences);
+            }
+        });
+
         // Restore view
         if (savedInstanceState != null) {
             binding.genre.setText(savedInstanceState.getString(GENRE_KEY));
@@ -160,6 +173,7 @@ public class ExploreFragment extends Fragment implements CardStackListener {
 
     @Override
     public void onCardSwiped(@NonNull Direction direction) {
+        bookViewModel.onCardSwiped();
         int position = cardStackManager.getTopPosition() - 1;
         Book currentBook = cardStackAdapter.getBook(position);
         FloatingActionButton likeButton = binding.likeButton;
@@ -213,10 +227,12 @@ public class ExploreFragment extends Fragment implements CardStackListener {
 
     @Override
     public void onCardDisappeared(@NonNull View view, int position) {
+        cardStackAdapter.setTopPosition(cardStackManager.getTopPosition());
 
-        if(cardStackManager.getTopPosition() == cardStackAdapter.getItemCount() - 5) {
-            String genre = String.valueOf(binding.genre.getText());
-            bookViewModel.fetchBooks(genre);
+        // Cards are dealt from the view model deck, which is refilled in background
+        int remainingCards = cardStackAdapter.getItemCount() - cardStackManager.getTopPosition();
+        if(remainingCards <= DECK_DEAL_THRESHOLD) {
+            bookViewModel.dealCards();
         }
         if(cardStackManager.getTopPosition() == cardStackAdapter.getItemCount() - 1) {
             binding.noMoreBooks.setVisibility(View.VISIBLE);
@@ -3,11 +3,14 @@ package com.example.bookmatch.ui.main.reviews;
 import android.app.Activity;
 import android.content.Intent;
 import android.os.Bundle;
+import android.text.TextUtils;
 import android.util.Log;
 import android.widget.Toast;
 
 import androidx.annotation.Nullable;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Observer;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.bumptech.glide.Glide;
@@ -44,14 +47,36 @@ public class AddReviewActivity extends AppCompatActivity {
          bookViewModel = new ViewModelProvider(this, factory).get(BookViewModel.class);
     }
 
+    // Only the id is passed by the reviews list, the full book is loaded here
     private void retrieveInfo() {
-        book = getIntent().getParcelableExtra("book");
+        binding.goBackButton.setOnClickListener(v -> finish());
+        binding.addReviewButton.setEnabled(false);
+
+        String bookId = getIntent().getStringExtra("bookId");
+        if (bookId == null) {
+            Toast.makeText(this, R.string.book_details_not_available, Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        LiveData<Book> bookLiveData = bookViewModel.getBookLiveData(bookId);
+        bookLiveData.observe(this, new Observer<Book>() {
+            @Override
+            public void onChanged(Book loadedBook) {
+                bookLiveData.removeObserver(this);
+                showBook(loadedBook);
+            }
+        });
+    }
+
+    private void showBook(Book loadedBook) {
+        book = loadedBook;
         Log.d(TAG, "Book: " + book);
         if (book != null) {
+            binding.addReviewButton.setEnabled(true);
             binding.bookTitleAppbar.setText(book.getTitle());
             binding.bookTitle.setText(book.getTitle());
 
-            String authors = String.join(", ", book.getAuthors());
+            String authors = TextUtils.join(", ", book.getAuthors());
             binding.authorTextView.setText(authors);
 
             binding.pubblicationYearTextView.setText(book.getPublicationYear());
@@ -80,8 +105,6 @@ public class AddReviewActivity extends AppCompatActivity {
         } else {
             Toast.makeText(this, R.string.book_details_not_available, Toast.LENGTH_SHORT).show();
         }
-
-        binding.goBackButton.setOnClickListener(v -> finish());
     }
 
     private void setupSaveButton() {
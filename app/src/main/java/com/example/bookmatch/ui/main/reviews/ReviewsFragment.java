@@ -13,19 +13,18 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.bookmatch.R;
 import com.example.bookmatch.adapter.ReviewsRecyclerViewAdapter;
 import com.example.bookmatch.databinding.FragmentReviewsBinding;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.ReviewListItem;
 import com.example.bookmatch.ui.main.BookViewModel;
 import com.example.bookmatch.ui.main.BookViewModelFactory;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.snackbar.Snackbar;
 
-import java.util.List;
-
 public class ReviewsFragment extends Fragment {
 
     private FragmentReviewsBinding binding;
@@ -58,7 +57,7 @@ public class ReviewsFragment extends Fragment {
         binding.recyclerViewReviews.setLayoutManager(linearLayoutManager);
         binding.recyclerViewReviews.setAdapter(recyclerViewAdapter);
 
-        bookViewModel.getReviewedBooksLiveData().observe(getViewLifecycleOwner(), this::updateReviewedBooksList);
+        bookViewModel.getReviewedBooksPagingLiveData().observe(getViewLifecycleOwner(), this::updateReviewedBooksList);
 
         editReviewLauncher = registerForActivityResult(new ActivityResultContracts.StartActivityForResult(),
                 result -> {
@@ -71,8 +70,8 @@ public class ReviewsFragment extends Fragment {
                 });
     }
 
-    private void updateReviewedBooksList(List<Book> savedBooks) {
-        recyclerViewAdapter.setBooks(savedBooks);
+    private void updateReviewedBooksList(PagingData<ReviewListItem> reviewedBooks) {
+        recyclerViewAdapter.submitData(getViewLifecycleOwner().getLifecycle(), reviewedBooks);
     }
 
     @Override
@@ -85,24 +84,19 @@ public class ReviewsFragment extends Fragment {
         return new ReviewsRecyclerViewAdapter.OnItemClickListener() {
             @Override
             public void onDeleteButtonClick(int position) {
-                final Book removedBook = recyclerViewAdapter.removeBook(position);
-                recyclerViewAdapter.notifyItemRemoved(position);
+                // The row is removed by the paged list once the database has been updated
+                final ReviewListItem removedBook = recyclerViewAdapter.getBook(position);
 
                 BookViewModel bookViewModel = new BookViewModel(requireActivity().getApplication());
-                removedBook.setReviewed(false);
-                bookViewModel.updateBook(removedBook);
+                bookViewModel.setReviewed(removedBook.getId(), false);
 
                 if (isAdded()) {
                     View view = getView();
                     if (view != null) {
                         Snackbar snackbar = Snackbar.make(view, removedBook.getTitle() + getString(R.string.removed_from_reviews), Snackbar.LENGTH_SHORT);
                         snackbar.setAnchorView(bottomNavigationView);
-                        snackbar.setAction(R.string.undo, v -> {
-                            removedBook.setReviewed(true);
-                            bookViewModel.updateBook(removedBook);
-                            recyclerViewAdapter.addBook(position, removedBook);
-                            recyclerViewAdapter.notifyItemInserted(position);
-                        });
+                        snackbar.setAction(R.string.undo, v ->
+                                bookViewModel.setReviewed(removedBook.getId(), true));
                         snackbar.show();
                     }
                 }
@@ -110,9 +104,9 @@ public class ReviewsFragment extends Fragment {
 
             @Override
             public void onEditButtonClick(int position) {
-                final Book book = recyclerViewAdapter.getBook(position);
+                final ReviewListItem book = recyclerViewAdapter.getBook(position);
                 Intent intent = new Intent(view.getContext(), AddReviewActivity.class);
-                intent.putExtra("book", book);
+                intent.putExtra("bookId", book.getId());
                 editReviewLauncher.launch(intent);
             }
         };
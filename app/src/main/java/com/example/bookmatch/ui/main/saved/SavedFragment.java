@@ -9,8 +9,10 @@ import android.widget.ImageButton;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.appcompat.widget.SearchView;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.PagingData;
 import androidx.navigation.NavController;
 import androidx.navigation.Navigation;
 import androidx.recyclerview.widget.LinearLayoutManager;
@@ -19,14 +21,13 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import com.example.bookmatch.R;
 import com.example.bookmatch.adapter.SavedRecyclerViewAdapter;
 import com.example.bookmatch.databinding.FragmentSavedBinding;
-import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
 import com.example.bookmatch.ui.main.BookViewModel;
 import com.example.bookmatch.ui.main.BookViewModelFactory;
 import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.snackbar.Snackbar;
 
 import java.util.ArrayList;
-import java.util.List;
 
 
 public class SavedFragment extends Fragment {
@@ -62,11 +63,27 @@ public class SavedFragment extends Fragment {
         binding.recyclerViewSaved.setLayoutManager(linearLayoutManager);
         binding.recyclerViewSaved.setAdapter(recyclerViewAdapter);
 
-        bookViewModel.getSavedBooksLiveData().observe(getViewLifecycleOwner(), this::updateSavedBooksList);
+        binding.searchSaved.setOnQueryTextListener(new SearchView.OnQueryTextListener() {
+            @Override
+            public boolean onQueryTextSubmit(String query) {
+                bookViewModel.setSavedBooksQuery(query);
+                binding.searchSaved.clearFocus();
+                return true;
+            }
+
+            // The full text index answers every keystroke, no need to wait for submit
+            @Override
+            public boolean onQueryTextChange(String newText) {
+                bookViewModel.setSavedBooksQuery(newText);
+                return true;
+            }
+        });
+
+        bookViewModel.getSavedBooksPagingLiveData().observe(getViewLifecycleOwner(), this::updateSavedBooksList);
     }
 
-    private void updateSavedBooksList(List<Book> savedBooks) {
-        recyclerViewAdapter.setBooks(savedBooks);
+    private void updateSavedBooksList(PagingData<BookListItem> savedBooks) {
+        recyclerViewAdapter.submitData(getViewLifecycleOwner().getLifecycle(), savedBooks);
     }
 
     @Override
@@ -79,9 +96,10 @@ public class SavedFragment extends Fragment {
 
         return new SavedRecyclerViewAdapter.OnItemClickListener() {
             @Override
-            public void onItemClick(Book book) {
+            public void onItemClick(BookListItem book) {
+                // The book page loads the full row by itself
                 Bundle args = new Bundle();
-                args.putParcelable("book", book);
+                args.putString("bookId", book.getId());
 
                 NavController navController = Navigation.findNavController(view);
                 navController.navigate(R.id.action_navigation_saved_to_navigation_book, args);
@@ -89,11 +107,11 @@ public class SavedFragment extends Fragment {
 
             @Override
             public void onDeleteButtonClick(int position) {
-                final Book removedBook = recyclerViewAdapter.removeBook(position);
-                recyclerViewAdapter.notifyItemRemoved(position);
+                // The row is removed by the paged list once the database has been updated
+                final BookListItem removedBook = recyclerViewAdapter.getBook(position);
 
                 BookViewModel bookViewModel = new BookViewModel(requireActivity().getApplication());
-                bookViewModel.deleteBook(removedBook);
+                bookViewModel.deleteBook(removedBook.getId());
 
                 if (isAdded()) {
                     View view = getView();
@@ -101,9 +119,7 @@ public class SavedFragment extends Fragment {
                         Snackbar snackbar = Snackbar.make(view, removedBook.getTitle() + " removed from saved!", Snackbar.LENGTH_SHORT);
                         snackbar.setAnchorView(bottomNavigationView);
                         snackbar.setAction(R.string.undo, v -> {
-                            bookViewModel.saveBook(removedBook, true);
-                            recyclerViewAdapter.addBook(position, removedBook);
-                            recyclerViewAdapter.notifyItemInserted(position);
+                            bookViewModel.restoreBook(removedBook.getId());
                         });
                         snackbar.show();
                     }
@@ -112,22 +128,20 @@ public class SavedFragment extends Fragment {
 
             @Override
             public void onReviewButtonClick(int position) {
-                final Book book = recyclerViewAdapter.getBook(position);
+                final BookListItem book = recyclerViewAdapter.getBook(position);
 
                 if (book.isReviewed()) {
-                    book.setReviewed(false);
                     Snackbar.make(view, book.getTitle() + " removed from reviewed!", Snackbar.LENGTH_SHORT)
                             .setAnchorView(bottomNavigationView)
                             .show();
                 } else {
-                    book.setReviewed(true);
                     Snackbar.make(view, book.getTitle() + " added to reviewed!", Snackbar.LENGTH_SHORT)
                             .setAnchorView(bottomNavigationView)
                             .show();
                 }
 
-                recyclerViewAdapter.notifyItemChanged(position);
-                bookViewModel.updateBook(book);
+                // The paged list rebinds only the star once the flag is written
+                bookViewModel.setReviewed(book.getId(), !book.isReviewed());
             }
         };
     }
@@ -0,0 +1,145 @@
+package com.example.bookmatch.utils;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.LruCache;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+import androidx.annotation.DrawableRes;
+
+import com.example.bookmatch.data.storage.CollectionImageStore;
+
+import java.io.File;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads the cover images of the collections. The image files are decoded on a background executor,
+ * downsampled to the size of the target view and kept in a memory cache keyed by image hash and
+ * target size, so scrolling the list never decodes a full-size image on the UI thread and a view
+ * never shows a cover decoded for a smaller one.
+ */
+public class CollectionCoverLoader {
+
+    private static final int NUMBER_OF_DECODE_THREADS = 2;
+
+    private static volatile CollectionCoverLoader INSTANCE;
+
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ExecutorService decodeExecutor;
+    private final Handler mainThreadHandler;
+
+    private CollectionCoverLoader() {
+        // An eighth of the heap, measured in kilobytes
+        int cacheSize = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8);
+        this.memoryCache = new LruCache<String, Bitmap>(cacheSize) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+        this.decodeExecutor = Executors.newFixedThreadPool(NUMBER_OF_DECODE_THREADS);
+        this.mainThreadHandler = new Handler(Looper.getMainLooper());
+    }
+
+    public static CollectionCoverLoader getInstance() {
+        if (INSTANCE == null) {
+            synchronized (CollectionCoverLoader.class) {
+                if (INSTANCE == null) {
+                    INSTANCE = new CollectionCoverLoader();
+                }
+            }
+        }
+        return INSTANCE;
+    }
+
+    // Must be called on the UI thread, the default image is shown until the cover is decoded
+    public void load(ImageView imageView, String imagePath, String imageHash, @DrawableRes int defaultImage) {
+        if (imagePath == null || imageHash == null) {
+            imageView.setTag(null);
+            imageView.setImageResource(defaultImage);
+            return;
+        }
+
+        int targetWidth = getTargetWidth(imageView);
+        int targetHeight = getTargetHeight(imageView, targetWidth);
+        String key = cacheKey(imageHash, targetWidth, targetHeight);
+        imageView.setTag(key);
+
+        Bitmap cached = memoryCache.get(key);
+        if (cached != null) {
+            imageView.setImageBitmap(cached);
+            return;
+        }
+
+        imageView.setImageResource(defaultImage);
+        File imageFile = CollectionImageStore.getInstance(imageView.getContext()).getImageFile(imagePath);
+
+        decodeExecutor.execute(() -> {
+            Bitmap bitmap = decodeSampledBitmap(imageFile, targetWidth, targetHeight);
+            if (bitmap == null) {
+                return;
+            }
+            memoryCache.put(key, bitmap);
+            mainThreadHandler.post(() -> {
+                // The view may have been recycled for another collection in the meantime
+                if (key.equals(imageView.getTag())) {
+                    imageView.setImageBitmap(bitmap);
+                }
+            });
+        });
+    }
+
+    // Files are named after their content, the hash identifies the image whatever collection uses it;
+    // the list rows and the edit screens show it at different sizes
+    static String cacheKey(String imageHash, int targetWidth, int targetHeight) {
+        return imageHash + "@" + targetWidth + "x" + targetHeight;
+    }
+
+    private static int getTargetWidth(ImageView imageView) {
+        if (imageView.getWidth() > 0) {
+            return imageView.getWidth();
+        }
+        ViewGroup.LayoutParams params = imageView.getLayoutParams();
+        if (params != null && params.width > 0) {
+            return params.width;
+        }
+        return imageView.getResources().getDisplayMetrics().widthPixels;
+    }
+
+    private static int getTargetHeight(ImageView imageView, int targetWidth) {
+        if (imageView.getHeight() > 0) {
+            return imageView.getHeight();
+        }
+        ViewGroup.LayoutParams params = imageView.getLayoutParams();
+        if (params != null && params.height > 0) {
+            return params.height;
+        }
+        return targetWidth;
+    }
+
+    private static Bitmap decodeSampledBitmap(File imageFile, int targetWidth, int targetHeight) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+
+        options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+        options.inJustDecodeBounds = false;
+        return BitmapFactory.decodeFile(imageFile.getAbsolutePath(), options);
+    }
+
+    // Largest power of two that keeps both sides at least as big as the target
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int inSampleSize = 1;
+        if (width <= 0 || height <= 0) {
+            return inSampleSize;
+        }
+        while (width / (inSampleSize * 2) >= targetWidth && height / (inSampleSize * 2) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+}
@@ -7,14 +7,98 @@ public class Constants {
     public static final String API_SEARCH_BOOK_QUERY = "q";
 
     public static final String API_SEARCH_BOOK_MAX_RESULTS = "maxResults";
-    public static final int API_SEARCH_BOOK_MAX_RESULTS_VALUE = 20;
-    public static final int API_SEARCH_BOOK_MIN_RESULTS_VALUE = 20;
+    // Least number of requests a single deck refill may spend, see BookPageAccumulator
+    public static final int API_REFILL_REQUEST_BUDGET = 4;
+    // Bounds of the adaptive fetch controller, the API allows at most 40 results per page;
+    // page sizes are API_PAGE_SIZE_MIN times a power of two, API_PAGE_SIZE_MAX has to be one of them
+    public static final int API_PAGE_SIZE_MIN = 10;
+    public static final int API_PAGE_SIZE_MAX = 40;
+    public static final int API_MAX_PARALLEL_REQUESTS = 4;
+    public static final double FETCH_SMOOTHING_FACTOR = 0.3;
+    public static final long FETCH_DEFAULT_LATENCY = 800; // milliseconds
+    public static final double FETCH_DEFAULT_YIELD = 0.75;
+    public static final long FETCH_DEFAULT_SWIPE_INTERVAL = 3000; // milliseconds
     public static final String API_SEARCH_BOOK_START_INDEX = "startIndex";
+    // Genres queried together by the Mix option of the Explore screen, see MultiGenreAccumulator
+    public static final String[] MIX_GENRES = {"Fiction", "History", "Science", "Biography"};
+    public static final long MIX_GENRE_DEADLINE = 1500; // milliseconds
+
+    // Shared HTTP client
+    public static final String HTTP_CACHE_DIRECTORY = "http_cache";
+    public static final long HTTP_CACHE_SIZE = 10 * 1024 * 1024; // 10 MB
+    public static final int HTTP_CACHE_MAX_AGE = 60 * 30; // 30 minutes in seconds
+    public static final int HTTP_MAX_IDLE_CONNECTIONS = 5;
+    public static final long HTTP_KEEP_ALIVE_MINUTES = 5;
+
+    // Explore cards kept for offline use, per genre
+    public static final int OFFLINE_CARDS_PER_GENRE = 60;
+
+    // Explore deck look-ahead buffer
+    public static final int DECK_CAPACITY = 40;
+    public static final int DECK_LOW_WATERMARK = 20;
+    public static final int DECK_DEAL_SIZE = 10;
+    public static final int DECK_DEAL_THRESHOLD = 5;
+    // Delay before a refill that left the deck short is tried again, doubled at every attempt
+    public static final long DECK_REFILL_RETRY_DELAY = 1000; // milliseconds
+    public static final int DECK_REFILL_MAX_RETRIES = 4;
+    // Covers of the next cards warmed in the Glide caches
+    public static final int COVER_PREFETCH_COUNT = 6;
+
+    // Weights of the affinities that rank the Explore cards, see TasteProfile
+    public static final double TASTE_AUTHOR_WEIGHT = 0.5;
+    public static final double TASTE_GENRE_WEIGHT = 0.3;
+    public static final double TASTE_YEAR_WEIGHT = 0.2;
+    // Books a signal needs before its affinity gets close to 1 or -1
+    public static final double TASTE_SIGNAL_PRIOR = 3;
+    // Added to the affinity of the favourite genre and author of the account preferences
+    public static final double TASTE_PREFERENCE_BONUS = 0.5;
+
+    public static final String DATABASE_NAME = "bookmatch_db";
+    public static final int DATABASE_VERSION = 6;
+
+    // Collection cover images, stored as files next to the database
+    public static final String COLLECTION_IMAGE_DIRECTORY = "collection_images";
+    public static final int COLLECTION_IMAGE_MAX_SIZE = 1080; // longest side in pixels
+    public static final int COLLECTION_IMAGE_QUALITY = 85;
+    public static final long COLLECTION_IMAGE_ORPHAN_GRACE = 1000 * 60 * 60; // 1 hour in milliseconds
+    public static final int COLLECTION_IMAGE_BLOB_CHUNK_SIZE = 512 * 1024; // 512 KB
+
+    // Databases of previous versions, imported into DATABASE_NAME on first open
     public static final String BOOK_DATABASE_NAME = "book_db";
-
     public static final String COLLECTION_CONTAINER_DATABASE_NAME = "container_db";
     public static final String COLLECTION_GROUP_DATABASE_NAME = "group_db";
-    public static final int DATABASE_VERSION = 26;
+    // Set in SHARED_PREF_NAME once the legacy data has been imported and the image blobs exported
+    public static final String KEY_LEGACY_DATA_IMPORTED = "isLegacyDataImported";
+    // Rows of a legacy table copied per transaction
+    public static final int LEGACY_IMPORT_BATCH_SIZE = 500;
+
+    // Database writes running longer than this are logged with the state of the write queue
+    public static final long DATABASE_SLOW_WRITE_THRESHOLD = 100; // milliseconds
+
+    // Explore swipe decisions are written in batches, whichever limit is reached first
+    public static final String SWIPE_JOURNAL_DIRECTORY = "swipe_journal";
+    public static final int SWIPE_JOURNAL_FLUSH_SIZE = 10;
+    public static final long SWIPE_JOURNAL_FLUSH_DELAY = 2000; // 2 seconds in milliseconds
+
+    // Ids bound to a single IN (...) query, SQLite allows at most 999 variables per statement
+    public static final int SQLITE_MAX_BATCH_VARIABLES = 500;
+
+    // Paged lists of the library, at most PAGING_MAX_SIZE books are kept in memory
+    public static final int PAGING_PAGE_SIZE = 30;
+    public static final int PAGING_PREFETCH_DISTANCE = 15;
+    public static final int PAGING_INITIAL_LOAD_SIZE = 60;
+    public static final int PAGING_MAX_SIZE = 200;
+
+    // Words of a library search, the others are ignored
+    public static final int SEARCH_MAX_TERMS = 8;
+
+    // Authors suggested in the preferences, the ones with the most saved books first
+    public static final int AUTHOR_SUGGESTIONS_LIMIT = 100;
+
+    // Google Books page cache
+    public static final long PAGE_CACHE_TTL = 1000 * 60 * 60; // 1 hour in milliseconds
+    public static final long PAGE_CACHE_MAX_AGE = 1000 * 60 * 60 * 24 * 7; // 7 days in milliseconds
+    public static final int PAGE_CACHE_MAX_PAGES = 500;
 
     public static final String SHARED_PREF_NAME = "appSharedPreferences";
     public static final String USER_REMEMBER_ME_SP = "rememberMe";
@@ -22,7 +106,6 @@ public class Constants {
     public static final String USER_PREFERENCES_EMAIL = "email";
     public static final String KEY_ONBOARD_OPENED = "isOnboardOpened";
 
-    public static final String LAST_UPDATE_PREF = "lastUpdatePref";
     public static final String USER_PREFERENCES_GOOGLE_ID_TOKEN = "userIdTokenGoogle";
 
     public static final String USER_PREFERENCES_GOOGLE_ACCESS_METHOD = "userGoogleAccessMethod";
@@ -47,9 +130,8 @@ public class Constants {
 
     public static final String NO_CONNECTION = "No connection";
 
-    public static final String BOOKS_JSON_DIRECTORY = "books.json";
-
-    public static final int SAVE_INTERVAL = 1000 * 60 * 5; //5 minutes in milliseconds
+    // Offline Explore cards of previous versions, deleted on the first start
+    public static final String LEGACY_OFFLINE_BOOKS_FILE = "books.json";
 
     public static final String BASE_URL_IMAGES_STORAGE = "images/";
     public static final String ERROR_WHILE_UPLOADING_IMAGE = "Error while uploading image";
@@ -1,52 +1,58 @@
 package com.example.bookmatch.utils;
 
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
-
 import androidx.room.TypeConverter;
 
-import java.io.ByteArrayOutputStream;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
 
 public class Converters {
+
+    private static final Gson gson = new Gson();
+    private static final Type stringListType = new TypeToken<ArrayList<String>>() {}.getType();
+
+    // Stored as a JSON array, author names may contain commas
     @TypeConverter
     public static String fromArrayList(ArrayList<String> list) {
-
-        StringBuilder sb = new StringBuilder();
-        if(list == null) {
-            return sb.toString();
-        }
-        for (String s : list) {
-            sb.append(s);
-            sb.append(",");
+        if (list == null) {
+            return gson.toJson(new ArrayList<String>());
         }
-        return sb.toString();
+        return gson.toJson(list, stringListType);
     }
 
     @TypeConverter
     public static ArrayList<String> toArrayList(String string) {
-        String[] array = string.split(",");
-        return new ArrayList<>(Arrays.asList(array));
-    }
-
-    @TypeConverter
-    public static byte[] fromBitmap(Bitmap bitmap) {
-        if (bitmap == null) {
-            return null;
+        if (string == null) {
+            return new ArrayList<>();
+        }
+        if (isJsonEncoded(string)) {
+            try {
+                ArrayList<String> list = gson.fromJson(string, stringListType);
+                return list != null ? list : new ArrayList<>();
+            } catch (JsonParseException e) {
+                // falls back to the comma separated encoding
+            }
         }
+        return fromLegacyEncoding(string);
+    }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
-        return outputStream.toByteArray();
+    public static boolean isJsonEncoded(String string) {
+        return string.startsWith("[");
     }
 
-    @TypeConverter
-    public static Bitmap toBitmap(byte[] bytes) {
-        if (bytes == null) {
-            return null;
+    // Rows written by previous versions join the names with a trailing comma
+    public static ArrayList<String> fromLegacyEncoding(String string) {
+        ArrayList<String> list = new ArrayList<>();
+        for (String s : Arrays.asList(string.split(","))) {
+            String name = s.trim();
+            if (!name.isEmpty()) {
+                list.add(name);
+            }
         }
-
-        return BitmapFactory.decodeByteArray(bytes, 0, bytes.length);
+        return list;
     }
 }
@@ -0,0 +1,245 @@
+package com.example.bookmatch.utils;
+
+import static com.example.bookmatch.utils.Constants.COVER_PREFETCH_COUNT;
+
+import android.graphics.drawable.Drawable;
+import android.os.SystemClock;
+import android.widget.ImageView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.load.DataSource;
+import com.bumptech.glide.load.engine.GlideException;
+import com.bumptech.glide.request.Request;
+import com.bumptech.glide.request.RequestListener;
+import com.bumptech.glide.request.target.Target;
+import com.example.bookmatch.model.Book;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the Glide caches with the covers of the next Explore cards. Covers are preloaded with
+ * the size and the transformation of the card, so binding a prefetched card is a memory cache
+ * hit instead of a download. Prefetches wait for the first card to be laid out, since the size
+ * is part of the cache key. Only the window of the next cards is tracked: the prefetches of the
+ * cards already passed are cancelled, the window is prefetched again when the cards are resized
+ * and everything is cancelled when the deck is cleared. Must be used on the UI thread.
+ */
+public class CoverPrefetcher {
+
+    private static final Metrics METRICS = new Metrics();
+
+    private final RequestManager requestManager;
+    // Prefetches of the window by cover, at most COVER_PREFETCH_COUNT
+    private final Map<String, Target<Drawable>> prefetchTargets;
+    // Covers of the window already requested, kept so the window is not prefetched twice
+    private final Set<String> prefetchedCovers;
+    private int coverWidth;
+    private int coverHeight;
+    private List<Book> window;
+
+    /**
+     * Counters of the cover loads of the Explore cards, readable from any thread.
+     */
+    public static class Metrics {
+        private final AtomicLong prefetchedCovers = new AtomicLong();
+        private final AtomicLong cancelledPrefetches = new AtomicLong();
+        private final AtomicLong displayedCovers = new AtomicLong();
+        private final AtomicLong memoryHits = new AtomicLong();
+        private final AtomicLong diskHits = new AtomicLong();
+        private final AtomicLong failedCovers = new AtomicLong();
+        private final AtomicLong totalTimeToFirstPixel = new AtomicLong();
+        private final AtomicLong lastTimeToFirstPixel = new AtomicLong();
+
+        public long getPrefetchedCovers() {
+            return prefetchedCovers.get();
+        }
+
+        public long getCancelledPrefetches() {
+            return cancelledPrefetches.get();
+        }
+
+        public long getDisplayedCovers() {
+            return displayedCovers.get();
+        }
+
+        public long getFailedCovers() {
+            return failedCovers.get();
+        }
+
+        // Share of the displayed covers that were already decoded in memory
+        public double getMemoryHitRatio() {
+            long count = displayedCovers.get();
+            return count == 0 ? 0 : (double) memoryHits.get() / count;
+        }
+
+        // Share of the displayed covers that did not need the network
+        public double getHitRatio() {
+            long count = displayedCovers.get();
+            return count == 0 ? 0 : (double) (memoryHits.get() + diskHits.get()) / count;
+        }
+
+        // Milliseconds between the binding of a card and its cover being ready
+        public long getLastTimeToFirstPixel() {
+            return lastTimeToFirstPixel.get();
+        }
+
+        public long getAverageTimeToFirstPixel() {
+            long count = displayedCovers.get();
+            return count == 0 ? 0 : totalTimeToFirstPixel.get() / count;
+        }
+    }
+
+    public CoverPrefetcher(RequestManager requestManager) {
+        this.requestManager = requestManager;
+        this.prefetchTargets = new LinkedHashMap<>();
+        this.prefetchedCovers = new HashSet<>();
+        this.coverWidth = 0;
+        this.coverHeight = 0;
+        this.window = null;
+    }
+
+    public static Metrics getMetrics() {
+        return METRICS;
+    }
+
+    // Every card has the same size, the first one laid out gives the size of the prefetches
+    public void setCoverSize(int width, int height) {
+        if (width <= 0 || height <= 0 || (width == coverWidth && height == coverHeight)) {
+            return;
+        }
+        boolean resized = coverWidth != 0;
+        coverWidth = width;
+        coverHeight = height;
+
+        // Covers prefetched with the old size would not be hits anymore, the window is prefetched
+        // again with the new one
+        if (resized) {
+            cancelPrefetches();
+        }
+        prefetchWindow();
+    }
+
+    // Prefetches the covers of the COVER_PREFETCH_COUNT cards starting at the given position
+    public void prefetch(List<Book> books, int fromPosition) {
+        int from = Math.max(fromPosition, 0);
+        int to = Math.min(from + COVER_PREFETCH_COUNT, books.size());
+        if (from >= to) {
+            return;
+        }
+
+        window = new ArrayList<>(books.subList(from, to));
+        prefetchWindow();
+    }
+
+    // Drops the prefetches not completed yet and the window, used when the genre changes
+    public void cancel() {
+        cancelPrefetches();
+        window = null;
+    }
+
+    // Waits for the first card to be laid out. The prefetches left behind by the window are
+    // cancelled and the completed ones forgotten, then the covers not requested yet are preloaded
+    private void prefetchWindow() {
+        if (window == null || coverWidth == 0) {
+            return;
+        }
+
+        Set<String> windowCovers = new LinkedHashSet<>();
+        for (Book book : window) {
+            if (book.getCoverURI() != null) {
+                windowCovers.add(book.getCoverURI());
+            }
+        }
+
+        Iterator<Map.Entry<String, Target<Drawable>>> targets = prefetchTargets.entrySet().iterator();
+        while (targets.hasNext()) {
+            Map.Entry<String, Target<Drawable>> entry = targets.next();
+            boolean running = isRunning(entry.getValue());
+            if (running && windowCovers.contains(entry.getKey())) {
+                continue;
+            }
+            if (running) {
+                METRICS.cancelledPrefetches.incrementAndGet();
+                requestManager.clear(entry.getValue());
+            }
+            targets.remove();
+        }
+        prefetchedCovers.retainAll(windowCovers);
+
+        for (String coverURI : windowCovers) {
+            if (!prefetchedCovers.add(coverURI)) {
+                continue;
+            }
+            prefetchTargets.put(coverURI, coverRequest(coverURI).preload(coverWidth, coverHeight));
+            METRICS.prefetchedCovers.incrementAndGet();
+        }
+    }
+
+    private void cancelPrefetches() {
+        for (Target<Drawable> target : prefetchTargets.values()) {
+            if (isRunning(target)) {
+                METRICS.cancelledPrefetches.incrementAndGet();
+            }
+            requestManager.clear(target);
+        }
+        prefetchTargets.clear();
+        prefetchedCovers.clear();
+    }
+
+    private static boolean isRunning(Target<Drawable> target) {
+        Request request = target.getRequest();
+        return request != null && !request.isComplete();
+    }
+
+    // Loads a cover with the same request the prefetch used, so they share the cache key
+    public void load(String coverURI, ImageView imageView) {
+        long boundAt = SystemClock.elapsedRealtime();
+        coverRequest(coverURI)
+                .listener(new RequestListener<Drawable>() {
+                    @Override
+                    public boolean onLoadFailed(@Nullable GlideException e, Object model,
+                                                @NonNull Target<Drawable> target, boolean isFirstResource) {
+                        METRICS.failedCovers.incrementAndGet();
+                        return false;
+                    }
+
+                    @Override
+                    public boolean onResourceReady(@NonNull Drawable resource, @NonNull Object model,
+                                                   Target<Drawable> target, @NonNull DataSource dataSource,
+                                                   boolean isFirstResource) {
+                        long timeToFirstPixel = SystemClock.elapsedRealtime() - boundAt;
+                        METRICS.displayedCovers.incrementAndGet();
+                        METRICS.totalTimeToFirstPixel.addAndGet(timeToFirstPixel);
+                        METRICS.lastTimeToFirstPixel.set(timeToFirstPixel);
+                        if (dataSource == DataSource.MEMORY_CACHE) {
+                            METRICS.memoryHits.incrementAndGet();
+                        } else if (dataSource == DataSource.RESOURCE_DISK_CACHE
+                                || dataSource == DataSource.DATA_DISK_CACHE) {
+                            METRICS.diskHits.incrementAndGet();
+                        }
+                        return false;
+                    }
+                })
+                .into(imageView);
+    }
+
+    private RequestBuilder<Drawable> coverRequest(String coverURI) {
+        RequestBuilder<Drawable> request = requestManager.load(coverURI).centerCrop();
+        if (coverWidth > 0) {
+            request = request.override(coverWidth, coverHeight);
+        }
+        return request;
+    }
+}
@@ -2,11 +2,26 @@ package com.example.bookmatch.utils;
 
 import android.app.Application;
 
-import com.example.bookmatch.data.database.books.BookRoomDatabase;
+import com.example.bookmatch.data.database.BookMatchRoomDatabase;
+import com.example.bookmatch.data.repository.books.PageRequestRegistry;
+import com.example.bookmatch.data.repository.books.SeenBooksIndex;
+import com.example.bookmatch.data.repository.books.SwipeJournal;
+import com.example.bookmatch.data.repository.books.TasteProfile;
 import com.example.bookmatch.data.repository.user.IUserRepository;
 import com.example.bookmatch.data.repository.user.UserRepository;
 import com.example.bookmatch.data.service.BookAPIService;
+import com.example.bookmatch.data.service.BooksListConverterFactory;
+import com.example.bookmatch.data.storage.CollectionImageStore;
 
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
 import retrofit2.Retrofit;
 import retrofit2.converter.gson.GsonConverterFactory;
 
@@ -14,6 +29,10 @@ public class ServiceLocator {
 
     private static volatile ServiceLocator INSTANCE = null;
 
+    private Cache httpCache;
+    private OkHttpClient okHttpClient;
+    private BookAPIService bookAPIService;
+
     private ServiceLocator(){
 
     }
@@ -34,14 +53,82 @@ public class ServiceLocator {
         return new UserRepository();
     }
 
-    public BookAPIService getBooksApiService() {
-        Retrofit retrofit = new Retrofit.Builder().baseUrl(Constants.API_BASE_URL)
-                .addConverterFactory(GsonConverterFactory.create())
+    // The service, its client, connection pool and converter are built once and shared
+    public synchronized BookAPIService getBooksApiService(Application application) {
+        if (bookAPIService == null) {
+            Retrofit retrofit = new Retrofit.Builder().baseUrl(Constants.API_BASE_URL)
+                    .client(getOkHttpClient(application))
+                    .addConverterFactory(new BooksListConverterFactory())
+                    .addConverterFactory(GsonConverterFactory.create())
+                    .build();
+            bookAPIService = retrofit.create(BookAPIService.class);
+        }
+        return bookAPIService;
+    }
+
+    public synchronized OkHttpClient getOkHttpClient(Application application) {
+        if (okHttpClient == null) {
+            okHttpClient = newOkHttpClient(getHttpCache(application));
+        }
+        return okHttpClient;
+    }
+
+    static OkHttpClient newOkHttpClient(Cache cache) {
+        return new OkHttpClient.Builder()
+                .cache(cache)
+                .connectionPool(new ConnectionPool(Constants.HTTP_MAX_IDLE_CONNECTIONS,
+                        Constants.HTTP_KEEP_ALIVE_MINUTES, TimeUnit.MINUTES))
+                .protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1))
+                .addNetworkInterceptor(chain -> {
+                    Response response = chain.proceed(chain.request());
+                    // Errors are never kept, whatever the server says, the next request must retry
+                    if (!response.isSuccessful()) {
+                        return response.newBuilder()
+                                .header("Cache-Control", "no-store")
+                                .build();
+                    }
+                    // Google Books answers with max-age=0, keep the pages for HTTP_CACHE_MAX_AGE instead
+                    return response.newBuilder()
+                            .removeHeader("Pragma")
+                            .removeHeader("Expires")
+                            .header("Cache-Control", "public, max-age=" + Constants.HTTP_CACHE_MAX_AGE)
+                            .build();
+                })
                 .build();
-        return retrofit.create(BookAPIService.class);
     }
 
-    public BookRoomDatabase getBookDao(Application application) {
-        return BookRoomDatabase.getDatabase(application);
+    // Exposes hitCount(), networkCount() and requestCount() of the on-disk HTTP cache
+    public synchronized Cache getHttpCache(Application application) {
+        if (httpCache == null) {
+            File cacheDirectory = new File(application.getCacheDir(), Constants.HTTP_CACHE_DIRECTORY);
+            httpCache = new Cache(cacheDirectory, Constants.HTTP_CACHE_SIZE);
+        }
+        return httpCache;
+    }
+
+    public BookMatchRoomDatabase getDatabase(Application application) {
+        return BookMatchRoomDatabase.getDatabase(application);
+    }
+
+    public CollectionImageStore getCollectionImageStore(Application application) {
+        return CollectionImageStore.getInstance(application);
+    }
+
+    public SeenBooksIndex getSeenBooksIndex(Application application) {
+        return SeenBooksIndex.getInstance(getDatabase(application).bookDao());
+    }
+
+    public SwipeJournal getSwipeJournal(Application application) {
+        return SwipeJournal.getInstance(application, getDatabase(application).bookDao(),
+                getSeenBooksIndex(application), getTasteProfile(application));
+    }
+
+    public TasteProfile getTasteProfile(Application application) {
+        BookMatchRoomDatabase database = getDatabase(application);
+        return TasteProfile.getInstance(database.bookDao(), database.affinityDao());
+    }
+
+    public PageRequestRegistry getPageRequestRegistry() {
+        return PageRequestRegistry.getInstance();
     }
 }
@@ -5,6 +5,9 @@ import com.example.bookmatch.model.Book;
 import java.util.ArrayList;
 
 public interface BookAPIResponseCallback {
-    void onSuccess(ArrayList<Book> books);
+    // books is null when the query has no more results, totalItems is the size reported by the API;
+    // genre and startIndex identify the page that was requested; fromNetwork is true only for the
+    // caller whose request went to the API, not for cached pages or callers that joined it
+    void onSuccess(String genre, int startIndex, ArrayList<Book> books, int totalItems, boolean fromNetwork);
     void onFailure(String message);
 }
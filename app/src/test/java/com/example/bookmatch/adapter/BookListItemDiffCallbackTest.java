@@ -0,0 +1,139 @@
+package com.example.bookmatch.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.Nullable;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListUpdateCallback;
+
+import com.example.bookmatch.model.BookListItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BookListItemDiffCallbackTest {
+
+    private final BookListItemDiffCallback callback = new BookListItemDiffCallback();
+
+    @Test
+    public void sameId_isTheSameItem() {
+        assertTrue(callback.areItemsTheSame(item("a", "Title", false), item("a", "Other", true)));
+        assertFalse(callback.areItemsTheSame(item("a", "Title", false), item("b", "Title", false)));
+    }
+
+    @Test
+    public void reviewToggle_onlyRebindsTheStar() {
+        BookListItem oldItem = item("a", "Title", false);
+        BookListItem newItem = item("a", "Title", true);
+
+        assertFalse(callback.areContentsTheSame(oldItem, newItem));
+        assertEquals(BookListItemDiffCallback.PAYLOAD_REVIEWED, callback.getChangePayload(oldItem, newItem));
+    }
+
+    @Test
+    public void titleChange_rebindsTheWholeRow() {
+        BookListItem oldItem = item("a", "Title", false);
+        BookListItem newItem = item("a", "New title", false);
+
+        assertFalse(callback.areContentsTheSame(oldItem, newItem));
+        assertNull(callback.getChangePayload(oldItem, newItem));
+    }
+
+    // A 5000 rows list where three rows changed
+    @Test
+    public void largeList_dispatchesOnlyTheChangedRows() {
+        int size = 5000;
+        List<BookListItem> oldList = new ArrayList<>(size);
+        List<BookListItem> newList = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            oldList.add(item("id" + i, "Title " + i, false));
+            newList.add(item("id" + i, "Title " + i, i == 10 || i == 2500));
+        }
+        newList.set(4000, item("id4000", "Renamed", false));
+
+        DiffUtil.DiffResult result = DiffUtil.calculateDiff(new ListCallback(oldList, newList), false);
+
+        RecordingUpdateCallback updates = new RecordingUpdateCallback();
+        result.dispatchUpdatesTo(updates);
+
+        assertEquals(0, updates.structuralChanges);
+        assertEquals(Arrays.asList(10, 2500, 4000), updates.changedPositions);
+        assertEquals(Arrays.asList((Object) BookListItemDiffCallback.PAYLOAD_REVIEWED,
+                BookListItemDiffCallback.PAYLOAD_REVIEWED, null), updates.payloads);
+    }
+
+    private static BookListItem item(String id, String title, boolean reviewed) {
+        return new BookListItem(id, title, new ArrayList<>(Arrays.asList("Author")), reviewed);
+    }
+
+    private class ListCallback extends DiffUtil.Callback {
+        private final List<BookListItem> oldList;
+        private final List<BookListItem> newList;
+
+        private ListCallback(List<BookListItem> oldList, List<BookListItem> newList) {
+            this.oldList = oldList;
+            this.newList = newList;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return oldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return newList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return callback.areItemsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            return callback.areContentsTheSame(oldList.get(oldPosition), newList.get(newPosition));
+        }
+
+        @Nullable
+        @Override
+        public Object getChangePayload(int oldPosition, int newPosition) {
+            return callback.getChangePayload(oldList.get(oldPosition), newList.get(newPosition));
+        }
+    }
+
+    private static class RecordingUpdateCallback implements ListUpdateCallback {
+        private final List<Integer> changedPositions = new ArrayList<>();
+        private final List<Object> payloads = new ArrayList<>();
+        private int structuralChanges;
+
+        @Override
+        public void onInserted(int position, int count) {
+            structuralChanges++;
+        }
+
+        @Override
+        public void onRemoved(int position, int count) {
+            structuralChanges++;
+        }
+
+        @Override
+        public void onMoved(int fromPosition, int toPosition) {
+            structuralChanges++;
+        }
+
+        @Override
+        public void onChanged(int position, int count, @Nullable Object payload) {
+            for (int i = 0; i < count; i++) {
+                changedPositions.add(position + i);
+                payloads.add(payload);
+            }
+        }
+    }
+}
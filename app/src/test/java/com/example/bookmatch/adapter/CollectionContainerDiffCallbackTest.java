@@ -0,0 +1,58 @@
+package com.example.bookmatch.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.bookmatch.model.CollectionContainer;
+
+import org.junit.Test;
+
+public class CollectionContainerDiffCallbackTest {
+
+    private final CollectionContainerDiffCallback callback = new CollectionContainerDiffCallback();
+
+    @Test
+    public void sameName_isTheSameItem() {
+        assertTrue(callback.areItemsTheSame(collection("Summer", "a", "h1"), collection("Summer", "b", "h2")));
+        assertFalse(callback.areItemsTheSame(collection("Summer", "a", "h1"), collection("Winter", "a", "h1")));
+    }
+
+    // The image path changes with every import, only the hash tells a different picture
+    @Test
+    public void samePictureStoredAgain_hasTheSameContents() {
+        assertTrue(callback.areContentsTheSame(new CollectionContainer("Summer", "a", "one.jpg", "h1"),
+                new CollectionContainer("Summer", "a", "two.jpg", "h1")));
+    }
+
+    @Test
+    public void descriptionChange_onlyRebindsTheText() {
+        CollectionContainer oldCollection = collection("Summer", "a", "h1");
+        CollectionContainer newCollection = collection("Summer", "b", "h1");
+
+        assertFalse(callback.areContentsTheSame(oldCollection, newCollection));
+        assertEquals(CollectionContainerDiffCallback.PAYLOAD_DESCRIPTION,
+                callback.getChangePayload(oldCollection, newCollection));
+    }
+
+    @Test
+    public void imageChange_onlyDecodesTheImage() {
+        CollectionContainer oldCollection = collection("Summer", "a", "h1");
+        CollectionContainer newCollection = collection("Summer", "a", "h2");
+
+        assertEquals(CollectionContainerDiffCallback.PAYLOAD_IMAGE,
+                callback.getChangePayload(oldCollection, newCollection));
+        assertEquals(CollectionContainerDiffCallback.PAYLOAD_IMAGE,
+                callback.getChangePayload(oldCollection, collection("Summer", "a", null)));
+    }
+
+    @Test
+    public void bothChanged_rebindsTheWholeRow() {
+        assertNull(callback.getChangePayload(collection("Summer", "a", "h1"), collection("Summer", "b", "h2")));
+    }
+
+    private static CollectionContainer collection(String name, String description, String imageHash) {
+        return new CollectionContainer(name, description, imageHash != null ? imageHash + ".jpg" : null, imageHash);
+    }
+}
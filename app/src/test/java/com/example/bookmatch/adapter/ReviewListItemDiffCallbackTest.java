@@ -0,0 +1,49 @@
+package com.example.bookmatch.adapter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.bookmatch.model.ReviewListItem;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ReviewListItemDiffCallbackTest {
+
+    private final ReviewListItemDiffCallback callback = new ReviewListItemDiffCallback();
+
+    @Test
+    public void unchangedRow_hasTheSameContents() {
+        assertTrue(callback.areContentsTheSame(item("a", "Title", "Great", 4f), item("a", "Title", "Great", 4f)));
+    }
+
+    @Test
+    public void editedReview_onlyRebindsTheReview() {
+        ReviewListItem oldItem = item("a", "Title", "Great", 4f);
+
+        ReviewListItem newText = item("a", "Title", "Even better", 4f);
+        assertFalse(callback.areContentsTheSame(oldItem, newText));
+        assertEquals(ReviewListItemDiffCallback.PAYLOAD_REVIEW, callback.getChangePayload(oldItem, newText));
+
+        ReviewListItem newRating = item("a", "Title", "Great", 5f);
+        assertFalse(callback.areContentsTheSame(oldItem, newRating));
+        assertEquals(ReviewListItemDiffCallback.PAYLOAD_REVIEW, callback.getChangePayload(oldItem, newRating));
+    }
+
+    @Test
+    public void titleChange_rebindsTheWholeRow() {
+        ReviewListItem oldItem = item("a", "Title", "Great", 4f);
+        ReviewListItem newItem = item("a", "New title", "Great", 4f);
+
+        assertFalse(callback.areContentsTheSame(oldItem, newItem));
+        assertNull(callback.getChangePayload(oldItem, newItem));
+    }
+
+    private static ReviewListItem item(String id, String title, String review, Float rating) {
+        return new ReviewListItem(id, title, new ArrayList<>(Arrays.asList("Author")), review, rating);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.bookmatch.data.database;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DatabaseWriteDispatcherTest {
+
+    private DatabaseWriteDispatcher dispatcher;
+    private List<String> order;
+    private CountDownLatch release;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        dispatcher = new DatabaseWriteDispatcher();
+        order = Collections.synchronizedList(new ArrayList<>());
+        release = new CountDownLatch(1);
+
+        // Holds the writer thread, the writes submitted meanwhile are queued
+        CountDownLatch started = new CountDownLatch(1);
+        dispatcher.execute(DatabaseWriteDispatcher.Lane.BACKGROUND, () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void userLane_runsBeforeBackgroundLane() throws InterruptedException {
+        dispatcher.execute(DatabaseWriteDispatcher.Lane.BACKGROUND, record("background"));
+        dispatcher.execute(record("user"));
+
+        assertEquals(Arrays.asList("user", "background"), runQueued());
+    }
+
+    @Test
+    public void sameKey_keepsSubmissionOrderAcrossLanes() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.BACKGROUND, "Book:a", record("cache a"));
+        dispatcher.execute(record("other"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:a", record("delete a"));
+
+        List<String> order = runQueued();
+        assertTrue(order.indexOf("cache a") < order.indexOf("delete a"));
+        assertEquals(1, dispatcher.getMetrics().getPromotedWrites());
+    }
+
+    @Test
+    public void batch_waitsForEveryKey() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.BACKGROUND, "Book:a", record("cache a"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.BACKGROUND, "Book:b", record("cache b"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, Arrays.asList("Book:a", "Book:b"),
+                record("insert a b"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:b", record("delete b"));
+
+        assertEquals(Arrays.asList("cache a", "cache b", "insert a b", "delete b"), runQueued());
+        assertEquals(2, dispatcher.getMetrics().getPromotedWrites());
+    }
+
+    @Test
+    public void singleKeyWrite_waitsForAnEarlierBatch() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, Arrays.asList("Book:a", "Book:b"),
+                record("insert a b"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:b", record("delete b"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:c", record("delete c"));
+
+        assertEquals(Arrays.asList("insert a b", "delete c", "delete b"), runQueued());
+    }
+
+    @Test
+    public void promotion_followsBlockersOfBlockers() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.BACKGROUND, "Book:a", record("cache a"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.BACKGROUND, Arrays.asList("Book:a", "Book:b"),
+                record("cache a b"));
+        dispatcher.execute(DatabaseWriteDispatcher.Lane.BACKGROUND, record("cleanup"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:b", record("delete b"));
+
+        assertEquals(Arrays.asList("cache a", "cache a b", "delete b", "cleanup"), runQueued());
+        assertEquals(2, dispatcher.getMetrics().getPromotedWrites());
+    }
+
+    @Test
+    public void failedWrite_releasesItsKey() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:a", () -> {
+            throw new IllegalStateException("constraint failed");
+        });
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:a", record("undo a"));
+
+        assertEquals(Collections.singletonList("undo a"), runQueued());
+        assertEquals(1, dispatcher.getMetrics().getFailedWrites());
+    }
+
+    @Test
+    public void queueDepth_countsBlockedWrites() throws InterruptedException {
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:a", record("first"));
+        dispatcher.submit(DatabaseWriteDispatcher.Lane.USER, "Book:a", record("second"));
+        assertEquals(2, dispatcher.getMetrics().getUserQueueDepth());
+
+        runQueued();
+        assertEquals(0, dispatcher.getMetrics().getUserQueueDepth());
+        assertEquals(0, dispatcher.getMetrics().getBackgroundQueueDepth());
+    }
+
+    private Runnable record(String name) {
+        return () -> order.add(name);
+    }
+
+    // Releases the writer thread and waits for the writes queued before this call
+    private List<String> runQueued() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        dispatcher.execute(DatabaseWriteDispatcher.Lane.BACKGROUND, done::countDown);
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return new ArrayList<>(order);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.bookmatch.data.database.books;
+
+import static com.example.bookmatch.utils.Constants.SEARCH_MAX_TERMS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class BookSearchQueryTest {
+
+    @Test
+    public void words_areLowerCasePrefixes() {
+        BookSearchQuery query = BookSearchQuery.parse("  Pride and PREJUDICE ");
+
+        assertEquals("pride* and* prejudice*", query.getMatchQuery());
+        assertEquals("title:pride* title:and* title:prejudice*", query.getTitleQuery());
+        assertEquals("author_name:pride* author_name:and* author_name:prejudice*", query.getAuthorQuery());
+    }
+
+    // Quotes, operators and column filters typed by the user must not reach the MATCH syntax
+    @Test
+    public void punctuation_isDropped() {
+        assertEquals("tolkien* lord* title* rings*",
+                BookSearchQuery.parse("\"tolkien\" -lord* title:rings").getMatchQuery());
+        assertEquals("o* brien*", BookSearchQuery.parse("O'Brien").getMatchQuery());
+        assertEquals("and* or* not*", BookSearchQuery.parse("AND OR NOT").getMatchQuery());
+    }
+
+    @Test
+    public void accentsAndDigits_areKept() {
+        assertEquals("\u00e8* cos\u00ec* 1984*", BookSearchQuery.parse("\u00c8 cos\u00ec, 1984").getMatchQuery());
+    }
+
+    @Test
+    public void repeatedWords_areMatchedOnce() {
+        assertEquals("dune* messiah*", BookSearchQuery.parse("dune Dune messiah").getMatchQuery());
+    }
+
+    @Test
+    public void words_areLimited() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < SEARCH_MAX_TERMS + 3; i++) {
+            text.append("w").append(i).append(' ');
+        }
+
+        String[] terms = BookSearchQuery.parse(text.toString()).getMatchQuery().split(" ");
+        assertEquals(SEARCH_MAX_TERMS, terms.length);
+        assertEquals("w0*", terms[0]);
+    }
+
+    @Test
+    public void noSearchableWord_givesNull() {
+        assertNull(BookSearchQuery.parse(null));
+        assertNull(BookSearchQuery.parse(""));
+        assertNull(BookSearchQuery.parse("  *\"-:() "));
+    }
+}
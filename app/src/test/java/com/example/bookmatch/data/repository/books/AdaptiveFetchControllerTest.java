@@ -0,0 +1,108 @@
+package com.example.bookmatch.data.repository.books;
+
+import static com.example.bookmatch.utils.Constants.API_MAX_PARALLEL_REQUESTS;
+import static com.example.bookmatch.utils.Constants.API_PAGE_SIZE_MAX;
+import static com.example.bookmatch.utils.Constants.API_PAGE_SIZE_MIN;
+import static com.example.bookmatch.utils.Constants.API_REFILL_REQUEST_BUDGET;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class AdaptiveFetchControllerTest {
+
+    private static final Set<Integer> GRID = new HashSet<>(Arrays.asList(10, 20, 40));
+
+    @Test
+    public void plan_staysWithinBounds() {
+        int[] pageLatencies = {50, 800, 5000};
+        double[] yields = {0.0, 0.3, 1.0};
+
+        for (int pageLatency : pageLatencies) {
+            for (double yield : yields) {
+                AdaptiveFetchController controller = new AdaptiveFetchController();
+                for (int i = 0; i < 20; i++) {
+                    controller.onPageFetched(API_PAGE_SIZE_MAX, (int) (yield * API_PAGE_SIZE_MAX));
+                    controller.onPageLatency(pageLatency);
+                }
+                for (int target = 1; target <= 60; target++) {
+                    for (int deckSize = 0; deckSize <= 30; deckSize += 5) {
+                        assertPlan(controller.plan(target, deckSize));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void plan_lowYieldAndSlowPages_fetchInParallel() {
+        AdaptiveFetchController controller = new AdaptiveFetchController();
+        for (int i = 0; i < 20; i++) {
+            controller.onPageFetched(API_PAGE_SIZE_MAX, 4);
+            controller.onPageLatency(10000);
+        }
+
+        AdaptiveFetchController.FetchPlan plan = controller.plan(40, 0);
+        assertEquals(API_PAGE_SIZE_MAX, plan.getPageSize());
+        assertEquals(API_MAX_PARALLEL_REQUESTS, plan.getParallelism());
+    }
+
+    @Test
+    public void plan_smallRefill_usesSmallPages() {
+        AdaptiveFetchController controller = new AdaptiveFetchController();
+        for (int i = 0; i < 20; i++) {
+            controller.onPageFetched(API_PAGE_SIZE_MAX, API_PAGE_SIZE_MAX);
+            controller.onPageLatency(100);
+        }
+
+        AdaptiveFetchController.FetchPlan plan = controller.plan(5, 20);
+        assertEquals(API_PAGE_SIZE_MIN, plan.getPageSize());
+        assertEquals(1, plan.getParallelism());
+    }
+
+    @Test
+    public void gridPageSize_roundsUpToTheGrid() {
+        assertEquals(10, AdaptiveFetchController.gridPageSize(0));
+        assertEquals(10, AdaptiveFetchController.gridPageSize(10));
+        assertEquals(20, AdaptiveFetchController.gridPageSize(11));
+        assertEquals(40, AdaptiveFetchController.gridPageSize(30));
+        assertEquals(40, AdaptiveFetchController.gridPageSize(500));
+    }
+
+    @Test
+    public void alignedPageSize_shrinksUntilTheStartIsAMultiple() {
+        assertEquals(40, AdaptiveFetchController.alignedPageSize(40, 0));
+        assertEquals(40, AdaptiveFetchController.alignedPageSize(40, 80));
+        assertEquals(20, AdaptiveFetchController.alignedPageSize(40, 20));
+        assertEquals(10, AdaptiveFetchController.alignedPageSize(40, 10));
+        assertEquals(10, AdaptiveFetchController.alignedPageSize(20, 30));
+        assertEquals(20, AdaptiveFetchController.alignedPageSize(25, 40));
+        assertEquals(10, AdaptiveFetchController.alignedPageSize(5, 0));
+    }
+
+    // Whatever sizes the refills plan, the cursor stays on the grid and the pages never partly overlap
+    @Test
+    public void alignedPages_keepTheCursorOnTheGrid() {
+        int[] plannedSizes = {10, 40, 20, 40, 40, 10, 20, 40, 20, 10, 40};
+        int startIndex = 0;
+        for (int plannedSize : plannedSizes) {
+            int pageSize = AdaptiveFetchController.alignedPageSize(plannedSize, startIndex);
+            assertTrue(GRID.contains(pageSize));
+            assertTrue(pageSize <= plannedSize);
+            assertEquals(0, startIndex % pageSize);
+            startIndex += pageSize;
+        }
+    }
+
+    private static void assertPlan(AdaptiveFetchController.FetchPlan plan) {
+        assertTrue("pageSize " + plan.getPageSize(), GRID.contains(plan.getPageSize()));
+        assertTrue("parallelism " + plan.getParallelism(),
+                plan.getParallelism() >= 1 && plan.getParallelism() <= API_MAX_PARALLEL_REQUESTS);
+        assertTrue("budget " + plan.getRequestBudget(),
+                plan.getRequestBudget() >= Math.max(API_REFILL_REQUEST_BUDGET, plan.getParallelism()));
+    }
+}
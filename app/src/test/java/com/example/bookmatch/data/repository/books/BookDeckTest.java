@@ -0,0 +1,98 @@
+package com.example.bookmatch.data.repository.books;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.example.bookmatch.model.Book;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class BookDeckTest {
+
+    @Test
+    public void take_dealsCardsInArrivalOrder() {
+        BookDeck deck = new BookDeck(10, 3);
+        deck.offer(books("a", "b", "c"));
+        deck.offer(books("d"));
+
+        assertEquals(Arrays.asList("a", "b"), ids(deck.take(2)));
+        assertEquals(Arrays.asList("c", "d"), ids(deck.take(2)));
+        assertEquals(0, deck.size());
+    }
+
+    @Test
+    public void take_moreThanAvailable_countsAnUnderflow() {
+        BookDeck deck = new BookDeck(10, 3);
+        deck.offer(books("a", "b"));
+
+        assertEquals(Arrays.asList("a", "b"), ids(deck.take(5)));
+        assertEquals(1, deck.getUnderflows());
+        assertTrue(deck.take(1).isEmpty());
+        assertEquals(2, deck.getUnderflows());
+    }
+
+    @Test
+    public void offer_dropsDuplicates_evenAfterTheyWereDealt() {
+        BookDeck deck = new BookDeck(10, 3);
+
+        assertEquals(2, deck.offer(books("a", "b", "a")));
+        deck.take(2);
+        assertEquals(1, deck.offer(books("b", "c")));
+        assertEquals(Arrays.asList("c"), ids(deck.take(5)));
+    }
+
+    @Test
+    public void clear_forgetsKnownIds() {
+        BookDeck deck = new BookDeck(10, 3);
+        deck.offer(books("a"));
+        deck.clear();
+
+        assertEquals(0, deck.size());
+        assertEquals(1, deck.offer(books("a")));
+    }
+
+    @Test
+    public void needsRefill_belowLowWatermarkOnly() {
+        BookDeck deck = new BookDeck(5, 3);
+        assertTrue(deck.needsRefill());
+        assertEquals(5, deck.getMissingCards());
+
+        deck.offer(books("a", "b", "c"));
+        assertFalse(deck.needsRefill());
+        assertEquals(2, deck.getMissingCards());
+
+        deck.take(1);
+        assertTrue(deck.needsRefill());
+        assertEquals(3, deck.getMissingCards());
+    }
+
+    @Test
+    public void getMissingCards_neverNegative() {
+        BookDeck deck = new BookDeck(2, 1);
+        deck.offer(books("a", "b", "c"));
+
+        assertEquals(3, deck.size());
+        assertEquals(0, deck.getMissingCards());
+    }
+
+    private static List<Book> books(String... ids) {
+        List<Book> books = new ArrayList<>();
+        for (String id : ids) {
+            books.add(new Book(id, "Title " + id, null, null, null, null, false, false, null, null));
+        }
+        return books;
+    }
+
+    private static List<String> ids(List<Book> books) {
+        List<String> ids = new ArrayList<>();
+        for (Book book : books) {
+            ids.add(book.getId());
+        }
+        return ids;
+    }
+}
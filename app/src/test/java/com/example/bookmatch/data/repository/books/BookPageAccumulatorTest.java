@@ -0,0 +1,234 @@
+package com.example.bookmatch.data.repository.books;
+
+import static org.junit.Assert.assertEquals;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.PagingData;
+
+import com.example.bookmatch.model.AuthorBookCount;
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BookListItem;
+import com.example.bookmatch.model.ReviewListItem;
+import com.example.bookmatch.ui.main.GenreMapping;
+import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BookPageAccumulatorTest {
+
+    private PageServingRepository repository;
+    private List<Book> accumulated;
+
+    @Before
+    public void setUp() {
+        repository = new PageServingRepository();
+        accumulated = new ArrayList<>();
+    }
+
+    // The English names are the ones of the API, the selection is used as it is
+    @Test
+    public void englishSelection_stampsItsGenre() {
+        String genre = GenreMapping.resolveGenre("Fiction");
+        new BookPageAccumulator(repository, genre, new AdaptiveFetchController())
+                .accumulate(10, 10, 4, 1, new CollectingListener());
+
+        assertEquals(Collections.singletonList("Fiction"), repository.requestedGenres);
+        assertEquals(10, accumulated.size());
+        for (Book book : accumulated) {
+            assertEquals("Fiction", book.getGenre());
+        }
+    }
+
+    @Test
+    public void italianSelection_stampsTheEnglishGenre() {
+        String genre = GenreMapping.resolveGenre("Narrativa");
+        new BookPageAccumulator(repository, genre, new AdaptiveFetchController())
+                .accumulate(10, 10, 4, 1, new CollectingListener());
+
+        assertEquals(10, accumulated.size());
+        for (Book book : accumulated) {
+            assertEquals("Fiction", book.getGenre());
+        }
+    }
+
+    // Cached and joined pages cost no round trip, only their yield is measured
+    @Test
+    public void pagesNotFromTheNetwork_feedOnlyTheYield() {
+        RecordingController controller = new RecordingController();
+        repository.fromNetwork = false;
+        new BookPageAccumulator(repository, "Fiction", controller)
+                .accumulate(10, 10, 4, 1, new CollectingListener());
+
+        assertEquals(1, controller.fetchedPages);
+        assertEquals(0, controller.measuredLatencies);
+
+        repository.fromNetwork = true;
+        new BookPageAccumulator(repository, "Fantasy", controller)
+                .accumulate(10, 10, 4, 1, new CollectingListener());
+
+        assertEquals(2, controller.fetchedPages);
+        assertEquals(1, controller.measuredLatencies);
+    }
+
+    private static class RecordingController extends AdaptiveFetchController {
+        private int fetchedPages;
+        private int measuredLatencies;
+
+        @Override
+        public synchronized void onPageFetched(int pageSize, int keptBooks) {
+            fetchedPages++;
+            super.onPageFetched(pageSize, keptBooks);
+        }
+
+        @Override
+        public synchronized void onPageLatency(long pageLatency) {
+            measuredLatencies++;
+            super.onPageLatency(pageLatency);
+        }
+    }
+
+    private class CollectingListener implements BookPageAccumulator.Listener {
+        @Override
+        public void onPagesAccumulated(ArrayList<Book> books, int requestCount, boolean exhausted) {
+            accumulated.addAll(books);
+        }
+
+        @Override
+        public void onFailure(String message) {
+            throw new AssertionError(message);
+        }
+    }
+
+    // Answers every page at once with maxResults new books, the other methods are not used
+    private static class PageServingRepository implements IBookRepository {
+        private final List<String> requestedGenres = new ArrayList<>();
+        private boolean fromNetwork = true;
+
+        @Override
+        public void fetchBooks(String genre, int startIndex, int maxResults, BookAPIResponseCallback callback) {
+            requestedGenres.add(genre);
+            ArrayList<Book> books = new ArrayList<>();
+            for (int i = startIndex; i < startIndex + maxResults; i++) {
+                books.add(new Book("id" + i, "Title " + i, new ArrayList<>(Collections.singletonList("Author")),
+                        null, "2001", null, false, false, null, 0.0f));
+            }
+            callback.onSuccess(genre, startIndex, books, 1000, fromNetwork);
+        }
+
+        @Override
+        public void cancelFetches(String genre) {
+        }
+
+        @Override
+        public void storeOfflineCards(String genre, List<Book> books) {
+        }
+
+        @Override
+        public LiveData<List<Book>> getOfflineCardsLiveData(String genre, int limit) {
+            return null;
+        }
+
+        @Override
+        public void rankBooks(List<Book> books) {
+        }
+
+        @Override
+        public void setTastePreferences(String genre, String author) {
+        }
+
+        @Override
+        public void insertBook(Book book) {
+        }
+
+        @Override
+        public void recordSwipe(Book book) {
+        }
+
+        @Override
+        public void flushSwipes() {
+        }
+
+        @Override
+        public void updateBook(Book book) {
+        }
+
+        @Override
+        public void deleteBook(String id) {
+        }
+
+        @Override
+        public void restoreBook(String id) {
+        }
+
+        @Override
+        public void updateReviewed(String id, boolean reviewed) {
+        }
+
+        @Override
+        public void insertBooks(List<Book> books) {
+        }
+
+        @Override
+        public void updateBooks(List<Book> books) {
+        }
+
+        @Override
+        public void deleteBooks(List<String> ids) {
+        }
+
+        @Override
+        public LiveData<List<Book>> getSavedBooksLiveData() {
+            return null;
+        }
+
+        @Override
+        public LiveData<PagingData<BookListItem>> getSavedBooksPagingLiveData() {
+            return null;
+        }
+
+        @Override
+        public LiveData<PagingData<ReviewListItem>> getReviewedBooksPagingLiveData() {
+            return null;
+        }
+
+        @Override
+        public LiveData<PagingData<BookListItem>> searchSavedBooksPagingLiveData(String query) {
+            return null;
+        }
+
+        @Override
+        public LiveData<List<BookListItem>> getSavedBooksByAuthorLiveData(String author) {
+            return null;
+        }
+
+        @Override
+        public LiveData<List<AuthorBookCount>> getTopAuthorsLiveData(int limit) {
+            return null;
+        }
+
+        @Override
+        public LiveData<Integer> getSavedBooksCountLiveData() {
+            return null;
+        }
+
+        @Override
+        public LiveData<Integer> getReviewedBooksCountLiveData() {
+            return null;
+        }
+
+        @Override
+        public LiveData<Book> getBookLiveData(String id) {
+            return null;
+        }
+
+        @Override
+        public LiveData<Boolean> isBookSavedLiveData(String id) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.bookmatch.data.repository.books;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.utils.callbacks.BookAPIResponseCallback;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.http.GET;
+
+public class PageRequestRegistryTest {
+
+    // Calls are never executed, the tests only cancel them
+    private interface PageService {
+        @GET("volumes")
+        Call<ResponseBody> page();
+    }
+
+    private PageRequestRegistry registry;
+    private PageService service;
+
+    @Before
+    public void setUp() {
+        registry = new PageRequestRegistry();
+        service = new Retrofit.Builder().baseUrl("http://localhost/").build().create(PageService.class);
+    }
+
+    @Test
+    public void join_samePage_isCoalesced() {
+        BookAPIResponseCallback first = new NoopCallback();
+        BookAPIResponseCallback second = new NoopCallback();
+
+        PageRequestRegistry.Request request = registry.join("Fantasy", 0, 40, first);
+        assertNotNull(request);
+        assertNull(registry.join("Fantasy", 0, 40, second));
+
+        assertEquals(Arrays.asList(first, second), registry.complete(request));
+        assertEquals(1, registry.getMetrics().getStartedRequests());
+        assertEquals(1, registry.getMetrics().getCoalescedRequests());
+    }
+
+    @Test
+    public void join_otherStartIndexSizeOrGenre_startsNewRequests() {
+        assertNotNull(registry.join("Fantasy", 0, 40, new NoopCallback()));
+        assertNotNull(registry.join("Fantasy", 40, 40, new NoopCallback()));
+        assertNotNull(registry.join("Fantasy", 0, 20, new NoopCallback()));
+        assertNotNull(registry.join("Horror", 0, 40, new NoopCallback()));
+
+        assertEquals(4, registry.getMetrics().getStartedRequests());
+        assertEquals(0, registry.getMetrics().getCoalescedRequests());
+    }
+
+    @Test
+    public void complete_letsTheNextJoinStartAgain() {
+        PageRequestRegistry.Request request = registry.join("Fantasy", 0, 40, new NoopCallback());
+        registry.complete(request);
+
+        assertNotNull(registry.join("Fantasy", 0, 40, new NoopCallback()));
+    }
+
+    @Test
+    public void cancel_dropsCallbacksAndCancelsCallsOfTheGenreOnly() {
+        PageRequestRegistry.Request fantasy = registry.join("Fantasy", 0, 40, new NoopCallback());
+        PageRequestRegistry.Request horror = registry.join("Horror", 0, 40, new NoopCallback());
+        Call<ResponseBody> fantasyCall = service.page();
+        Call<ResponseBody> horrorCall = service.page();
+        assertTrue(registry.attachCall(fantasy, fantasyCall));
+        assertTrue(registry.attachCall(horror, horrorCall));
+
+        registry.cancel("Fantasy");
+
+        assertTrue(fantasyCall.isCanceled());
+        assertFalse(horrorCall.isCanceled());
+        assertTrue(registry.complete(fantasy).isEmpty());
+        assertEquals(1, registry.complete(horror).size());
+        assertEquals(1, registry.getMetrics().getCancelledRequests());
+    }
+
+    @Test
+    public void cancel_newRequestsOfTheGenreStartAgain() {
+        registry.join("Fantasy", 0, 40, new NoopCallback());
+        registry.cancel("Fantasy");
+
+        assertNotNull(registry.join("Fantasy", 0, 40, new NoopCallback()));
+    }
+
+    // The page cache lookup runs before the call exists, the call must not be sent then
+    @Test
+    public void attachCall_afterCancel_isRefused() {
+        PageRequestRegistry.Request request = registry.join("Fantasy", 0, 40, new NoopCallback());
+        registry.cancel("Fantasy");
+
+        assertFalse(registry.attachCall(request, service.page()));
+    }
+
+    private static class NoopCallback implements BookAPIResponseCallback {
+        @Override
+        public void onSuccess(String genre, int startIndex, ArrayList<Book> books, int totalItems,
+                              boolean fromNetwork) {
+        }
+
+        @Override
+        public void onFailure(String message) {
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.bookmatch.data.repository.books;
+
+import static org.junit.Assert.assertEquals;
+
+import com.example.bookmatch.data.database.books.AffinityDao;
+import com.example.bookmatch.model.AffinitySignal;
+import com.example.bookmatch.model.Book;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TasteProfileTest {
+
+    // Stands in for the Book table, the tracked writes change it
+    private Map<String, Book> table;
+    private int reads;
+    private FakeAffinityDao affinityDao;
+
+    @Before
+    public void setUp() {
+        table = new HashMap<>();
+        reads = 0;
+        affinityDao = new FakeAffinityDao();
+    }
+
+    @Test
+    public void rank_ordersByTheAffinityOfTheAuthor() {
+        affinityDao.authors.add(new AffinitySignal("Ann", 5, 0, 0, 0));
+        affinityDao.authors.add(new AffinitySignal("Bob", 0, 5, 0, 0));
+        TasteProfile profile = loadedProfile();
+
+        List<Book> books = new ArrayList<>(Arrays.asList(
+                book("bob", "Bob", null), book("carl", "Carl", null), book("ann", "ann ", null)));
+        profile.rank(books);
+
+        assertEquals(Arrays.asList("ann", "carl", "bob"), ids(books));
+    }
+
+    @Test
+    public void rank_keepsTheOrderOfTies() {
+        TasteProfile profile = loadedProfile();
+
+        List<Book> books = new ArrayList<>(Arrays.asList(
+                book("c", "Carl", null), book("a", "Ann", null), book("b", "Bob", null)));
+        profile.rank(books);
+
+        assertEquals(Arrays.asList("c", "a", "b"), ids(books));
+    }
+
+    @Test
+    public void rank_preferredGenreComesFirst() {
+        TasteProfile profile = loadedProfile();
+        profile.setPreferences("Horror", null);
+
+        List<Book> books = new ArrayList<>(Arrays.asList(
+                book("fantasy", "Ann", "Fantasy"), book("horror", "Bob", "horror")));
+        profile.rank(books);
+
+        assertEquals(Arrays.asList("horror", "fantasy"), ids(books));
+    }
+
+    @Test
+    public void trackWrite_appliesTheDifferenceOfEveryWrite() {
+        TasteProfile profile = loadedProfile();
+        Book saved = book("saved", "Ann", null);
+        saved.setSaved(true);
+
+        profile.trackWrite("saved", () -> table.put("saved", saved));
+        assertEquals(Arrays.asList("ann", "carl"), rankedIds(profile, "carl", "ann"));
+
+        // Deleted from the saved list: the book now counts against its author
+        Book deleted = book("saved", "Ann", null);
+        deleted.setSaved(false);
+        profile.trackWrite(Collections.singletonList("saved"), () -> table.put("saved", deleted));
+        assertEquals(Arrays.asList("carl", "ann"), rankedIds(profile, "ann", "carl"));
+
+        // Removed from the table: nothing is left of it
+        profile.trackWrite("saved", () -> table.remove("saved"));
+        assertEquals(Arrays.asList("ann", "carl"), rankedIds(profile, "ann", "carl"));
+    }
+
+    @Test
+    public void trackWrite_beforeTheLoad_isLeftToTheLoad() {
+        List<Runnable> queued = new ArrayList<>();
+        TasteProfile profile = new TasteProfile(this::getBooksByIds, affinityDao, queued::add);
+        Book saved = book("saved", "Ann", null);
+        saved.setSaved(true);
+
+        profile.trackWrite("saved", () -> table.put("saved", saved));
+        assertEquals(0, reads);
+        assertEquals(1, table.size());
+
+        // The aggregates read by the load already count the write
+        affinityDao.authors.add(new AffinitySignal("Ann", 1, 0, 0, 0));
+        queued.get(0).run();
+        assertEquals(Arrays.asList("ann", "carl"), rankedIds(profile, "carl", "ann"));
+    }
+
+    private TasteProfile loadedProfile() {
+        return new TasteProfile(this::getBooksByIds, affinityDao, Runnable::run);
+    }
+
+    private List<Book> getBooksByIds(List<String> ids) {
+        reads++;
+        List<Book> books = new ArrayList<>();
+        for (String id : ids) {
+            if (table.containsKey(id)) {
+                books.add(table.get(id));
+            }
+        }
+        return books;
+    }
+
+    // Ranks a book by each of the authors, the ids are the lower case names
+    private static List<String> rankedIds(TasteProfile profile, String... authors) {
+        List<Book> books = new ArrayList<>();
+        for (String author : authors) {
+            books.add(book(author, author.substring(0, 1).toUpperCase() + author.substring(1), null));
+        }
+        profile.rank(books);
+        return ids(books);
+    }
+
+    private static Book book(String id, String author, String genre) {
+        Book book = new Book(id, "Title of " + id, new ArrayList<>(Collections.singletonList(author)),
+                null, "2001", null, false, false, null, 0.0f);
+        book.setGenre(genre);
+        return book;
+    }
+
+    private static List<String> ids(List<Book> books) {
+        List<String> ids = new ArrayList<>();
+        for (Book book : books) {
+            ids.add(book.getId());
+        }
+        return ids;
+    }
+
+    private static class FakeAffinityDao implements AffinityDao {
+        private final List<AffinitySignal> authors = new ArrayList<>();
+
+        @Override
+        public List<AffinitySignal> getAuthorSignals() {
+            return authors;
+        }
+
+        @Override
+        public List<AffinitySignal> getGenreSignals() {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<AffinitySignal> getDecadeSignals() {
+            return new ArrayList<>();
+        }
+    }
+}
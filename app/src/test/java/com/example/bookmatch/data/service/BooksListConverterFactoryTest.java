@@ -0,0 +1,147 @@
+package com.example.bookmatch.data.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import com.example.bookmatch.model.Book;
+import com.example.bookmatch.model.BooksListApiResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.util.Arrays;
+
+import okhttp3.MediaType;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+public class BooksListConverterFactoryTest {
+
+    private static final MediaType JSON = MediaType.get("application/json; charset=UTF-8");
+
+    private Converter<ResponseBody, ?> converter;
+
+    @Before
+    public void setUp() {
+        Retrofit retrofit = new Retrofit.Builder().baseUrl("http://localhost/").build();
+        converter = new BooksListConverterFactory()
+                .responseBodyConverter(BooksListApiResponse.class, new Annotation[0], retrofit);
+    }
+
+    @Test
+    public void otherTypes_areLeftToTheNextFactory() {
+        Retrofit retrofit = new Retrofit.Builder().baseUrl("http://localhost/").build();
+        assertNull(new BooksListConverterFactory()
+                .responseBodyConverter(String.class, new Annotation[0], retrofit));
+    }
+
+    @Test
+    public void convert_readsTheFieldsOfEveryItem() throws IOException {
+        BooksListApiResponse response = convert("{\"kind\":\"books#volumes\",\"totalItems\":120,\"items\":["
+                + item("a1", "First", "\"Ann\",\"Bob\"", "1999-05-17", "http://covers/a1")
+                + "," + item("b2", "Second", "\"Carl\"", "2004", null)
+                + "]}");
+
+        assertEquals(120, response.getTotResults());
+        assertEquals(2, response.getBooksList().size());
+
+        Book first = response.getBooksList().get(0);
+        assertEquals("a1", first.getId());
+        assertEquals("First", first.getTitle());
+        assertEquals(Arrays.asList("Ann", "Bob"), first.getAuthors());
+        assertEquals("1999-05-17", first.getPublicationYear());
+        assertEquals("http://covers/a1", first.getCoverURI());
+        assertEquals("Description of First", first.getDescription());
+
+        Book second = response.getBooksList().get(1);
+        assertEquals("b2", second.getId());
+        assertNull(second.getCoverURI());
+    }
+
+    @Test
+    public void convert_idAfterVolumeInfo() throws IOException {
+        BooksListApiResponse response = convert("{\"totalItems\":1,\"items\":["
+                + "{\"volumeInfo\":{\"title\":\"Late id\"},\"id\":\"z9\"}]}");
+
+        assertEquals("z9", response.getBooksList().get(0).getId());
+        assertEquals("Late id", response.getBooksList().get(0).getTitle());
+    }
+
+    @Test
+    public void convert_skipsMalformedItemsAndNulls() throws IOException {
+        BooksListApiResponse response = convert("{\"totalItems\":3,\"items\":["
+                + "{\"id\":\"no-volume\"},"
+                + "{\"volumeInfo\":{\"title\":\"No id\"}},"
+                + "{\"id\":\"ok\",\"volumeInfo\":{\"title\":null,\"authors\":[\"Ann\",null]}}]}");
+
+        assertEquals(1, response.getBooksList().size());
+        Book book = response.getBooksList().get(0);
+        assertEquals("ok", book.getId());
+        assertNull(book.getTitle());
+        assertEquals(Arrays.asList("Ann"), book.getAuthors());
+    }
+
+    @Test
+    public void convert_keepsEveryResult_seenBooksAreFilteredByTheRepository() throws IOException {
+        BooksListApiResponse response = convert("{\"totalItems\":2,\"items\":["
+                + item("a1", "First", "\"Ann\"", "1999", null) + ","
+                + item("a1", "First", "\"Ann\"", "1999", null) + "]}");
+
+        assertEquals(2, response.getBooksList().size());
+    }
+
+    // The page accumulator treats a page without items as the end of the query
+    @Test
+    public void convert_missingItems_givesNullList() throws IOException {
+        BooksListApiResponse response = convert("{\"kind\":\"books#volumes\",\"totalItems\":0}");
+
+        assertEquals(0, response.getTotResults());
+        assertNull(response.getBooksList());
+    }
+
+    @Test
+    public void convert_nullItems_givesNullList() throws IOException {
+        assertNull(convert("{\"totalItems\":0,\"items\":null}").getBooksList());
+    }
+
+    // A full 40 results page, every volume carrying the fields the app ignores
+    @Test
+    public void convert_fullPage() throws IOException {
+        StringBuilder json = new StringBuilder("{\"kind\":\"books#volumes\",\"totalItems\":1000,\"items\":[");
+        for (int i = 0; i < 40; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(item("id" + i, "Title " + i, "\"Author " + i + "\"", "2001-01-01",
+                    "http://covers/" + i));
+        }
+        BooksListApiResponse response = convert(json.append("]}").toString());
+
+        assertEquals(1000, response.getTotResults());
+        assertEquals(40, response.getBooksList().size());
+        assertEquals("id39", response.getBooksList().get(39).getId());
+        assertEquals("http://covers/39", response.getBooksList().get(39).getCoverURI());
+    }
+
+    private BooksListApiResponse convert(String json) throws IOException {
+        return (BooksListApiResponse) converter.convert(ResponseBody.create(JSON, json));
+    }
+
+    // A volume as returned by the API, with the fields the app ignores
+    private static String item(String id, String title, String authors, String publishedDate, String thumbnail) {
+        return "{\"kind\":\"books#volume\",\"id\":\"" + id + "\",\"etag\":\"x\","
+                + "\"volumeInfo\":{\"title\":\"" + title + "\",\"authors\":[" + authors + "],"
+                + "\"publisher\":\"Publisher\",\"publishedDate\":\"" + publishedDate + "\","
+                + "\"description\":\"Description of " + title + "\","
+                + "\"industryIdentifiers\":[{\"type\":\"ISBN_13\",\"identifier\":\"9780000000000\"}],"
+                + "\"pageCount\":320,\"categories\":[\"Fiction\"],"
+                + (thumbnail != null
+                ? "\"imageLinks\":{\"smallThumbnail\":\"small\",\"thumbnail\":\"" + thumbnail + "\"},"
+                : "")
+                + "\"language\":\"en\"},"
+                + "\"saleInfo\":{\"country\":\"IT\",\"saleability\":\"NOT_FOR_SALE\"}}";
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bookmatch.ui.main;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+public class GenreMappingTest {
+
+    @Test
+    public void resolveGenre_englishSelection_isKept() {
+        assertEquals("Fiction", GenreMapping.resolveGenre("Fiction"));
+        assertEquals("Juvenile fiction", GenreMapping.resolveGenre("Juvenile fiction"));
+    }
+
+    @Test
+    public void resolveGenre_italianSelection_isTranslated() {
+        assertEquals("Fiction", GenreMapping.resolveGenre("Narrativa"));
+        assertEquals(GenreMapping.MIX_GENRE, GenreMapping.resolveGenre("Mix di generi"));
+    }
+
+    @Test
+    public void resolveGenre_nothingSelected_givesNull() {
+        assertNull(GenreMapping.resolveGenre(null));
+    }
+}
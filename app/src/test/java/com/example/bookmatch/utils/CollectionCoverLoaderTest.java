@@ -0,0 +1,44 @@
+package com.example.bookmatch.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class CollectionCoverLoaderTest {
+
+    @Test
+    public void smallImage_isNotSampled() {
+        assertEquals(1, CollectionCoverLoader.calculateInSampleSize(300, 200, 400, 400));
+        assertEquals(1, CollectionCoverLoader.calculateInSampleSize(400, 400, 400, 400));
+    }
+
+    @Test
+    public void largeImage_keepsBothSidesAboveTheTarget() {
+        // 4000 / 8 = 500 is the last width at least 400 wide
+        assertEquals(8, CollectionCoverLoader.calculateInSampleSize(4000, 4000, 400, 400));
+        assertEquals(2, CollectionCoverLoader.calculateInSampleSize(1600, 1200, 800, 600));
+        assertEquals(1, CollectionCoverLoader.calculateInSampleSize(1599, 1200, 800, 600));
+    }
+
+    // A panorama is limited by its short side
+    @Test
+    public void wideImage_isLimitedByTheShortSide() {
+        assertEquals(2, CollectionCoverLoader.calculateInSampleSize(8000, 1000, 400, 400));
+    }
+
+    // Bounds of a file that could not be read
+    @Test
+    public void unknownBounds_areNotSampled() {
+        assertEquals(1, CollectionCoverLoader.calculateInSampleSize(-1, -1, 400, 400));
+        assertEquals(1, CollectionCoverLoader.calculateInSampleSize(0, 1000, 400, 400));
+    }
+
+    // The list row and the edit screen show the same image at different sizes
+    @Test
+    public void cacheKey_dependsOnTheTargetSize() {
+        assertEquals("abc@1080x582", CollectionCoverLoader.cacheKey("abc", 1080, 582));
+        assertNotEquals(CollectionCoverLoader.cacheKey("abc", 1080, 582),
+                CollectionCoverLoader.cacheKey("abc", 384, 384));
+    }
+}
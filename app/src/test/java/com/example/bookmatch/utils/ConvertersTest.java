@@ -0,0 +1,48 @@
+package com.example.bookmatch.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class ConvertersTest {
+
+    @Test
+    public void jsonRow_keepsCommasInsideNames() {
+        assertEquals(Arrays.asList("Smith, John", "Doe"),
+                Converters.toArrayList("[\"Smith, John\",\"Doe\"]"));
+    }
+
+    // Rows written by previous versions end every name with a comma
+    @Test
+    public void legacyRow_splitsOnCommas() {
+        assertEquals(Arrays.asList("Jane Austen", "Charlotte Bronte"),
+                Converters.toArrayList("Jane Austen, Charlotte Bronte,"));
+        assertEquals(Arrays.asList("Jane Austen"), Converters.toArrayList("Jane Austen,"));
+    }
+
+    @Test
+    public void emptyRows_giveEmptyLists() {
+        assertTrue(Converters.toArrayList(null).isEmpty());
+        assertTrue(Converters.toArrayList("").isEmpty());
+        assertTrue(Converters.toArrayList(",").isEmpty());
+        assertTrue(Converters.toArrayList("[]").isEmpty());
+    }
+
+    // A legacy name starting with a bracket is not valid JSON
+    @Test
+    public void malformedJson_fallsBackToTheLegacyEncoding() {
+        assertEquals(Arrays.asList("[Anonymous]", "Doe"), Converters.toArrayList("[Anonymous], Doe,"));
+    }
+
+    @Test
+    public void fromArrayList_roundTrips() {
+        ArrayList<String> authors = new ArrayList<>(Arrays.asList("Smith, John", "O\"Brien"));
+
+        assertEquals(authors, Converters.toArrayList(Converters.fromArrayList(authors)));
+        assertEquals("[]", Converters.fromArrayList(null));
+    }
+}
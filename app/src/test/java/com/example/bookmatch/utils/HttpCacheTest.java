@@ -0,0 +1,82 @@
+package com.example.bookmatch.utils;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+
+import okhttp3.Cache;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+
+/**
+ * Local tests of the shared HTTP client against a mock server, see ServiceLocator.
+ */
+public class HttpCacheTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private MockWebServer server;
+    private Cache cache;
+    private OkHttpClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        cache = new Cache(temporaryFolder.newFolder("http_cache"), Constants.HTTP_CACHE_SIZE);
+        client = ServiceLocator.newOkHttpClient(cache);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        cache.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void maxAgeZeroPage_isServedFromCache() throws IOException {
+        server.enqueue(new MockResponse()
+                .setHeader("Cache-Control", "private, max-age=0, must-revalidate")
+                .setBody("{\"totalItems\":0}"));
+
+        assertEquals("{\"totalItems\":0}", get("/books/v1/volumes?q=subject:Fiction"));
+        assertEquals("{\"totalItems\":0}", get("/books/v1/volumes?q=subject:Fiction"));
+
+        assertEquals(1, server.getRequestCount());
+        assertEquals(1, cache.networkCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void errorResponse_isNotCached() throws IOException {
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader("Cache-Control", "public, max-age=600")
+                .setBody("not found"));
+        server.enqueue(new MockResponse().setBody("{\"totalItems\":0}"));
+
+        assertEquals("not found", get("/books/v1/volumes?q=subject:History"));
+        assertEquals("{\"totalItems\":0}", get("/books/v1/volumes?q=subject:History"));
+
+        assertEquals(2, server.getRequestCount());
+        assertEquals(2, cache.networkCount());
+        assertEquals(0, cache.hitCount());
+    }
+
+    private String get(String path) throws IOException {
+        Request request = new Request.Builder().url(server.url(path)).build();
+        try (Response response = client.newCall(request).execute()) {
+            return response.body().string();
+        }
+    }
+}